@@ -0,0 +1,28 @@
+package com.taskmanager.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line and always adds the gc
+ * profiler, so every result comes with its allocation rate (gc.alloc.rate.norm is bytes
+ * per operation). For example, to run only the search benchmark on 10M tasks:
+ *
+ *   java -jar benchmarks.jar QueryBenchmark.searchTasks -p tasks=10000000 -jvmArgsAppend -Xmx12g
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.taskmanager.bench;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.util.FileHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The data file codec on its own: the whole-file reader and writer behind
+// FileHandler.loadTasks and saveTasks, and formatTask and parseTask row by row. Every
+// operation covers the whole list, so the GC profiler's gc.alloc.rate.norm divided by
+// tasks is the allocation per row. The sizes stay under the parallel load threshold, so
+// readFile measures the single-threaded reader; "escaped" puts separators, '%', line
+// breaks and non-ASCII text in every task. writeFile includes forcing the file to disk.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CodecBenchmark {
+    @Param({"1000", "10000"})
+    public int tasks;
+
+    @Param({"plain", "escaped"})
+    public String text;
+
+    private List<Task> list;
+    private String[] lines;
+    private Path readFile;
+    private Path writeFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        list = TaskGenerator.generate(tasks);
+        if (text.equals("escaped")) {
+            list = escaped(list);
+        }
+        lines = new String[list.size()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = FileHandler.formatTask(list.get(i));
+        }
+        readFile = Files.createTempFile("tasks-bench-codec-read", ".csv");
+        writeFile = Files.createTempFile("tasks-bench-codec-write", ".csv");
+        FileHandler.saveTasks(list, readFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(readFile);
+        Files.deleteIfExists(writeFile);
+    }
+
+    @Benchmark
+    public List<Task> readFile() throws IOException {
+        return FileHandler.loadTasks(readFile);
+    }
+
+    @Benchmark
+    public void writeFile() throws IOException {
+        FileHandler.saveTasks(list, writeFile);
+    }
+
+    @Benchmark
+    public void formatTask(Blackhole blackhole) {
+        for (int i = 0; i < list.size(); i++) {
+            blackhole.consume(FileHandler.formatTask(list.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void parseTask(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(FileHandler.parseTask(line));
+        }
+    }
+
+    private static List<Task> escaped(List<Task> tasks) {
+        List<Task> result = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Task copy = new Task(task);
+            copy.setTitle(task.getTitle() + " | 100% done");
+            copy.setDescription("Café ✓\r\n" + task.getDescription() + "\nsee %PIPE% | next");
+            result.add(copy);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package com.taskmanager.bench;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.util.TaskPersistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Hands TaskManager a fixed list and drops every write, so benchmarks measure the
+// in-memory work and not the disk.
+final class InMemoryPersistence implements TaskPersistence {
+    private final List<Task> tasks;
+
+    InMemoryPersistence(List<Task> tasks) {
+        this.tasks = tasks;
+    }
+
+    @Override
+    public List<Task> load() {
+        List<Task> copy = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            copy.add(new Task(task));
+        }
+        return copy;
+    }
+
+    @Override
+    public void saveAll(List<Task> tasks) {
+    }
+
+    @Override
+    public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.taskmanager.bench;
+
+import com.taskmanager.logic.TaskManager;
+import com.taskmanager.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// TaskManager.updateTask, cycling through the list so every call changes a different task,
+// and updateAll with batches of BATCH edits. Each pass through the list alternates between
+// the edited and the original version of every task, so every call really changes it.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class MutationBenchmark {
+    private static final int BATCH = 500;
+
+    @Param({"1000", "100000", "1000000"})
+    public int tasks;
+
+    private TaskManager taskManager;
+    private Task[][] versions;
+    private int next;
+    private int pass;
+    private int nextBatch;
+    private int batchPass;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Task> list = TaskGenerator.generate(tasks);
+        taskManager = new TaskManager(new InMemoryPersistence(list));
+        // Prepared up front so the copy isn't part of the measurement: each edit toggles
+        // the status and moves the due date, which touches every index.
+        Task[] edits = new Task[list.size()];
+        for (int i = 0; i < edits.length; i++) {
+            Task edit = new Task(list.get(i));
+            edit.setCompleted(!edit.isCompleted());
+            edit.setDueDate(edit.getDueDate().plusDays(7));
+            edits[i] = edit;
+        }
+        versions = new Task[][] {edits, list.toArray(new Task[0])};
+    }
+
+    @Benchmark
+    public void updateTask() {
+        Task[] version = versions[pass];
+        taskManager.updateTask(version[next]);
+        if (++next == version.length) {
+            next = 0;
+            pass ^= 1;
+        }
+    }
+
+    @Benchmark
+    public int updateAll() {
+        Task[] version = versions[batchPass];
+        int from = nextBatch;
+        int to = Math.min(from + BATCH, version.length);
+        nextBatch = to;
+        if (to == version.length) {
+            nextBatch = 0;
+            batchPass ^= 1;
+        }
+        return taskManager.updateAll(Arrays.asList(version).subList(from, to));
+    }
+}
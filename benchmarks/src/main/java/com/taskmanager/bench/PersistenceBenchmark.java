@@ -0,0 +1,63 @@
+package com.taskmanager.bench;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.util.FileHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// FileHandler.loadTasks and saveTasks on a CSV of the given size in the temp directory.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class PersistenceBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int tasks;
+
+    private List<Task> list;
+    private Path loadFile;
+    private Path saveFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        list = TaskGenerator.generate(tasks);
+        loadFile = Files.createTempFile("tasks-bench-load", ".csv");
+        saveFile = Files.createTempFile("tasks-bench-save", ".csv");
+        FileHandler.saveTasks(list, loadFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(loadFile);
+        Files.deleteIfExists(saveFile);
+    }
+
+    @Benchmark
+    public List<Task> loadTasks() throws IOException {
+        return FileHandler.loadTasks(loadFile);
+    }
+
+    @Benchmark
+    public void saveTasks() throws IOException {
+        FileHandler.saveTasks(list, saveFile);
+    }
+}
@@ -0,0 +1,69 @@
+package com.taskmanager.bench;
+
+import com.taskmanager.logic.TaskManager;
+import com.taskmanager.logic.TaskQuery;
+import com.taskmanager.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The read side of TaskManager: search, ranked search, both sorts and the completed count.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class QueryBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int tasks;
+
+    // A common word, a rarer phrase, and one too short for the trigram index.
+    @Param({"report", "database migration", "q3"})
+    public String term;
+
+    private TaskManager taskManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskManager = new TaskManager(new InMemoryPersistence(TaskGenerator.generate(tasks)));
+    }
+
+    @Benchmark
+    public List<Task> searchTasks() {
+        return taskManager.searchTasks(term);
+    }
+
+    // The top 50 by relevance; should cost about the same at every size.
+    @Benchmark
+    public List<Task> searchRanked() {
+        return taskManager.query(new TaskQuery().text(term).sortBy(TaskQuery.SortKey.RELEVANCE).limit(50)).getTasks();
+    }
+
+    @Benchmark
+    public List<Task> sortTasksByDate() {
+        return taskManager.sortTasksByDate();
+    }
+
+    @Benchmark
+    public List<Task> sortTasksByPriority() {
+        return taskManager.sortTasksByPriority();
+    }
+
+    @Benchmark
+    public int getCompletedTasks() {
+        return taskManager.getCompletedTasks();
+    }
+}
@@ -0,0 +1,116 @@
+package com.taskmanager.bench;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Makes synthetic task lists that look like real ones: titles of three to seven words
+ * (about 20 to 60 characters), descriptions of one or two sentences (about 50 to 250
+ * characters), a third of the tasks completed and due dates spread over two years.
+ *
+ * The same count and seed always give the same tasks, ids included, so runs on different
+ * machines or commits measure the same data. Generation is streaming and costs O(1) per
+ * task; 10M tasks need a heap of roughly 6 GB to hold.
+ */
+public final class TaskGenerator {
+    public static final long DEFAULT_SEED = 20260101L;
+    public static final LocalDate BASE_DATE = LocalDate.of(2026, 1, 1);
+
+    private static final String[] VERBS = {
+            "Write", "Review", "Update", "Prepare", "Fix", "Call", "Plan", "Send", "Check", "Clean up",
+            "Book", "Draft", "Finish", "Organise", "Schedule", "Test", "Order", "Renew", "Sort out", "Email"
+    };
+    private static final String[] ADJECTIVES = {
+            "quarterly", "monthly", "weekly", "annual", "new", "old", "shared", "urgent", "draft", "final",
+            "team", "project", "client", "budget", "backlog", "release", "kitchen", "garden", "travel", "tax"
+    };
+    private static final String[] NOUNS = {
+            "report", "invoice", "presentation", "meeting notes", "slides", "contract", "roadmap", "budget",
+            "dentist appointment", "flight", "insurance", "newsletter", "onboarding guide", "test plan",
+            "release notes", "inventory", "proposal", "timesheet", "car service", "groceries", "backup",
+            "spreadsheet", "design doc", "feedback", "interview", "deployment", "database migration", "review"
+    };
+    private static final String[] WORDS = {
+            "the", "a", "for", "with", "before", "after", "and", "to", "from", "about", "team", "numbers",
+            "deadline", "figures", "customer", "draft", "comments", "version", "friday", "monday", "office",
+            "remember", "attach", "latest", "include", "summary", "check", "details", "update", "sign-off",
+            "manager", "approval", "changes", "open", "questions", "follow", "up", "on", "last", "week's",
+            "notes", "meeting", "agenda", "budget", "q3", "q4", "targets", "risks", "dependencies", "owner"
+    };
+
+    private final SplittableRandom random;
+
+    public TaskGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public static List<Task> generate(int count) {
+        return generate(count, DEFAULT_SEED);
+    }
+
+    public static List<Task> generate(int count, long seed) {
+        TaskGenerator generator = new TaskGenerator(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(generator.next());
+        }
+        return tasks;
+    }
+
+    public Task next() {
+        UUID id = new UUID(random.nextLong(), random.nextLong());
+        Priority priority = pick(random.nextInt(10));
+        LocalDate dueDate = BASE_DATE.plusDays(random.nextInt(730) - 365);
+        boolean completed = random.nextInt(3) == 0;
+        return new Task(id, title(), description(), priority, dueDate, completed);
+    }
+
+    // Roughly 30% low, 50% medium, 20% high.
+    private static Priority pick(int roll) {
+        if (roll < 3) return Priority.LOW;
+        if (roll < 8) return Priority.MEDIUM;
+        return Priority.HIGH;
+    }
+
+    private String title() {
+        StringBuilder title = new StringBuilder(64);
+        title.append(pick(VERBS)).append(' ');
+        if (random.nextBoolean()) title.append("the ");
+        int adjectives = random.nextInt(3);
+        for (int i = 0; i < adjectives; i++) {
+            title.append(pick(ADJECTIVES)).append(' ');
+        }
+        title.append(pick(NOUNS));
+        if (random.nextInt(4) == 0) title.append(" for ").append(pick(ADJECTIVES)).append(' ').append(pick(NOUNS));
+        return title.toString();
+    }
+
+    private String description() {
+        int sentences = 1 + random.nextInt(2);
+        StringBuilder description = new StringBuilder(256);
+        for (int s = 0; s < sentences; s++) {
+            if (s > 0) description.append(' ');
+            int words = 6 + random.nextInt(16);
+            for (int w = 0; w < words; w++) {
+                String word = w == 3 ? pick(NOUNS) : pick(WORDS);
+                if (w == 0) {
+                    description.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                } else {
+                    description.append(' ').append(word);
+                }
+            }
+            description.append('.');
+        }
+        return description.toString();
+    }
+
+    private String pick(String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+}
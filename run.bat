@@ -1,5 +1,5 @@
 @echo off
-java -jar TaskManager.jar
+java -jar target\TaskManager.jar
 if %errorlevel% neq 0 (
     echo.
     echo Application exited with error.
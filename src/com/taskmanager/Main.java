@@ -1,6 +1,7 @@
 package com.taskmanager;
 
 import com.taskmanager.gui.MainFrame;
+import com.taskmanager.perf.PerfMonitor;
 
 import javax.swing.*;
 
@@ -13,6 +14,8 @@ public class Main {
             e.printStackTrace();
         }
 
+        PerfMonitor.registerMBean();
+
         SwingUtilities.invokeLater(() -> {
             MainFrame frame = new MainFrame();
             frame.setVisible(true);
@@ -0,0 +1,35 @@
+package com.taskmanager;
+
+import com.taskmanager.logic.TaskManager;
+import com.taskmanager.perf.InstrumentedPersistence;
+import com.taskmanager.perf.PerfMonitor;
+import com.taskmanager.server.TaskServer;
+import com.taskmanager.util.AsyncPersistenceWriter;
+import com.taskmanager.util.FileHandler;
+import com.taskmanager.util.JournaledPersistence;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+
+// Headless mode: serves the task list over HTTP on localhost instead of opening the window.
+// Usage: java -cp bin com.taskmanager.ServerMain [port] [data file]
+public class ServerMain {
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : TaskServer.DEFAULT_PORT;
+        String file = args.length > 1 ? args[1] : FileHandler.FILE_NAME;
+
+        TaskManager taskManager = new TaskManager(new AsyncPersistenceWriter(new InstrumentedPersistence(new JournaledPersistence(Paths.get(file)))));
+        PerfMonitor.registerMBean();
+        TaskServer server = new TaskServer(taskManager, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        // Finish the requests in flight and the pending writes before the JVM exits.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            taskManager.close();
+        }));
+        server.start();
+        InetSocketAddress address = server.getAddress();
+        System.out.println("Task server listening on http://" + address.getHostString() + ":" + address.getPort() + "/tasks");
+    }
+}
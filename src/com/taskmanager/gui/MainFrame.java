@@ -1,37 +1,208 @@
 package com.taskmanager.gui;
 
+import com.taskmanager.logic.LiveTaskView;
+import com.taskmanager.logic.ReminderScheduler;
+import com.taskmanager.logic.TaskFileSync;
+import com.taskmanager.logic.TaskLoadListener;
 import com.taskmanager.logic.TaskManager;
+import com.taskmanager.logic.TaskQuery;
+import com.taskmanager.logic.TaskStatistics;
 import com.taskmanager.model.Task;
 import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.perf.Operation;
+import com.taskmanager.perf.OperationStats;
+import com.taskmanager.perf.PerfMonitor;
+import com.taskmanager.util.FileHandler;
+import com.taskmanager.util.TaskExporter;
+import com.taskmanager.util.TaskImporter;
+import com.taskmanager.util.TransferFormat;
+import com.taskmanager.util.TransferReport;
 
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MainFrame extends JFrame {
+    // Rows a Relevance search shows; ranking stops once these are certain.
+    private static final int RANKED_ROWS = 200;
+
     private TaskManager taskManager;
     private TaskTableModel tableModel;
     private JTable taskTable;
     private JLabel statusLabel;
+    private JLabel statsLabel;
+    private TaskStatistics statistics;
+    private Timer statsTimer;
+    private JLabel searchStatusLabel;
+    private JLabel perfLabel;
+    private JLabel reminderLabel;
+    private ReminderScheduler reminders;
+    private final AtomicBoolean remindersQueued = new AtomicBoolean();
+    private TaskFileSync fileSync;
+    private JProgressBar loadProgress;
+    private Timer perfTimer;
+    private SearchPipeline searchPipeline;
+    private JTextField searchField;
+    private JComboBox<String> sortBox;
     private boolean isDarkMode = false;
     
     // Components to update for theme
-    private JPanel mainPanel, toolbarPanel, statusPanel;
+    private JPanel mainPanel, toolbarPanel, statusPanel, statsPanel;
 
     public MainFrame() {
         super("Task Manager Application");
-        taskManager = new TaskManager();
+        // The window comes up empty and the tasks stream in; see startLoading().
+        taskManager = new TaskManager(TaskManager.defaultPersistence(), false);
         
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        // Saving happens in the background, so wait for pending writes before the JVM exits.
+        addWindowListener(new WindowAdapter() {
+            public void windowClosing(WindowEvent e) {
+                if (fileSync != null) fileSync.close();
+                if (reminders != null) reminders.close();
+                statsTimer.stop();
+                statistics.close();
+                searchPipeline.close();
+                taskManager.close();
+            }
+        });
         setSize(800, 600);
         setLocationRelativeTo(null);
 
+        // Registered before the table's listener below, so the counts include each change
+        // by the time the table asks for them.
+        statistics = new TaskStatistics(taskManager, Clock.systemDefaultZone());
+        statistics.start();
+
         initUI();
         updateStats();
+
+        // Rows are patched from the change feed instead of reloading the whole table.
+        taskManager.addChangeListener(changes -> {
+            if (SwingUtilities.isEventDispatchThread()) {
+                applyChanges(changes);
+            } else {
+                SwingUtilities.invokeLater(() -> applyChanges(changes));
+            }
+        });
+        startLoading();
+    }
+
+    // The table and stats are refreshed each time the manager publishes more of the list.
+    // Edits and searches work meanwhile; TaskManager keeps them consistent with what arrives.
+    private void startLoading() {
+        loadProgress.setVisible(true);
+        taskManager.loadTasksInBackground(new TaskLoadListener() {
+            public void loadProgress(int tasksRead, double fractionRead, boolean published) {
+                SwingUtilities.invokeLater(() -> {
+                    loadProgress.setValue((int) (fractionRead * 100));
+                    loadProgress.setString(String.format("Loading tasks\u2026 %,d read", tasksRead));
+                    if (published) {
+                        statistics.rebuild();
+                        refreshTable();
+                        updateStats();
+                    }
+                });
+            }
+
+            public void loadFinished(int totalTasks, IOException error) {
+                SwingUtilities.invokeLater(() -> {
+                    loadProgress.setVisible(false);
+                    statistics.rebuild();
+                    refreshTable();
+                    updateStats();
+                    startReminders();
+                    startFileSync();
+                    if (error != null) {
+                        JOptionPane.showMessageDialog(MainFrame.this, "Could not load the saved tasks: " + error.getMessage(),
+                                "Load Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
+            }
+        });
+    }
+
+    // Started once the whole list is in, so it is filled from all of it.
+    private void startReminders() {
+        if (reminders != null) return;
+        reminders = new ReminderScheduler(taskManager, Clock.systemDefaultZone(),
+                (tasks, today) -> queueReminders());
+        reminders.start();
+    }
+
+    // Safe from any thread. Runs after the change being handled has reached every listener,
+    // the scheduler included, and coalesces a burst of changes into one refresh.
+    private void queueReminders() {
+        if (reminders == null || remindersQueued.getAndSet(true)) return;
+        SwingUtilities.invokeLater(() -> {
+            remindersQueued.set(false);
+            showReminders();
+        });
+    }
+
+    // Only with -Dtaskmanager.sync=true. Changes other copies of the app save reach the
+    // table through the change feed like local ones.
+    private void startFileSync() {
+        if (fileSync != null || !TaskFileSync.isEnabled()) return;
+        fileSync = new TaskFileSync(taskManager, Paths.get(FileHandler.FILE_NAME));
+        try {
+            fileSync.start();
+        } catch (IOException e) {
+            System.err.println("Error watching the task file: " + e.getMessage());
+            fileSync = null;
+        }
+    }
+
+    // Shows what the scheduler has due now rather than what one batch of reminders brought,
+    // so completing, deleting or moving a task takes it off, and a new day moves tasks from
+    // due today to overdue.
+    private void showReminders() {
+        LocalDate today = reminders.getToday();
+        List<Task> tasks = reminders.getDueTasks();
+        if (tasks.isEmpty()) {
+            reminderLabel.setVisible(false);
+            return;
+        }
+        tasks.sort(Comparator.comparing(Task::getDueDate));
+        int dueToday = 0;
+        StringBuilder titles = new StringBuilder("<html>");
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task.getDueDate().equals(today)) dueToday++;
+            if (i < 10) {
+                titles.append(task.getDueDate()).append(": ").append(escapeHtml(task.getTitle())).append("<br>");
+            }
+        }
+        if (tasks.size() > 10) {
+            titles.append(String.format("\u2026 and %,d more", tasks.size() - 10));
+        }
+        int overdue = tasks.size() - dueToday;
+        reminderLabel.setText(String.format("| Reminders: %,d due today, %,d overdue", dueToday, overdue));
+        reminderLabel.setToolTipText(titles.toString());
+        reminderLabel.setVisible(true);
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
     }
 
     private void initUI() {
@@ -44,51 +215,44 @@ public class MainFrame extends JFrame {
         JButton editButton = new JButton("Edit");
         JButton deleteButton = new JButton("Delete");
         JButton completeButton = new JButton("Mark Completed");
+        JButton importButton = new JButton("Import...");
+        JButton exportButton = new JButton("Export...");
         JButton themeButton = new JButton("Toggle Theme");
 
         addButton.addActionListener(e -> showAddDialog());
         editButton.addActionListener(e -> showEditDialog());
         deleteButton.addActionListener(e -> deleteTask());
         completeButton.addActionListener(e -> markCompleted());
-        themeButton.addActionListener(e -> toggleTheme());
+        importButton.addActionListener(e -> importTasks());
+        exportButton.addActionListener(e -> exportTasks());
+        themeButton.addActionListener(e -> timed("toggleTheme", this::toggleTheme));
 
         toolbarPanel.add(addButton);
         toolbarPanel.add(editButton);
         toolbarPanel.add(deleteButton);
         toolbarPanel.add(completeButton);
+        toolbarPanel.add(importButton);
+        toolbarPanel.add(exportButton);
         toolbarPanel.add(themeButton);
         
         // Search & Filter Panel
         JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        JTextField searchField = new JTextField(15);
+        searchField = new JTextField(15);
         searchField.setToolTipText("Search...");
         searchField.getDocument().addDocumentListener(new DocumentListener() {
-            public void insertUpdate(DocumentEvent e) { filter(); }
-            public void removeUpdate(DocumentEvent e) { filter(); }
-            public void changedUpdate(DocumentEvent e) { filter(); }
-            private void filter() {
-                updateTable(taskManager.searchTasks(searchField.getText()));
-            }
+            public void insertUpdate(DocumentEvent e) { searchPipeline.requestSearch(); }
+            public void removeUpdate(DocumentEvent e) { searchPipeline.requestSearch(); }
+            public void changedUpdate(DocumentEvent e) { searchPipeline.requestSearch(); }
         });
+        searchStatusLabel = new JLabel(" ");
 
-        JComboBox<String> sortBox = new JComboBox<>(new String[]{"Sort By...", "Date", "Priority"});
-        sortBox.addActionListener(e -> {
-            String selected = (String) sortBox.getSelectedItem();
-            if ("Date".equals(selected)) {
-                taskManager.sortTasksByDate();
-            } else if ("Priority".equals(selected)) {
-                taskManager.sortTasksByPriority();
-            }
-            // After sort, we need to refresh based on current search potentially, 
-            // but for simplicity let's just refresh all or current view. 
-            // Better to re-apply filter logic or just re-get.
-            // Let's just update table with current state.
-            updateTable(taskManager.getAllTasks()); // This loses search query if active. 
-            // In a real app we'd combine them. For now this is fine.
-        });
+        // Search and sort are applied together, so picking a sort keeps the current search.
+        sortBox = new JComboBox<>(new String[]{"Sort By...", "Date", "Priority", "Relevance"});
+        sortBox.addActionListener(e -> refreshTable());
 
         filterPanel.add(new JLabel("Search:"));
         filterPanel.add(searchField);
+        filterPanel.add(searchStatusLabel);
         filterPanel.add(sortBox);
         
         JPanel topContainer = new JPanel(new BorderLayout());
@@ -98,9 +262,29 @@ public class MainFrame extends JFrame {
         mainPanel.add(topContainer, BorderLayout.NORTH);
 
         // --- Table ---
-        tableModel = new TaskTableModel(taskManager.getAllTasks());
+        tableModel = new TaskTableModel(taskManager.openView(currentQuery()));
         taskTable = new JTable(tableModel);
-        taskTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        searchPipeline = new SearchPipeline(taskManager, this::currentQuery, new SearchPipeline.Listener() {
+            public void searchStarted() {
+                searchStatusLabel.setText("Searching\u2026");
+            }
+
+            public void searchFinished(LiveTaskView view, long queryMillis, long totalMillis) {
+                timed("searchFinished", () -> {
+                    tableModel.setView(view);
+                    updateStats();
+                    searchStatusLabel.setText(String.format("%d found in %d ms", view.size(), queryMillis));
+                    searchStatusLabel.setToolTipText(String.format("Query took %d ms, %d ms after the last keystroke", queryMillis, totalMillis));
+                });
+            }
+
+            public void searchFailed(RuntimeException e) {
+                searchStatusLabel.setText("Search failed");
+                searchStatusLabel.setToolTipText(e.getMessage());
+            }
+        });
+        // Delete and Mark Completed work on every selected row at once.
+        taskTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         // Double click to edit
         taskTable.addMouseListener(new MouseAdapter() {
             public void mouseClicked(MouseEvent e) {
@@ -117,28 +301,134 @@ public class MainFrame extends JFrame {
         statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         statusLabel = new JLabel("Ready");
         statusPanel.add(statusLabel);
-        mainPanel.add(statusPanel, BorderLayout.SOUTH);
+        loadProgress = new JProgressBar(0, 100);
+        loadProgress.setStringPainted(true);
+        loadProgress.setVisible(false);
+        statusPanel.add(loadProgress);
+        reminderLabel = new JLabel();
+        reminderLabel.setVisible(false);
+        statusPanel.add(reminderLabel);
+        // Latency overlay: Ctrl+Shift+P shows or hides it, Ctrl+Shift+D saves a report.
+        perfLabel = new JLabel();
+        perfLabel.setToolTipText("p99 latencies since startup; Ctrl+Shift+D saves a full report");
+        statusPanel.add(perfLabel);
+        perfTimer = new Timer(1000, e -> updatePerfOverlay());
+        setPerfOverlayVisible(Boolean.getBoolean("taskmanager.perf.overlay"));
+        statsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statsLabel = new JLabel();
+        statsPanel.add(statsLabel);
+        // The due-date counts change with the date as well as with edits.
+        statsTimer = new Timer(60_000, e -> updateStats());
+        statsTimer.start();
+        JPanel bottomContainer = new JPanel(new BorderLayout());
+        bottomContainer.add(statsPanel, BorderLayout.NORTH);
+        bottomContainer.add(statusPanel, BorderLayout.SOUTH);
+        mainPanel.add(bottomContainer, BorderLayout.SOUTH);
+
+        JRootPane root = getRootPane();
+        int shortcut = InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK;
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_P, shortcut), "togglePerfOverlay");
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_D, shortcut), "dumpPerfReport");
+        root.getActionMap().put("togglePerfOverlay", new AbstractAction() {
+            public void actionPerformed(ActionEvent e) {
+                setPerfOverlayVisible(!perfLabel.isVisible());
+            }
+        });
+        root.getActionMap().put("dumpPerfReport", new AbstractAction() {
+            public void actionPerformed(ActionEvent e) {
+                dumpPerfReport();
+            }
+        });
 
         add(mainPanel);
     }
 
-    private void updateTable(List<Task> tasks) {
-        tableModel.setTasks(tasks);
-        updateStats();
+    // Runs a handler and records how long it held the EDT.
+    private void timed(String handler, Runnable body) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.EDT);
+        try {
+            body.run();
+        } finally {
+            stopwatch.stop(handler);
+        }
+    }
+
+    private void setPerfOverlayVisible(boolean visible) {
+        perfLabel.setVisible(visible);
+        if (visible) {
+            updatePerfOverlay();
+            perfTimer.start();
+        } else {
+            perfTimer.stop();
+        }
+    }
+
+    private void updatePerfOverlay() {
+        OperationStats search = PerfMonitor.stats(Operation.SEARCH);
+        OperationStats sort = PerfMonitor.stats(Operation.SORT);
+        OperationStats save = PerfMonitor.stats(Operation.SAVE);
+        OperationStats edt = PerfMonitor.stats(Operation.EDT);
+        perfLabel.setText(String.format("| search %.1f ms | sort %.1f ms | save %.1f ms | EDT %.1f ms (max %.0f)",
+                search.getP99Millis(), sort.getP99Millis(), save.getP99Millis(), edt.getP99Millis(), edt.getMaxMillis()));
+    }
+
+    private void dumpPerfReport() {
+        try {
+            Path file = PerfMonitor.dumpToFile(Paths.get("."));
+            JOptionPane.showMessageDialog(this, "Performance report saved to\n" + file.toAbsolutePath().normalize(), "Performance Report", JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not save the report: " + e.getMessage(), "Performance Report", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void applyChanges(List<TaskChange> changes) {
+        timed("applyChanges", () -> {
+            tableModel.applyChanges(changes);
+            searchPipeline.changesApplied(changes);
+            updateStats();
+            queueReminders();
+        });
+    }
+
+    // Re-runs the current search and sort against the task list in the background.
+    private void refreshTable() {
+        searchPipeline.searchNow();
     }
 
+    private TaskQuery currentQuery() {
+        TaskQuery query = new TaskQuery().text(searchField.getText());
+        String selected = (String) sortBox.getSelectedItem();
+        if ("Date".equals(selected)) {
+            query.sortBy(TaskQuery.SortKey.DUE_DATE);
+        } else if ("Priority".equals(selected)) {
+            query.sortBy(TaskQuery.SortKey.PRIORITY);
+        } else if ("Relevance".equals(selected)) {
+            query.sortBy(TaskQuery.SortKey.RELEVANCE).limit(RANKED_ROWS);
+        }
+        return query;
+    }
+
+    // Reads counts kept up to date by TaskStatistics, so it costs the same for any list size.
     private void updateStats() {
-        int total = taskManager.getTotalTasks();
-        int completed = taskManager.getCompletedTasks();
-        statusLabel.setText(String.format("Total Tasks: %d | Completed: %d", total, completed));
+        TaskStatistics.Summary stats = statistics.summary();
+        statusLabel.setText(String.format("Total Tasks: %d | Completed: %d", stats.getTotal(), stats.getCompleted()));
+        StringBuilder trend = new StringBuilder();
+        for (int count : stats.getCompletionTrend()) {
+            if (trend.length() > 0) trend.append(' ');
+            trend.append(count);
+        }
+        statsLabel.setText(String.format("High: %d | Medium: %d | Low: %d | Overdue: %d | Due today: %d | Next 7 days: %d | Completed per day: %s",
+                stats.getCount(Priority.HIGH), stats.getCount(Priority.MEDIUM), stats.getCount(Priority.LOW),
+                stats.getOverdue(), stats.getDueToday(), stats.getDueThisWeek(), trend));
+        statsLabel.setToolTipText("Completed per day covers the last " + TaskStatistics.TREND_DAYS
+                + " days, oldest first, counting completions made since the app started");
     }
 
     private void showAddDialog() {
         AddEditTaskDialog dialog = new AddEditTaskDialog(this, null);
         dialog.setVisible(true);
         if (dialog.isConfirmed()) {
-            taskManager.addTask(dialog.getResultTask());
-            updateTable(taskManager.getAllTasks());
+            timed("addTask", () -> taskManager.addTask(dialog.getResultTask()));
         }
     }
 
@@ -148,42 +438,140 @@ public class MainFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "Please select a task to edit.", "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
+        if (taskTable.getSelectedRowCount() > 1) {
+            JOptionPane.showMessageDialog(this, "Please select a single task to edit.", "Several Selected", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
         Task task = tableModel.getTaskAt(row); // Note: If sorted/filtered, this index might be wrong if model isn't synced. 
         // Logic check: tableModel.getTaskAt(row) returns task from its internal list which is correct for the view.
         
         AddEditTaskDialog dialog = new AddEditTaskDialog(this, task);
         dialog.setVisible(true);
         if (dialog.isConfirmed()) {
-            taskManager.updateTask(dialog.getResultTask());
-            updateTable(taskManager.getAllTasks());
+            timed("editTask", () -> taskManager.updateTask(dialog.getResultTask()));
         }
     }
 
     private void deleteTask() {
-        int row = taskTable.getSelectedRow();
-        if (row < 0) {
+        int count = taskTable.getSelectedRowCount();
+        if (count == 0) {
             JOptionPane.showMessageDialog(this, "Please select a task to delete.", "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
         
-        int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this task?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
+        String question = count == 1 ? "Are you sure you want to delete this task?"
+                : String.format("Are you sure you want to delete these %,d tasks?", count);
+        int confirm = JOptionPane.showConfirmDialog(this, question, "Confirm Delete", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            Task task = tableModel.getTaskAt(row);
-            taskManager.deleteTask(task);
-            updateTable(taskManager.getAllTasks());
+            List<Task> tasks = selectedTasks();
+            timed("deleteTask", () -> taskManager.deleteAll(tasks));
+        }
+    }
+
+    // The selected rows' tasks, read when called since the rows move as changes come in.
+    private List<Task> selectedTasks() {
+        int[] rows = taskTable.getSelectedRows();
+        List<Task> tasks = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            tasks.add(tableModel.getTaskAt(row));
         }
+        return tasks;
     }
 
     private void markCompleted() {
-        int row = taskTable.getSelectedRow();
-        if (row < 0) {
+        if (taskTable.getSelectedRowCount() == 0) {
             JOptionPane.showMessageDialog(this, "Please select a task.", "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
-        Task task = tableModel.getTaskAt(row);
-        task.setCompleted(true);
-        taskManager.updateTask(task);
-        updateTable(taskManager.getAllTasks());
+        List<Task> tasks = selectedTasks();
+        timed("markCompleted", () -> taskManager.completeAll(tasks));
+    }
+
+    // Streams the file in on a background thread, a batch at a time; the table follows
+    // through the change feed. Ids already in the list replace those tasks.
+    private void importTasks() {
+        JFileChooser chooser = new JFileChooser(".");
+        chooser.setDialogTitle("Import Tasks");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV or Task Manager data files", "csv", "txt"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+
+        loadProgress.setValue(0);
+        loadProgress.setString("Importing\u2026");
+        loadProgress.setVisible(true);
+        Thread importer = new Thread(() -> {
+            long[] imported = {0};
+            try {
+                TransferReport report = TaskImporter.importTasks(file, (batch, progress) -> {
+                    imported[0] += taskManager.importAll(batch);
+                    long done = imported[0];
+                    SwingUtilities.invokeLater(() -> {
+                        loadProgress.setValue((int) (progress * 100));
+                        loadProgress.setString(String.format("Importing\u2026 %,d tasks", done));
+                    });
+                });
+                SwingUtilities.invokeLater(() -> transferFinished("Import", report));
+            } catch (IOException | RuntimeException e) {
+                SwingUtilities.invokeLater(() -> transferFailed("Import", e));
+            }
+        }, "task-import");
+        importer.setDaemon(true);
+        importer.start();
+    }
+
+    // Writes the current snapshot, so edits made meanwhile are not part of the file.
+    private void exportTasks() {
+        JFileChooser chooser = new JFileChooser(".");
+        chooser.setDialogTitle("Export Tasks");
+        FileNameExtensionFilter csv = new FileNameExtensionFilter("CSV (*.csv)", "csv");
+        FileNameExtensionFilter pipe = new FileNameExtensionFilter("Task Manager data file (*.txt)", "txt");
+        chooser.addChoosableFileFilter(csv);
+        chooser.addChoosableFileFilter(pipe);
+        chooser.setFileFilter(csv);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        TransferFormat format = chooser.getFileFilter() == pipe ? TransferFormat.PIPE : TransferFormat.CSV;
+        Path file = chooser.getSelectedFile().toPath();
+        if (!file.getFileName().toString().contains(".")) {
+            file = file.resolveSibling(file.getFileName() + (format == TransferFormat.CSV ? ".csv" : ".txt"));
+        }
+        Path target = file;
+        List<Task> tasks = taskManager.snapshot().getAllTasks();
+
+        loadProgress.setIndeterminate(true);
+        loadProgress.setString(String.format("Exporting %,d tasks\u2026", tasks.size()));
+        loadProgress.setVisible(true);
+        Thread exporter = new Thread(() -> {
+            try {
+                TransferReport report = TaskExporter.exportTasks(tasks, target, format);
+                SwingUtilities.invokeLater(() -> transferFinished("Export", report));
+            } catch (IOException | RuntimeException e) {
+                SwingUtilities.invokeLater(() -> transferFailed("Export", e));
+            }
+        }, "task-export");
+        exporter.setDaemon(true);
+        exporter.start();
+    }
+
+    private void transferFinished(String title, TransferReport report) {
+        loadProgress.setIndeterminate(false);
+        loadProgress.setVisible(false);
+        StringBuilder message = new StringBuilder(report.toString());
+        List<String> problems = report.getProblems();
+        int shown = Math.min(10, problems.size());
+        for (int i = 0; i < shown; i++) {
+            message.append('\n').append(problems.get(i));
+        }
+        long more = report.getRejected() + report.getDuplicates() - shown;
+        if (more > 0) {
+            message.append(String.format("%n\u2026 and %,d more", more));
+        }
+        JOptionPane.showMessageDialog(this, message.toString(), title, JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void transferFailed(String title, Exception e) {
+        loadProgress.setIndeterminate(false);
+        loadProgress.setVisible(false);
+        JOptionPane.showMessageDialog(this, title + " failed: " + e.getMessage(), title, JOptionPane.ERROR_MESSAGE);
     }
 
     private void toggleTheme() {
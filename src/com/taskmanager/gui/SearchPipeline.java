@@ -0,0 +1,152 @@
+package com.taskmanager.gui;
+
+import com.taskmanager.logic.LiveTaskView;
+import com.taskmanager.logic.TaskManager;
+import com.taskmanager.logic.TaskQuery;
+import com.taskmanager.model.TaskChange;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the table's query off the EDT. Each keystroke restarts a short timer, so a burst of
+ * typing or a paste costs one query instead of one per character. The query runs on a
+ * virtual thread; starting a new one cancels the one before it, and a result that comes
+ * back after it was superseded is dropped, so only the newest query ever reaches the table.
+ *
+ * Changes made while a query is running are kept and replayed onto its view before it is
+ * shown. LiveTaskView.apply is idempotent, so it doesn't matter whether the query already
+ * saw them.
+ *
+ * Everything except the query itself happens on the EDT.
+ */
+public class SearchPipeline {
+    public static final int DEFAULT_DEBOUNCE_MILLIS = 150;
+
+    // Told about each search on the EDT.
+    public interface Listener {
+        void searchStarted();
+
+        // queryMillis is the time spent running the query, totalMillis the time since the
+        // first keystroke it answers.
+        void searchFinished(LiveTaskView view, long queryMillis, long totalMillis);
+
+        void searchFailed(RuntimeException e);
+    }
+
+    private final TaskManager taskManager;
+    private final Supplier<TaskQuery> querySource;
+    private final Listener listener;
+    private final Timer debounce;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<TaskChange> missedChanges = new ArrayList<>();
+    private Future<?> running;
+    private long generation;
+    private boolean inFlight;
+    private long requestedAt;
+
+    public SearchPipeline(TaskManager taskManager, Supplier<TaskQuery> querySource, Listener listener) {
+        this(taskManager, querySource, listener, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    public SearchPipeline(TaskManager taskManager, Supplier<TaskQuery> querySource, Listener listener,
+                          int debounceMillis) {
+        this.taskManager = taskManager;
+        this.querySource = querySource;
+        this.listener = listener;
+        this.debounce = new Timer(debounceMillis, e -> start());
+        this.debounce.setRepeats(false);
+    }
+
+    // For edits to the search text: the query runs once typing pauses.
+    public void requestSearch() {
+        markRequested();
+        debounce.restart();
+    }
+
+    // Runs the query straight away, e.g. after a different sort was picked.
+    public void searchNow() {
+        markRequested();
+        debounce.stop();
+        start();
+    }
+
+    public boolean isSearching() {
+        return requestedAt != 0;
+    }
+
+    // Must see every change that is applied to the table's current view.
+    public void changesApplied(List<TaskChange> changes) {
+        if (inFlight) missedChanges.addAll(changes);
+    }
+
+    public void close() {
+        debounce.stop();
+        executor.shutdownNow();
+    }
+
+    private void markRequested() {
+        if (requestedAt == 0) {
+            requestedAt = System.nanoTime();
+            listener.searchStarted();
+        }
+    }
+
+    private void start() {
+        if (running != null) running.cancel(true);
+        long searchGeneration = ++generation;
+        TaskQuery query = querySource.get();
+        // The new view is built from the tasks as they are from here on; anything
+        // applied to the old view until it is shown has to be replayed onto it.
+        missedChanges.clear();
+        inFlight = true;
+        running = executor.submit(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                LiveTaskView view = taskManager.openView(query);
+                long queryNanos = System.nanoTime() - startedAt;
+                SwingUtilities.invokeLater(() -> finish(searchGeneration, view, queryNanos));
+            } catch (RuntimeException e) {
+                SwingUtilities.invokeLater(() -> fail(searchGeneration, e));
+            }
+        });
+    }
+
+    private void finish(long searchGeneration, LiveTaskView view, long queryNanos) {
+        if (searchGeneration != generation) return;
+        for (TaskChange change : missedChanges) {
+            view.apply(change);
+        }
+        long totalNanos = System.nanoTime() - requestedAt;
+        done();
+        listener.searchFinished(view, TimeUnit.NANOSECONDS.toMillis(queryNanos), TimeUnit.NANOSECONDS.toMillis(totalNanos));
+        resumeIfTyping();
+    }
+
+    private void fail(long searchGeneration, RuntimeException e) {
+        if (searchGeneration != generation) return;
+        System.err.println("Error searching tasks: " + e.getMessage());
+        done();
+        listener.searchFailed(e);
+        resumeIfTyping();
+    }
+
+    private void done() {
+        missedChanges.clear();
+        inFlight = false;
+        running = null;
+        requestedAt = 0;
+    }
+
+    // A keystroke that came in while the query ran is still waiting on the timer.
+    private void resumeIfTyping() {
+        if (debounce.isRunning()) markRequested();
+    }
+}
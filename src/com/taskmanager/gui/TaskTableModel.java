@@ -1,30 +1,51 @@
 package com.taskmanager.gui;
 
+import com.taskmanager.logic.LiveTaskView;
 import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
 
 import javax.swing.table.AbstractTableModel;
 import java.util.List;
 
-public class TaskTableModel extends AbstractTableModel {
+// Sits on a LiveTaskView: rows are read from the view only when the table paints them,
+// and a single change fires an event for just the rows it touched. A batch of changes
+// fires one event for the whole table instead of one per row.
+public class TaskTableModel extends AbstractTableModel implements LiveTaskView.RowListener {
     private final String[] columnNames = {"Title", "Priority", "Due Date", "Status"};
-    private List<Task> tasks;
+    private LiveTaskView view;
 
-    public TaskTableModel(List<Task> tasks) {
-        this.tasks = tasks;
+    public TaskTableModel(LiveTaskView view) {
+        this.view = view;
     }
 
-    public void setTasks(List<Task> tasks) {
-        this.tasks = tasks;
+    // Switches to a different query's rows, e.g. after the search text changed.
+    public void setView(LiveTaskView view) {
+        this.view = view;
         fireTableDataChanged();
     }
 
+    public LiveTaskView getView() {
+        return view;
+    }
+
+    public void applyChanges(List<TaskChange> changes) {
+        if (changes.size() == 1) {
+            view.apply(changes.get(0), this);
+            return;
+        }
+        for (TaskChange change : changes) {
+            view.apply(change);
+        }
+        if (!changes.isEmpty()) fireTableDataChanged();
+    }
+
     public Task getTaskAt(int rowIndex) {
-        return tasks.get(rowIndex);
+        return view.get(rowIndex);
     }
 
     @Override
     public int getRowCount() {
-        return tasks.size();
+        return view.size();
     }
 
     @Override
@@ -34,7 +55,7 @@ public class TaskTableModel extends AbstractTableModel {
 
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
-        Task task = tasks.get(rowIndex);
+        Task task = view.get(rowIndex);
         switch (columnIndex) {
             case 0: return task.getTitle();
             case 1: return task.getPriority();
@@ -48,4 +69,19 @@ public class TaskTableModel extends AbstractTableModel {
     public String getColumnName(int column) {
         return columnNames[column];
     }
+
+    @Override
+    public void rowInserted(int row) {
+        fireTableRowsInserted(row, row);
+    }
+
+    @Override
+    public void rowUpdated(int row) {
+        fireTableRowsUpdated(row, row);
+    }
+
+    @Override
+    public void rowDeleted(int row) {
+        fireTableRowsDeleted(row, row);
+    }
 }
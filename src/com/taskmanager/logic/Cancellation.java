@@ -0,0 +1,23 @@
+package com.taskmanager.logic;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Lets the long loops of a query give up once the thread running it has been interrupted,
+ * which is how SearchPipeline cancels a search that a newer one has replaced. The flag is
+ * only looked at every CHECK_INTERVAL steps, so the loops pay next to nothing for it.
+ */
+final class Cancellation {
+    static final int CHECK_INTERVAL = 4096;
+
+    private Cancellation() {
+    }
+
+    // Call with a counter that goes up by one per step of the loop, or with 0 to look at
+    // the flag every time.
+    static void check(int step) {
+        if ((step & (CHECK_INTERVAL - 1)) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Query cancelled");
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Scores tasks against a query for the RELEVANCE sort, tolerating typos.
+ *
+ * The query is split into words, and every word has to match the title or the description:
+ * as a substring, or within a few edits (insertions, deletions, substitutions and swaps of
+ * neighbouring letters) of a word of the text or the start of one. Words of up to three
+ * letters must match exactly, up to six may be one edit off, longer ones two. A word scores
+ * 1 - edits / (length + 1), plus WORD_START_BONUS for an exact match at the start of a word
+ * of the text, times TITLE_WEIGHT in the title; the better of the two fields counts. A task
+ * scores the sum over the query's words, or 0 when it doesn't match.
+ *
+ * Each edit changes at most four of a word's trigrams, so a task that holds only c of the
+ * word's t distinct trigrams is at least (t - c) / 4 edits away from it. bound() turns those
+ * counts, which the trigram index can supply without looking at the text, into an upper
+ * limit on the score; that is what lets a ranked query rule tasks out unread. Scores and
+ * bounds are summed the same way and handed out as floats, so a task that scores its bound
+ * compares equal to it.
+ *
+ * Keeps scratch arrays, so an instance belongs to one thread.
+ */
+final class FuzzyMatcher {
+    static final double TITLE_WEIGHT = 2.0;
+    static final double WORD_START_BONUS = 0.25;
+    // Distinct trigrams a single edit can take out of a word.
+    private static final int TRIGRAMS_PER_EDIT = 4;
+    // Only this many of a long word's trigrams are counted, so a count fits in a byte. Any
+    // subset of them bounds the edits just as well.
+    static final int MAX_TRIGRAMS = 120;
+
+    private final String[] words;
+    private final int[] maxEdits;
+    private final long[][] trigrams;
+    private int[] previousRow = new int[16];
+    private int[] row = new int[16];
+    private int[] nextRow = new int[16];
+
+    FuzzyMatcher(String query) {
+        List<String> split = new ArrayList<>();
+        for (String word : query.toLowerCase().trim().split("\\s+")) {
+            if (!word.isEmpty()) split.add(word);
+        }
+        words = split.toArray(new String[0]);
+        maxEdits = new int[words.length];
+        trigrams = new long[words.length][];
+        for (int w = 0; w < words.length; w++) {
+            int length = words[w].length();
+            maxEdits[w] = length <= 3 ? 0 : length <= 6 ? 1 : 2;
+            Set<Long> distinct = new HashSet<>();
+            for (int i = 0; i + 3 <= length && distinct.size() < MAX_TRIGRAMS; i++) {
+                distinct.add(SearchIndex.trigram(words[w], i));
+            }
+            trigrams[w] = new long[distinct.size()];
+            int i = 0;
+            for (long trigram : distinct) {
+                trigrams[w][i++] = trigram;
+            }
+        }
+    }
+
+    int wordCount() {
+        return words.length;
+    }
+
+    // The distinct trigrams of the word; empty when it is shorter than three letters.
+    long[] trigrams(int word) {
+        return trigrams[word];
+    }
+
+    // How many of the word's trigrams a task must hold to be close enough; 0 when any
+    // task could be.
+    int requiredTrigrams(int word) {
+        return Math.max(0, trigrams[word].length - TRIGRAMS_PER_EDIT * maxEdits[word]);
+    }
+
+    // The most a task holding shared[w] of each word's trigrams can score, or -1 if it can't
+    // match at all.
+    float bound(int[] shared) {
+        double bound = 0;
+        for (int w = 0; w < words.length; w++) {
+            int missing = trigrams[w].length - shared[w];
+            int edits = (missing + TRIGRAMS_PER_EDIT - 1) / TRIGRAMS_PER_EDIT;
+            if (edits > maxEdits[w]) return -1;
+            bound += TITLE_WEIGHT * (similarity(w, edits) + (edits == 0 ? WORD_START_BONUS : 0));
+        }
+        return (float) bound;
+    }
+
+    float maxScore() {
+        return (float) (words.length * TITLE_WEIGHT * (1 + WORD_START_BONUS));
+    }
+
+    float score(Task task) {
+        return score(task.getTitle(), task.getDescription());
+    }
+
+    float score(String title, String description) {
+        if (words.length == 0) return 0;
+        String lowerTitle = title == null ? "" : title.toLowerCase();
+        String lowerDescription = description == null ? "" : description.toLowerCase();
+        double score = 0;
+        for (int w = 0; w < words.length; w++) {
+            double best = Math.max(TITLE_WEIGHT * wordScore(w, lowerTitle), wordScore(w, lowerDescription));
+            if (best <= 0) return 0;
+            score += best;
+        }
+        return (float) score;
+    }
+
+    private double similarity(int word, int edits) {
+        return 1 - (double) edits / (words[word].length() + 1);
+    }
+
+    // 0 when the word doesn't occur in the text, not even with typos.
+    private double wordScore(int w, String text) {
+        String word = words[w];
+        int found = text.indexOf(word);
+        if (found >= 0) {
+            for (int at = found; at >= 0; at = text.indexOf(word, at + 1)) {
+                if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) return 1 + WORD_START_BONUS;
+            }
+            return 1;
+        }
+        if (maxEdits[w] == 0) return 0;
+        int best = maxEdits[w] + 1;
+        int start = 0;
+        while (start < text.length() && best > 1) {
+            while (start < text.length() && !Character.isLetterOrDigit(text.charAt(start))) start++;
+            int end = start;
+            while (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) end++;
+            if (end > start) {
+                // The whole word, or a start of it about as long as the query's word.
+                best = Math.min(best, distance(word, text, start, end, best - 1));
+                for (int length = word.length() - maxEdits[w]; length <= word.length() + maxEdits[w]; length++) {
+                    if (length > 0 && start + length < end) {
+                        best = Math.min(best, distance(word, text, start, start + length, best - 1));
+                    }
+                }
+            }
+            start = end;
+        }
+        return best <= maxEdits[w] ? similarity(w, best) : 0;
+    }
+
+    // Edit distance between word and text[start, end) with swaps of neighbours counting as
+    // one edit, or limit + 1 once it is sure to exceed limit.
+    private int distance(String word, String text, int start, int end, int limit) {
+        int n = word.length();
+        int m = end - start;
+        if (Math.abs(n - m) > limit) return limit + 1;
+        if (nextRow.length <= m) {
+            previousRow = new int[m + 1];
+            row = new int[m + 1];
+            nextRow = new int[m + 1];
+        }
+        for (int j = 0; j <= m; j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            nextRow[0] = i;
+            int rowMin = i;
+            char a = word.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char b = text.charAt(start + j - 1);
+                int cost = a == b ? 0 : 1;
+                int value = Math.min(Math.min(row[j] + 1, nextRow[j - 1] + 1), row[j - 1] + cost);
+                if (i > 1 && j > 1 && a == text.charAt(start + j - 2) && word.charAt(i - 2) == b) {
+                    value = Math.min(value, previousRow[j - 2] + 1);
+                }
+                nextRow[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) return limit + 1;
+            int[] oldest = previousRow;
+            previousRow = row;
+            row = nextRow;
+            nextRow = oldest;
+        }
+        return Math.min(row[m], limit + 1);
+    }
+}
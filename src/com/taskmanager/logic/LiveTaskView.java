@@ -0,0 +1,207 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * The rows of one query, kept current by applying TaskChanges to it one at a time, and
+ * reporting exactly which rows each change inserted, updated or deleted.
+ *
+ * Rows live in an order-statistic tree keyed by the query's sort key, with the task's
+ * sequence number in the TaskStore as tie-breaker, so ties come out in list order exactly
+ * as a fresh query gives them. A task keeps its sequence number for as long as it is in the
+ * list, so it can be looked up in the newest snapshot when a change comes in. Row lookup
+ * and every change cost O(log n) and nothing is copied. Applying a change is idempotent, so a change that was already part
+ * of the query the view started from does no harm.
+ *
+ * A view can be limited to the first rows, as a ranked search is. Its rows are then always
+ * the best matches there are: a change that brings in a better one drops the last row, and
+ * when a row leaves a full view, or drops to the last row where a task outside may now
+ * beat it, the bounded query is run again to fill the view back up.
+ *
+ * Not thread-safe; TaskTableModel only touches it on the EDT.
+ */
+public class LiveTaskView {
+    private static final Comparator<RowKey> ROW_ORDER = Comparator
+            .comparingLong((RowKey key) -> key.primary)
+            .thenComparingLong(key -> key.sequence)
+            .thenComparing(key -> key.id); // Only for tasks deleted before their change arrived
+
+    // Receives the row-level effect of each applied change.
+    public interface RowListener {
+        void rowInserted(int row);
+        void rowUpdated(int row);
+        void rowDeleted(int row);
+    }
+
+    private static final RowListener SILENT = new RowListener() {
+        public void rowInserted(int row) { }
+        public void rowUpdated(int row) { }
+        public void rowDeleted(int row) { }
+    };
+
+    private final TaskQuery query;
+    private final ToLongFunction<UUID> sequenceOf;
+    private final int limit;
+    private final Supplier<List<Task>> topRows;
+    private final Map<UUID, RowKey> keys = new HashMap<>();
+    private PersistentTree<RowKey, Task> rows;
+
+    // rows must be the query's matches in the query's order. sequenceOf gives a task's
+    // sequence number in the list.
+    LiveTaskView(TaskQuery query, List<Task> rows, ToLongFunction<UUID> sequenceOf) {
+        this(query, rows, sequenceOf, Integer.MAX_VALUE, null);
+    }
+
+    // Only the first limit matches, which rows must be; topRows runs the query again for
+    // the first limit matches as they are now.
+    LiveTaskView(TaskQuery query, List<Task> rows, ToLongFunction<UUID> sequenceOf, int limit, Supplier<List<Task>> topRows) {
+        this.query = query.unpaged();
+        this.sequenceOf = sequenceOf;
+        this.limit = limit;
+        this.topRows = topRows;
+        List<RowKey> rowKeys = new ArrayList<>(rows.size());
+        for (Task task : rows) {
+            RowKey key = new RowKey(primary(task), sequenceOf.applyAsLong(task.getId()), task.getId());
+            keys.put(task.getId(), key);
+            rowKeys.add(key);
+        }
+        this.rows = PersistentTree.fromSorted(ROW_ORDER, rowKeys, rows);
+    }
+
+    public TaskQuery getQuery() {
+        return query;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public Task get(int row) {
+        return rows.valueAt(row);
+    }
+
+    // Row of the task with this id, or -1 if it isn't in the view.
+    public int indexOf(UUID id) {
+        RowKey key = keys.get(id);
+        return key == null ? -1 : rows.rank(key);
+    }
+
+    // Applies the change without reporting rows, for a view nobody is showing yet.
+    public void apply(TaskChange change) {
+        apply(change, SILENT);
+    }
+
+    public void apply(TaskChange change, RowListener listener) {
+        Task task = change.getTask();
+        RowKey oldKey = keys.get(task.getId());
+        int oldRow = oldKey == null ? -1 : rows.rank(oldKey);
+        boolean keep = change.getType() != TaskChange.Type.DELETED && query.matches(task);
+        // Until a limited view fills up it holds every match, so only a full one can be missing any.
+        boolean full = rows.size() >= limit;
+
+        if (oldKey != null) {
+            rows = rows.remove(oldKey);
+            keys.remove(task.getId());
+        }
+        if (!keep) {
+            if (oldRow >= 0) {
+                listener.rowDeleted(oldRow);
+                if (full) refill(listener);
+            }
+            return;
+        }
+
+        long sequence = oldKey != null ? oldKey.sequence : sequenceOf.applyAsLong(task.getId());
+        RowKey newKey = new RowKey(primary(task), sequence, task.getId());
+        rows = rows.put(newKey, task);
+        keys.put(task.getId(), newKey);
+        int newRow = rows.rank(newKey);
+        if (newRow >= limit) {
+            // Behind every row, so not among the first limit matches.
+            rows = rows.remove(newKey);
+            keys.remove(task.getId());
+            return;
+        }
+
+        if (oldRow == newRow) {
+            listener.rowUpdated(newRow);
+        } else {
+            if (oldRow >= 0) listener.rowDeleted(oldRow);
+            listener.rowInserted(newRow);
+        }
+        if (rows.size() > limit) {
+            dropLast(listener);
+        } else if (full && oldRow >= 0 && newRow == rows.size() - 1 && ROW_ORDER.compare(newKey, oldKey) > 0) {
+            refill(listener);
+        }
+    }
+
+    // Brings a limited view back to the first limit matches of the newest list: rows that
+    // are no longer among them go, and the ones missing come in.
+    private void refill(RowListener listener) {
+        List<Task> top = topRows.get();
+        Set<UUID> topIds = new HashSet<>();
+        for (Task task : top) {
+            topIds.add(task.getId());
+        }
+        for (RowKey key : new ArrayList<>(keys.values())) {
+            if (!topIds.contains(key.id)) {
+                int row = rows.rank(key);
+                rows = rows.remove(key);
+                keys.remove(key.id);
+                listener.rowDeleted(row);
+            }
+        }
+        for (Task task : top) {
+            if (keys.containsKey(task.getId())) continue;
+            RowKey key = new RowKey(primary(task), sequenceOf.applyAsLong(task.getId()), task.getId());
+            rows = rows.put(key, task);
+            keys.put(task.getId(), key);
+            listener.rowInserted(rows.rank(key));
+        }
+        while (rows.size() > limit) {
+            dropLast(listener);
+        }
+    }
+
+    private void dropLast(RowListener listener) {
+        RowKey last = rows.lastKey();
+        rows = rows.remove(last);
+        keys.remove(last.id);
+        listener.rowDeleted(rows.size());
+    }
+
+    // Sort key as a number: smaller sorts first.
+    private long primary(Task task) {
+        switch (query.getSortKey()) {
+            case DUE_DATE: return task.getDueDate().toEpochDay();
+            case PRIORITY: return -task.getPriority().ordinal(); // High to Low
+            case RELEVANCE: return -Float.floatToIntBits(query.relevance(task)); // Best first; scores aren't negative
+            default: return 0;
+        }
+    }
+
+    private static final class RowKey {
+        final long primary;
+        final long sequence;
+        final UUID id;
+
+        RowKey(long primary, long sequence, UUID id) {
+            this.primary = primary;
+            this.sequence = sequence;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.taskmanager.logic;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Sorted map implemented as an AVL tree whose nodes also count their subtree size, so
+ * besides the usual lookups it can find the i-th entry and the position of a key in
+ * O(log n).
+ *
+ * The tree is immutable: put and remove return a new tree that shares every node off the
+ * changed path with the old one. Holding on to an old tree therefore gives a consistent
+ * view for free.
+ */
+final class PersistentTree<K, V> {
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> root;
+
+    PersistentTree(Comparator<? super K> comparator) {
+        this(comparator, null);
+    }
+
+    private PersistentTree(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    // Builds a balanced tree in O(n); keys must already be sorted and distinct.
+    static <K, V> PersistentTree<K, V> fromSorted(Comparator<? super K> comparator, List<K> keys, List<V> values) {
+        return new PersistentTree<>(comparator, build(keys, values, 0, keys.size()));
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int c = comparator.compare(key, node.key);
+            if (c == 0) return node.value;
+            node = c < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    PersistentTree<K, V> put(K key, V value) {
+        return new PersistentTree<>(comparator, insert(root, key, value));
+    }
+
+    PersistentTree<K, V> remove(K key) {
+        Node<K, V> newRoot = delete(root, key);
+        return newRoot == root ? this : new PersistentTree<>(comparator, newRoot);
+    }
+
+    // Value at the given position in key order.
+    V valueAt(int index) {
+        return nodeAt(index).value;
+    }
+
+    K keyAt(int index) {
+        return nodeAt(index).key;
+    }
+
+    // Number of keys strictly less than key.
+    int rank(K key) {
+        int rank = 0;
+        Node<K, V> node = root;
+        while (node != null) {
+            int c = comparator.compare(key, node.key);
+            if (c <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    K lastKey() {
+        Node<K, V> node = root;
+        if (node == null) return null;
+        while (node.right != null) node = node.right;
+        return node.key;
+    }
+
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, action);
+    }
+
+    // Visits keys in [from, to) in order; a null bound is open. Costs O(log n + visited).
+    void forEachInRange(K from, K to, BiConsumer<? super K, ? super V> action) {
+        forEachInRange(root, from, to, action);
+    }
+
+    List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+
+    // The values in key order as a read-only list backed by this tree, made in O(1).
+    // get(i) costs O(log n); iterating costs O(1) per element.
+    List<V> valuesView() {
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index) {
+                return valueAt(index);
+            }
+
+            @Override
+            public int size() {
+                return PersistentTree.this.size();
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueIterator<>(root);
+            }
+        };
+    }
+
+    private Node<K, V> nodeAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<K, V> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private void forEachInRange(Node<K, V> node, K from, K to, BiConsumer<? super K, ? super V> action) {
+        while (node != null) {
+            boolean aboveFrom = from == null || comparator.compare(node.key, from) >= 0;
+            boolean belowTo = to == null || comparator.compare(node.key, to) < 0;
+            if (aboveFrom && belowTo) {
+                forEachInRange(node.left, from, null, action);
+                action.accept(node.key, node.value);
+                node = node.right;
+                // from is already satisfied for everything right of here
+                from = null;
+            } else if (!aboveFrom) {
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+    }
+
+    private static <K, V> void forEach(Node<K, V> node, BiConsumer<? super K, ? super V> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.key, node.value);
+            node = node.right;
+        }
+    }
+
+    private Node<K, V> insert(Node<K, V> node, K key, V value) {
+        if (node == null) return new Node<>(key, value, null, null);
+        int c = comparator.compare(key, node.key);
+        if (c < 0) return balance(node.key, node.value, insert(node.left, key, value), node.right);
+        if (c > 0) return balance(node.key, node.value, node.left, insert(node.right, key, value));
+        return new Node<>(key, value, node.left, node.right);
+    }
+
+    private Node<K, V> delete(Node<K, V> node, K key) {
+        if (node == null) return null;
+        int c = comparator.compare(key, node.key);
+        if (c < 0) {
+            Node<K, V> left = delete(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (c > 0) {
+            Node<K, V> right = delete(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+        Node<K, V> successor = node.right;
+        while (successor.left != null) successor = successor.left;
+        return balance(successor.key, successor.value, node.left, deleteMin(node.right));
+    }
+
+    private Node<K, V> deleteMin(Node<K, V> node) {
+        if (node.left == null) return node.right;
+        return balance(node.key, node.value, deleteMin(node.left), node.right);
+    }
+
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+            Node<K, V> pivot = left.right;
+            return new Node<>(pivot.key, pivot.value,
+                    new Node<>(left.key, left.value, left.left, pivot.left),
+                    new Node<>(key, value, pivot.right, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+            Node<K, V> pivot = right.left;
+            return new Node<>(pivot.key, pivot.value,
+                    new Node<>(key, value, left, pivot.left),
+                    new Node<>(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static <K, V> Node<K, V> build(List<K> keys, List<V> values, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node<>(keys.get(mid), values.get(mid), build(keys, values, from, mid), build(keys, values, mid + 1, to));
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // In-order walk with an explicit stack of the nodes whose left side is being visited.
+    private static final class ValueIterator<K, V> implements Iterator<V> {
+        private final Deque<Node<K, V>> path = new ArrayDeque<>();
+
+        ValueIterator(Node<K, V> root) {
+            pushLeft(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public V next() {
+            if (path.isEmpty()) throw new NoSuchElementException();
+            Node<K, V> node = path.pop();
+            pushLeft(node.right);
+            return node.value;
+        }
+
+        private void pushLeft(Node<K, V> node) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+        }
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final int height;
+        final int size;
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+}
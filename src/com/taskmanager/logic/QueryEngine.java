@@ -0,0 +1,236 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs a TaskQuery against the store's indexes in one pass.
+ *
+ * The planner picks the smallest candidate source it can size cheaply (text matches, a
+ * priority or status bucket, a due date range, or the whole list) and checks the remaining
+ * filters on each candidate. If the source already comes out in the requested order the
+ * page is cut from it directly; otherwise a bounded heap keeps only offset + limit tasks
+ * instead of sorting every match.
+ *
+ * The scans check for Cancellation, so a search that has been superseded stops early.
+ *
+ * A ranked query goes through runRanked instead: the index hands over the tasks that can
+ * match, best possible score first and in list order among equal bounds, and they are
+ * scored in that order into the same kind of heap until no task left could make it in.
+ */
+final class QueryEngine {
+    private enum Source {
+        ALL, TEXT, PRIORITY, STATUS, DUE_DATE
+    }
+
+    private final TaskStore store;
+    private final SearchIndex searchIndex;
+
+    QueryEngine(TaskStore store, SearchIndex searchIndex) {
+        this.store = store;
+        this.searchIndex = searchIndex;
+    }
+
+    QueryResult run(TaskQuery query) {
+        if (query.isRanked()) return runRanked(query);
+        Set<UUID> textMatches = query.hasText() ? searchIndex.search(query.getText().toLowerCase()) : null;
+        Priority priority = query.getPriority();
+        Boolean completed = query.getCompleted();
+        LocalDate from = query.getDueFrom();
+        LocalDate to = query.getDueTo();
+
+        Source source = Source.ALL;
+        int best = store.size();
+        if (textMatches != null && textMatches.size() < best) {
+            source = Source.TEXT;
+            best = textMatches.size();
+        }
+        if (priority != null && store.countWithPriority(priority) < best) {
+            source = Source.PRIORITY;
+            best = store.countWithPriority(priority);
+        }
+        if (completed != null) {
+            int count = completed ? store.countCompleted() : store.size() - store.countCompleted();
+            if (count < best) {
+                source = Source.STATUS;
+                best = count;
+            }
+        }
+        if (query.hasDueRange() && store.countDueBetween(from, to, completed) < best) {
+            source = Source.DUE_DATE;
+        }
+
+        List<Task> candidates;
+        switch (source) {
+            case TEXT: candidates = store.inListOrder(textMatches); break;
+            case PRIORITY: candidates = store.withPriority(priority); break;
+            case STATUS: candidates = store.withStatus(completed); break;
+            case DUE_DATE: candidates = store.dueBetween(from, to, completed); break;
+            default: candidates = store.toList(); break;
+        }
+
+        TaskQuery.SortKey sortKey = query.getSortKey();
+        boolean presorted = sortKey == TaskQuery.SortKey.LIST_ORDER || sortKey == TaskQuery.SortKey.RELEVANCE
+                ? source != Source.DUE_DATE
+                : sortKey == TaskQuery.SortKey.DUE_DATE && source == Source.DUE_DATE;
+
+        int offset = query.getOffset();
+        int end = query.hasLimit() ? (int) Math.min((long) offset + query.getLimit(), Integer.MAX_VALUE) : Integer.MAX_VALUE;
+        Comparator<Ranked> comparator = comparator(sortKey);
+        PriorityQueue<Ranked> topK = !presorted && query.hasLimit() ? new PriorityQueue<>(comparator.reversed()) : null;
+        List<Ranked> collected = new ArrayList<>();
+        int matches = 0;
+
+        int scanned = 0;
+        for (Task task : candidates) {
+            Cancellation.check(++scanned);
+            if (textMatches != null && source != Source.TEXT && !textMatches.contains(task.getId())) continue;
+            if (priority != null && task.getPriority() != priority) continue;
+            if (completed != null && task.isCompleted() != completed) continue;
+            if (from != null && task.getDueDate().isBefore(from)) continue;
+            if (to != null && task.getDueDate().isAfter(to)) continue;
+
+            int position = matches++;
+            if (presorted) {
+                if (position >= offset && position < end) {
+                    collected.add(new Ranked(task, 0));
+                }
+            } else {
+                Ranked ranked = new Ranked(task, store.orderOf(task.getId()));
+                if (topK == null) {
+                    collected.add(ranked);
+                } else if (topK.size() < end) {
+                    topK.add(ranked);
+                } else if (end > 0 && comparator.compare(ranked, topK.peek()) < 0) {
+                    topK.poll();
+                    topK.add(ranked);
+                }
+            }
+        }
+
+        if (!presorted) {
+            if (topK != null) collected.addAll(topK);
+            collected.sort(comparator);
+            collected = offset >= collected.size()
+                    ? Collections.emptyList()
+                    : collected.subList(offset, Math.min(end, collected.size()));
+        }
+        List<Task> page = new ArrayList<>(collected.size());
+        for (Ranked ranked : collected) {
+            page.add(ranked.task);
+        }
+        return new QueryResult(page, matches);
+    }
+
+    private QueryResult runRanked(TaskQuery query) {
+        FuzzyMatcher matcher = new FuzzyMatcher(query.getText());
+        SearchIndex.Candidates candidates = searchIndex.rankedCandidates(matcher);
+        int offset = query.getOffset();
+        int end = query.hasLimit() ? (int) Math.min((long) offset + query.getLimit(), Integer.MAX_VALUE) : Integer.MAX_VALUE;
+        Comparator<Ranked> comparator = comparator(TaskQuery.SortKey.RELEVANCE);
+        PriorityQueue<Ranked> topK = new PriorityQueue<>(comparator.reversed());
+        int matches = 0;
+
+        boolean done = false;
+        int runEnd = 0;
+        for (int i = 0; i < candidates.size() && !done; i++) {
+            Cancellation.check(i);
+            if (i == runEnd) runEnd = candidates.orderRun(i, store::orderOf);
+            if (topK.size() >= end && !canEnter(topK, end, candidates.bound(i), candidates.order(i))) {
+                done = true;
+            } else if (offer(store.get(candidates.id(i)), candidates.order(i), query, matcher, topK, end, comparator)) {
+                matches++;
+            }
+        }
+        // The tasks the index didn't list all share restBound, so list order decides.
+        if (!done && candidates.restBound() >= 0) {
+            int scanned = 0;
+            for (Task task : store.toList()) {
+                Cancellation.check(++scanned);
+                if (candidates.isListed(task.getId())) continue;
+                long order = store.orderOf(task.getId());
+                if (topK.size() >= end && !canEnter(topK, end, candidates.restBound(), order)) break;
+                if (offer(task, order, query, matcher, topK, end, comparator)) matches++;
+            }
+        }
+
+        List<Ranked> collected = new ArrayList<>(topK);
+        collected.sort(comparator);
+        List<Task> page = new ArrayList<>();
+        for (int i = offset; i < collected.size(); i++) {
+            page.add(collected.get(i).task);
+        }
+        return new QueryResult(page, matches);
+    }
+
+    // Whether a task that scores at most bound could still replace the worst of a full heap.
+    // Bounds only go down from one candidate to the next, and list order only up within a
+    // bound, so once this is false it stays false.
+    private static boolean canEnter(PriorityQueue<Ranked> topK, int end, float bound, long order) {
+        if (end == 0) return false;
+        Ranked worst = topK.peek();
+        return bound > worst.score || bound == worst.score && order < worst.order;
+    }
+
+    // Scores the task into the heap if it passes the filters; returns whether it matched.
+    private static boolean offer(Task task, long order, TaskQuery query, FuzzyMatcher matcher,
+                                 PriorityQueue<Ranked> topK, int end, Comparator<Ranked> comparator) {
+        if (task == null) return false;
+        if (query.getPriority() != null && task.getPriority() != query.getPriority()) return false;
+        if (query.getCompleted() != null && task.isCompleted() != query.getCompleted()) return false;
+        if (query.getDueFrom() != null && task.getDueDate().isBefore(query.getDueFrom())) return false;
+        if (query.getDueTo() != null && task.getDueDate().isAfter(query.getDueTo())) return false;
+        float score = matcher.score(task);
+        if (score <= 0) return false;
+
+        Ranked ranked = new Ranked(task, order, score);
+        if (topK.size() < end) {
+            topK.add(ranked);
+        } else if (comparator.compare(ranked, topK.peek()) < 0) {
+            topK.poll();
+            topK.add(ranked);
+        }
+        return true;
+    }
+
+    // Ties always fall back to list order, which is what a stable sort of the list gave.
+    private static Comparator<Ranked> comparator(TaskQuery.SortKey sortKey) {
+        Comparator<Ranked> listOrder = Comparator.comparingLong(ranked -> ranked.order);
+        switch (sortKey) {
+            case DUE_DATE:
+                return Comparator.comparing((Ranked ranked) -> ranked.task.getDueDate()).thenComparing(listOrder);
+            case PRIORITY:
+                return Comparator.comparing((Ranked ranked) -> ranked.task.getPriority()).reversed() // High to Low
+                        .thenComparing(listOrder);
+            case RELEVANCE:
+                return Comparator.comparingDouble((Ranked ranked) -> -ranked.score).thenComparing(listOrder); // Best first
+            default:
+                return listOrder;
+        }
+    }
+
+    private static final class Ranked {
+        final Task task;
+        final long order;
+        final float score;
+
+        Ranked(Task task, long order) {
+            this(task, order, 0);
+        }
+
+        Ranked(Task task, long order, float score) {
+            this.task = task;
+            this.order = order;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+
+import java.util.Collections;
+import java.util.List;
+
+// One page of query results plus the number of tasks that matched overall.
+public class QueryResult {
+    private final List<Task> tasks;
+    private final int totalMatches;
+
+    QueryResult(List<Task> tasks, int totalMatches) {
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.totalMatches = totalMatches;
+    }
+
+    public List<Task> getTasks() { return tasks; }
+    public int getTotalMatches() { return totalMatches; }
+}
@@ -0,0 +1,43 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+
+import java.time.LocalDate;
+
+/**
+ * A task as the task list stores it. Every task in a TaskSnapshot is one of these, either
+ * a copy made when the task went in or a TaskColumns row, so none of them can be changed
+ * behind the indexes' back: the setters throw. To edit a task, change a copy made with
+ * new Task(task) and pass it to TaskManager.updateTask.
+ */
+class ReadOnlyTask extends Task {
+
+    ReadOnlyTask(Task task) {
+        super(task.getId(), task.getTitle(), task.getDescription(), task.getPriority(), task.getDueDate(), task.isCompleted());
+    }
+
+    // For subclasses that override the getters and keep their fields elsewhere.
+    ReadOnlyTask() {
+        super(null, null, null, null, null, false);
+    }
+
+    // The task itself if it is already read-only, otherwise a read-only copy.
+    static Task of(Task task) {
+        return task instanceof ReadOnlyTask ? task : new ReadOnlyTask(task);
+    }
+
+    @Override
+    public final void setTitle(String title) { throw readOnly(); }
+    @Override
+    public final void setDescription(String description) { throw readOnly(); }
+    @Override
+    public final void setPriority(Priority priority) { throw readOnly(); }
+    @Override
+    public final void setDueDate(LocalDate dueDate) { throw readOnly(); }
+    @Override
+    public final void setCompleted(boolean completed) { throw readOnly(); }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Tasks read from the task list are read-only; change a copy");
+    }
+}
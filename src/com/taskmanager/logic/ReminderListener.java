@@ -0,0 +1,17 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Told when tasks fall due. Called on the scheduler's thread, or on the thread calling
+// ReminderScheduler.advance.
+public interface ReminderListener {
+
+    // The tasks, as currently stored, whose due date is today or already past and that are
+    // not completed. Each task is reported once until its due date changes. Also called with
+    // no tasks when the date moves on, since that turns tasks due today into overdue ones;
+    // ReminderScheduler.getDueTasks has all of them.
+    void tasksDue(List<Task> tasks, LocalDate today);
+}
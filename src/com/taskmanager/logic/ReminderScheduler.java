@@ -0,0 +1,310 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.util.UuidTable;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminds about uncompleted tasks when their due date comes, without ever scanning the list.
+ *
+ * Pending tasks sit in a two level timing wheel keyed by day: 256 slots of one day for the
+ * current 256 day block, 64 slots of one block each for the next 64 blocks (about 45 years),
+ * and an overflow list beyond that. Moving to the next day empties one day slot; entering a
+ * new block first spreads that block's slot over the day slots, and every 64 blocks the
+ * overflow list is sorted out again. A task is moved at most three times before it fires,
+ * so adding, rescheduling, cancelling and firing are all O(1) amortized.
+ *
+ * The wheel follows the TaskManager's change feed, and rebuild() fills it from the current
+ * list (after a load, say). Only ids are kept, in flat arrays and a UuidTable: about 60
+ * bytes per scheduled task. Reported tasks stay known until they are completed, deleted or
+ * given another date, so editing an overdue task's title doesn't remind about it again.
+ *
+ * Time comes from the Clock passed in, in its zone. start() checks it once a minute;
+ * advance() can also be called directly, which is how a test with its own clock drives it.
+ */
+public class ReminderScheduler implements TaskChangeListener {
+    private static final int DAY_BITS = 8;
+    private static final int DAY_SLOTS = 1 << DAY_BITS;
+    private static final int BLOCK_SLOTS = 64;
+    private static final int OVERFLOW = DAY_SLOTS + BLOCK_SLOTS;
+    private static final int DUE = OVERFLOW + 1;      // fires on the next advance
+    private static final int REPORTED = DUE + 1;      // fired, kept until the date changes
+    private static final int LISTS = REPORTED + 1;
+    private static final int NONE = -1;
+
+    private final TaskManager taskManager;
+    private final Clock clock;
+    private final ReminderListener listener;
+    private ScheduledExecutorService timer;
+
+    // Guarded by this. Node i is the task with id (idHigh[i], idLow[i]), due on epoch day
+    // day[i], linked into list[i] through next and previous; free nodes chain through next.
+    private UuidTable nodeById = new UuidTable();
+    private long[] idHigh = new long[1024];
+    private long[] idLow = new long[1024];
+    private long[] day = new long[1024];
+    private int[] next = new int[1024];
+    private int[] previous = new int[1024];
+    private int[] list = new int[1024];
+    private final int[] heads = new int[LISTS];
+    private int freeNode = NONE;
+    private int usedNodes;
+    private int scheduled;
+    private long today;
+
+    public ReminderScheduler(TaskManager taskManager, Clock clock, ReminderListener listener) {
+        this.taskManager = taskManager;
+        this.clock = clock;
+        this.listener = listener;
+        this.today = LocalDate.now(clock).toEpochDay();
+        Arrays.fill(heads, NONE);
+    }
+
+    // Follows the change feed from now on, fills the wheel from the current list, and checks
+    // the clock once a minute.
+    public void start() {
+        taskManager.addChangeListener(this);
+        rebuild();
+        synchronized (this) {
+            if (timer != null) return;
+            timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "task-reminders");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.scheduleWithFixedDelay(this::advance, 0, 1, TimeUnit.MINUTES);
+        }
+    }
+
+    public void close() {
+        taskManager.removeChangeListener(this);
+        synchronized (this) {
+            if (timer != null) {
+                timer.shutdownNow();
+                timer = null;
+            }
+        }
+    }
+
+    // Replaces what is scheduled with the manager's current list. Reading the list under
+    // this lock means a change reported meanwhile is applied after it, never overwritten.
+    public synchronized void rebuild() {
+        Arrays.fill(heads, NONE);
+        nodeById = new UuidTable();
+        freeNode = NONE;
+        usedNodes = 0;
+        scheduled = 0;
+        for (Task task : taskManager.snapshot().getAllTasks()) {
+            schedule(task);
+        }
+    }
+
+    @Override
+    public synchronized void tasksChanged(List<TaskChange> changes) {
+        for (TaskChange change : changes) {
+            if (change.getType() == TaskChange.Type.DELETED) {
+                cancel(change.getTask().getId());
+            } else {
+                schedule(change.getTask());
+            }
+        }
+    }
+
+    // Moves the wheel up to the clock's date and reports what fell due, outside the lock.
+    public void advance() {
+        List<UUID> due;
+        LocalDate date;
+        boolean newDay;
+        synchronized (this) {
+            long now = LocalDate.now(clock).toEpochDay();
+            newDay = today < now;
+            while (today < now) {
+                step();
+            }
+            due = takeDue();
+            date = LocalDate.ofEpochDay(today);
+        }
+        if (due.isEmpty() && !newDay) return;
+        List<Task> tasks = currentTasks(due);
+        if (!tasks.isEmpty() || newDay) {
+            listener.tasksDue(tasks, date);
+        }
+    }
+
+    // Every uncompleted task, as currently stored, that is due on or before getToday(),
+    // whether it has been reported yet or not. Costs the number of such tasks.
+    public List<Task> getDueTasks() {
+        List<UUID> due = new ArrayList<>();
+        synchronized (this) {
+            collect(DUE, due);
+            collect(REPORTED, due);
+        }
+        return currentTasks(due);
+    }
+
+    // The date the wheel has been moved up to.
+    public synchronized LocalDate getToday() {
+        return LocalDate.ofEpochDay(today);
+    }
+
+    // Tasks waiting for their day, not counting ones already reported.
+    public synchronized int getScheduledCount() {
+        return scheduled;
+    }
+
+    private void schedule(Task task) {
+        UUID id = task.getId();
+        if (task.isCompleted()) {
+            cancel(id);
+            return;
+        }
+        long dueDay = task.getDueDate().toEpochDay();
+        int node = nodeById.get(id);
+        if (node != NONE) {
+            if (day[node] == dueDay) return;
+            unlink(node);
+        } else {
+            node = allocate(id);
+        }
+        day[node] = dueDay;
+        place(node);
+    }
+
+    private void cancel(UUID id) {
+        int node = nodeById.get(id);
+        if (node == NONE) return;
+        unlink(node);
+        nodeById.remove(id);
+        next[node] = freeNode;
+        freeNode = node;
+    }
+
+    // Into the list for its day as seen from today.
+    private void place(int node) {
+        long due = day[node];
+        int target;
+        if (due <= today) {
+            target = DUE;
+        } else if ((due >> DAY_BITS) == (today >> DAY_BITS)) {
+            target = (int) (due & (DAY_SLOTS - 1));
+        } else if ((due >> DAY_BITS) - (today >> DAY_BITS) < BLOCK_SLOTS) {
+            target = DAY_SLOTS + (int) ((due >> DAY_BITS) & (BLOCK_SLOTS - 1));
+        } else {
+            target = OVERFLOW;
+        }
+        link(node, target);
+    }
+
+    private void step() {
+        today++;
+        if ((today & (DAY_SLOTS - 1)) == 0) {
+            long block = today >> DAY_BITS;
+            if ((block & (BLOCK_SLOTS - 1)) == 0) {
+                replaceAll(OVERFLOW);
+            }
+            replaceAll(DAY_SLOTS + (int) (block & (BLOCK_SLOTS - 1)));
+        }
+        replaceAll((int) (today & (DAY_SLOTS - 1)));
+    }
+
+    // Takes every node off the list and places it again.
+    private void replaceAll(int from) {
+        int node = heads[from];
+        while (node != NONE) {
+            int following = next[node];
+            unlink(node);
+            place(node);
+            node = following;
+        }
+    }
+
+    // Looked up outside the lock.
+    private List<Task> currentTasks(List<UUID> ids) {
+        List<Task> tasks = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Task task = taskManager.getTask(id);
+            // A change on its way to tasksChanged may have completed or removed it.
+            if (task != null && !task.isCompleted()) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    private void collect(int from, List<UUID> ids) {
+        for (int node = heads[from]; node != NONE; node = next[node]) {
+            ids.add(new UUID(idHigh[node], idLow[node]));
+        }
+    }
+
+    private List<UUID> takeDue() {
+        List<UUID> due = new ArrayList<>();
+        int node = heads[DUE];
+        while (node != NONE) {
+            int following = next[node];
+            due.add(new UUID(idHigh[node], idLow[node]));
+            unlink(node);
+            link(node, REPORTED);
+            node = following;
+        }
+        return due;
+    }
+
+    private int allocate(UUID id) {
+        int node;
+        if (freeNode != NONE) {
+            node = freeNode;
+            freeNode = next[node];
+        } else {
+            if (usedNodes == day.length) grow();
+            node = usedNodes++;
+        }
+        idHigh[node] = id.getMostSignificantBits();
+        idLow[node] = id.getLeastSignificantBits();
+        list[node] = NONE;
+        nodeById.put(id, node);
+        return node;
+    }
+
+    private void link(int node, int target) {
+        list[node] = target;
+        previous[node] = NONE;
+        next[node] = heads[target];
+        if (heads[target] != NONE) previous[heads[target]] = node;
+        heads[target] = node;
+        if (target != REPORTED) scheduled++;
+    }
+
+    private void unlink(int node) {
+        int from = list[node];
+        if (from == NONE) return;
+        if (previous[node] != NONE) {
+            next[previous[node]] = next[node];
+        } else {
+            heads[from] = next[node];
+        }
+        if (next[node] != NONE) previous[next[node]] = previous[node];
+        list[node] = NONE;
+        if (from != REPORTED) scheduled--;
+    }
+
+    private void grow() {
+        int size = day.length * 2;
+        idHigh = Arrays.copyOf(idHigh, size);
+        idLow = Arrays.copyOf(idLow, size);
+        day = Arrays.copyOf(day, size);
+        next = Arrays.copyOf(next, size);
+        previous = Arrays.copyOf(previous, size);
+        list = Arrays.copyOf(list, size);
+    }
+}
@@ -0,0 +1,612 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Trigram index over task titles and descriptions, kept up to date by TaskManager.
+ *
+ * The index is immutable, so it can be read from any thread; add and remove return a new
+ * index that shares almost everything with this one. It is organised like a log-structured
+ * merge tree. Changes first go into a small tree of recent documents (a deletion is kept
+ * as a tombstone). When that fills up it becomes a level with its own trigram postings,
+ * and whenever four levels of the same size class pile up they are merged into one level
+ * of the next class. A document is therefore indexed a handful of times over its life
+ * instead of once per change, and a query looks at a few levels plus at most a thousand
+ * recent documents. A newer level hides whatever an older one holds for the same id.
+ *
+ * Beneath the levels sits a level over the TaskColumns the store was loaded into, which
+ * reads the text straight from the columns instead of keeping lowercased copies.
+ *
+ * A query is answered by intersecting the posting lists of its trigrams and then checking
+ * each candidate with the same lowercase contains() test searchTasks has always used, so
+ * the index only decides which tasks to look at, never which ones match.
+ *
+ * A ranked query (see FuzzyMatcher) counts instead how many of each query word's trigrams
+ * every document holds, which rules out the documents too far from the words to match and
+ * gives the rest an upper bound on their score, all without reading any text.
+ */
+final class SearchIndex {
+    private static final int FLUSH_SIZE = 1024;
+    private static final int MERGE_WIDTH = 4;
+    private static final Comparator<UUID> ID_ORDER = UUID::compareTo;
+
+    static final SearchIndex EMPTY = new SearchIndex(new ColumnLevel(TaskColumns.EMPTY), new Level[0], new PersistentTree<>(ID_ORDER));
+
+    private final ColumnLevel base;
+    private final Level[] levels; // oldest first
+    private final PersistentTree<UUID, Doc> recent;
+
+    private SearchIndex(ColumnLevel base, Level[] levels, PersistentTree<UUID, Doc> recent) {
+        this.base = base;
+        this.levels = levels;
+        this.recent = recent;
+    }
+
+    // Indexes the rows and then the other tasks, which win where an id is in both.
+    static SearchIndex of(TaskColumns rows, Collection<Task> others) {
+        Level[] levels = new Level[0];
+        if (!others.isEmpty()) {
+            List<Doc> docs = new ArrayList<>(others.size());
+            for (Task task : others) {
+                docs.add(new Doc(task));
+            }
+            levels = new Level[]{new Level(docs, sizeClass(docs.size()))};
+        }
+        return new SearchIndex(new ColumnLevel(rows), levels, new PersistentTree<>(ID_ORDER));
+    }
+
+    // Indexes the task, replacing whatever was indexed under its id before.
+    SearchIndex add(Task task) {
+        return withRecent(recent.put(task.getId(), new Doc(task)));
+    }
+
+    SearchIndex update(Task task) {
+        return add(task);
+    }
+
+    SearchIndex remove(UUID id) {
+        if (base.contains(id)) return withRecent(recent.put(id, Doc.deleted(id)));
+        for (Level level : levels) {
+            if (level.contains(id)) return withRecent(recent.put(id, Doc.deleted(id)));
+        }
+        return withRecent(recent.remove(id));
+    }
+
+    // Ids of the tasks whose lowercased title or description contains lowerQuery.
+    Set<UUID> search(String lowerQuery) {
+        Set<UUID> matches = new HashSet<>();
+        for (int i = levels.length - 1; i >= 0; i--) {
+            int level = i;
+            levels[i].search(lowerQuery, doc -> {
+                if (!hiddenAbove(doc.id, level)) matches.add(doc.id);
+            });
+        }
+        base.search(lowerQuery, row -> {
+            UUID id = base.rows.id(row);
+            if (!hiddenAbove(id, -1)) matches.add(id);
+        });
+        recent.forEach((id, doc) -> {
+            if (doc.matches(lowerQuery)) matches.add(id);
+        });
+        return matches;
+    }
+
+    // The tasks that may match the matcher's query, best possible score first; see
+    // Candidates.orderRun for ties. Recent documents aren't counted; they get the highest
+    // score there is. When no query word needs any trigrams, every task may match; then
+    // only those that can score more than a task holding none of the trigrams are listed,
+    // and Candidates.restBound says what the rest can score.
+    Candidates rankedCandidates(FuzzyMatcher matcher) {
+        boolean anyMayMatch = true;
+        for (int w = 0; w < matcher.wordCount(); w++) {
+            if (matcher.requiredTrigrams(w) > 0) anyMayMatch = false;
+        }
+        float floor = anyMayMatch ? matcher.bound(new int[matcher.wordCount()]) : -1;
+        Candidates candidates = new Candidates(floor);
+        for (int i = levels.length - 1; i >= 0; i--) {
+            int level = i;
+            Doc[] docs = levels[i].docs;
+            levels[i].rankedCandidates(matcher, floor, (docNumber, bound) -> {
+                Doc doc = docs[docNumber];
+                if (!doc.isDeleted() && !hiddenAbove(doc.id, level)) candidates.add(doc.id, bound);
+            });
+        }
+        base.rankedCandidates(matcher, floor, (row, bound) -> {
+            UUID id = base.rows.id(row);
+            if (!hiddenAbove(id, -1)) candidates.add(id, bound);
+        });
+        float most = matcher.maxScore();
+        if (most > floor) {
+            recent.forEach((id, doc) -> {
+                if (!doc.isDeleted()) candidates.add(id, most);
+            });
+        }
+        candidates.sort();
+        return candidates;
+    }
+
+    // Level -1 is the column level.
+    private boolean hiddenAbove(UUID id, int level) {
+        if (recent.get(id) != null) return true;
+        for (int i = level + 1; i < levels.length; i++) {
+            if (levels[i].contains(id)) return true;
+        }
+        return false;
+    }
+
+    private SearchIndex withRecent(PersistentTree<UUID, Doc> newRecent) {
+        if (newRecent.size() < FLUSH_SIZE) {
+            return new SearchIndex(base, levels, newRecent);
+        }
+        List<Level> newLevels = new ArrayList<>(Arrays.asList(levels));
+        newLevels.add(new Level(newRecent.values(), 0));
+        mergeFullClasses(newLevels, base);
+        return new SearchIndex(base, newLevels.toArray(new Level[0]), new PersistentTree<>(ID_ORDER));
+    }
+
+    private static void mergeFullClasses(List<Level> levels, ColumnLevel base) {
+        while (levels.size() >= MERGE_WIDTH) {
+            int from = levels.size() - MERGE_WIDTH;
+            int sizeClass = levels.get(levels.size() - 1).sizeClass;
+            for (int i = from; i < levels.size(); i++) {
+                if (levels.get(i).sizeClass != sizeClass) return;
+            }
+            // Newest first, so the first document seen for an id is the one that counts.
+            Map<UUID, Doc> merged = new LinkedHashMap<>();
+            for (int i = levels.size() - 1; i >= from; i--) {
+                for (Doc doc : levels.get(i).docs) {
+                    merged.putIfAbsent(doc.id, doc);
+                }
+            }
+            boolean bottom = from == 0;
+            List<Doc> docs = new ArrayList<>(merged.size());
+            for (Doc doc : merged.values()) {
+                // Below the bottom level only the column level is left for a tombstone to hide.
+                if (!(bottom && doc.isDeleted() && !base.contains(doc.id))) docs.add(doc);
+            }
+            levels.subList(from, levels.size()).clear();
+            levels.add(new Level(docs, Math.max(sizeClass + 1, sizeClass(docs.size()))));
+        }
+    }
+
+    // Which merge class a level of this many documents belongs in.
+    private static int sizeClass(int docs) {
+        int sizeClass = 0;
+        for (long size = (long) FLUSH_SIZE * MERGE_WIDTH; size <= docs; size *= MERGE_WIDTH) {
+            sizeClass++;
+        }
+        return sizeClass;
+    }
+
+    // Trigram postings over a fixed set of numbered documents. Never changed after construction.
+    private abstract static class Postings {
+        final int docCount;
+        final long[] trigrams; // open addressing, 0 marks a free slot
+        final int[][] postings;
+
+        Postings(TrigramTable table, int docCount) {
+            this.docCount = docCount;
+            this.trigrams = table.keys;
+            this.postings = table.toArrays();
+        }
+
+        // Calls back the documents that hold enough of each query word's trigrams to match
+        // it and could score more than floor, with the most each can score. When some word
+        // needs trigrams, only documents in the postings of the one with the fewest can
+        // match. Otherwise any document can, but only those holding some of the trigrams can
+        // beat the floor, so the postings of every word are walked.
+        void rankedCandidates(FuzzyMatcher matcher, float floor, BoundConsumer candidate) {
+            int words = matcher.wordCount();
+            byte[][] shared = new byte[words][];
+            int driver = -1;
+            long driverPostings = Long.MAX_VALUE;
+            for (int w = 0; w < words; w++) {
+                long[] wordTrigrams = matcher.trigrams(w);
+                if (wordTrigrams.length == 0) continue;
+                byte[] counts = new byte[docCount];
+                long total = 0;
+                for (long trigram : wordTrigrams) {
+                    int[] list = postings[TrigramTable.find(trigrams, trigram)];
+                    if (list == null) continue;
+                    total += list.length;
+                    Cancellation.check(0);
+                    for (int docNumber : list) {
+                        counts[docNumber]++;
+                    }
+                }
+                shared[w] = counts;
+                if (matcher.requiredTrigrams(w) > 0 && total < driverPostings) {
+                    driver = w;
+                    driverPostings = total;
+                }
+            }
+
+            int[] held = new int[words];
+            boolean[] offered = new boolean[docCount];
+            int step = 0;
+            for (int w = 0; w < words; w++) {
+                if (shared[w] == null || driver >= 0 && w != driver) continue;
+                int required = matcher.requiredTrigrams(w);
+                for (long trigram : matcher.trigrams(w)) {
+                    int[] list = postings[TrigramTable.find(trigrams, trigram)];
+                    if (list == null) continue;
+                    for (int docNumber : list) {
+                        if (offered[docNumber] || shared[w][docNumber] < required) continue;
+                        Cancellation.check(++step);
+                        offered[docNumber] = true;
+                        offer(matcher, shared, held, docNumber, floor, candidate);
+                    }
+                }
+            }
+        }
+
+        private static void offer(FuzzyMatcher matcher, byte[][] shared, int[] held, int docNumber, float floor,
+                                  BoundConsumer candidate) {
+            for (int w = 0; w < held.length; w++) {
+                held[w] = shared[w] == null ? 0 : shared[w][docNumber];
+            }
+            float bound = matcher.bound(held);
+            if (bound > floor) candidate.accept(docNumber, bound);
+        }
+
+        // Calls back every document that can contain lowerQuery: those holding all of its
+        // trigrams, or every document when the query is too short to have one.
+        void candidates(String lowerQuery, IntConsumer candidate) {
+            if (lowerQuery.length() < 3) {
+                for (int docNumber = 0; docNumber < docCount; docNumber++) {
+                    Cancellation.check(docNumber);
+                    candidate.accept(docNumber);
+                }
+                return;
+            }
+
+            int[][] lists = postingsFor(lowerQuery);
+            if (lists == null) {
+                return;
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+            int[] cursors = new int[lists.length];
+
+            int[] smallest = lists[0];
+            int step = 0;
+            outer:
+            for (int docNumber : smallest) {
+                Cancellation.check(++step);
+                for (int l = 1; l < lists.length; l++) {
+                    int position = seek(lists[l], docNumber, cursors[l]);
+                    cursors[l] = position;
+                    if (position == lists[l].length) return;
+                    if (lists[l][position] != docNumber) continue outer;
+                }
+                candidate.accept(docNumber);
+            }
+        }
+
+        private int[][] postingsFor(String lowerQuery) {
+            Set<Long> seen = new HashSet<>();
+            List<int[]> lists = new ArrayList<>();
+            for (int i = 0; i + 3 <= lowerQuery.length(); i++) {
+                long trigram = trigram(lowerQuery, i);
+                if (!seen.add(trigram)) continue;
+                int[] list = postings[TrigramTable.find(trigrams, trigram)];
+                if (list == null) {
+                    return null; // some trigram occurs nowhere, so nothing can match
+                }
+                lists.add(list);
+            }
+            return lists.toArray(new int[0][]);
+        }
+
+        // Index of the first value >= target, searching from start (galloping, then binary).
+        private static int seek(int[] values, int target, int start) {
+            int step = 1;
+            int low = start;
+            int high = start;
+            while (high < values.length && values[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, values.length);
+            int index = Arrays.binarySearch(values, low, high, target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    // A level of documents built from changes.
+    private static final class Level extends Postings {
+        final Doc[] docs;
+        final int sizeClass;
+        final Map<UUID, Integer> docById;
+
+        Level(List<Doc> docList, int sizeClass) {
+            this(docList.toArray(new Doc[0]), sizeClass);
+        }
+
+        private Level(Doc[] docs, int sizeClass) {
+            super(index(docs), docs.length);
+            this.docs = docs;
+            this.sizeClass = sizeClass;
+            this.docById = new HashMap<>(docs.length * 2);
+            for (int docNumber = 0; docNumber < docs.length; docNumber++) {
+                docById.put(docs[docNumber].id, docNumber);
+            }
+        }
+
+        private static TrigramTable index(Doc[] docs) {
+            TrigramTable table = new TrigramTable();
+            for (int docNumber = 0; docNumber < docs.length; docNumber++) {
+                table.index(docs[docNumber].title, docNumber);
+                table.index(docs[docNumber].description, docNumber);
+            }
+            return table;
+        }
+
+        boolean contains(UUID id) {
+            return docById.containsKey(id);
+        }
+
+        void search(String lowerQuery, Consumer<Doc> matches) {
+            candidates(lowerQuery, docNumber -> {
+                Doc doc = docs[docNumber];
+                if (doc.matches(lowerQuery)) matches.accept(doc);
+            });
+        }
+    }
+
+    // The level over the loaded rows; the document number is the row.
+    private static final class ColumnLevel extends Postings {
+        final TaskColumns rows;
+
+        ColumnLevel(TaskColumns rows) {
+            super(index(rows), rows.size());
+            this.rows = rows;
+        }
+
+        private static TrigramTable index(TaskColumns rows) {
+            TrigramTable table = new TrigramTable();
+            for (int row = 0; row < rows.size(); row++) {
+                table.index(lower(rows.title(row)), row);
+                table.index(lower(rows.description(row)), row);
+            }
+            return table;
+        }
+
+        boolean contains(UUID id) {
+            return rows.find(id) >= 0;
+        }
+
+        void search(String lowerQuery, IntConsumer matches) {
+            candidates(lowerQuery, row -> {
+                if (rows.textContains(row, lowerQuery)) matches.accept(row);
+            });
+        }
+    }
+
+    // Trigram to posting list map used while building a level, without boxing every key.
+    private static final class TrigramTable {
+        long[] keys = new long[1024];
+        IntList[] lists = new IntList[1024];
+        int size;
+
+        void index(String text, int docNumber) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                long trigram = trigram(text, i);
+                int slot = find(keys, trigram);
+                IntList list = lists[slot];
+                if (list == null) {
+                    list = new IntList();
+                    keys[slot] = trigram;
+                    lists[slot] = list;
+                    if (++size * 2 > keys.length) grow();
+                }
+                // Documents are indexed one at a time, so a repeat can only be the last entry.
+                if (list.size == 0 || list.values[list.size - 1] != docNumber) {
+                    list.add(docNumber);
+                }
+            }
+        }
+
+        int[][] toArrays() {
+            int[][] arrays = new int[keys.length][];
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (lists[slot] != null) arrays[slot] = lists[slot].toArray();
+            }
+            return arrays;
+        }
+
+        // Slot holding the key, or the free slot where it would go.
+        static int find(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            IntList[] oldLists = lists;
+            keys = new long[oldKeys.length * 2];
+            lists = new IntList[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldLists[i] != null) {
+                    int slot = find(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    lists[slot] = oldLists[i];
+                }
+            }
+        }
+    }
+
+    private interface BoundConsumer {
+        void accept(int docNumber, float bound);
+    }
+
+    // Ids with the most each can score, sorted best first by sort(). Runs of equal bounds
+    // are only put into list order by orderRun once a query gets to them, as a short query
+    // can leave most of the list tied.
+    static final class Candidates {
+        private final float restBound;
+        private UUID[] ids = new UUID[64];
+        private float[] bounds = new float[64];
+        private long[] orders;
+        private int size;
+        private Set<UUID> listed;
+
+        private Candidates(float restBound) {
+            this.restBound = restBound;
+        }
+
+        int size() {
+            return size;
+        }
+
+        // The most any task that isn't listed can score, or -1 if those can't match.
+        float restBound() {
+            return restBound;
+        }
+
+        boolean isListed(UUID id) {
+            if (listed == null) {
+                listed = new HashSet<>(Arrays.asList(ids).subList(0, size));
+            }
+            return listed.contains(id);
+        }
+
+        UUID id(int index) {
+            return ids[index];
+        }
+
+        float bound(int index) {
+            return bounds[index];
+        }
+
+        // Only known for runs orderRun has been called for.
+        long order(int index) {
+            return orders[index];
+        }
+
+        // Puts the run of equal bounds that starts at from into list order, and returns the
+        // index just past it. Orders are unique, so each id's place is found by searching
+        // the sorted orders.
+        int orderRun(int from, ToLongFunction<UUID> orderOf) {
+            int to = from + 1;
+            while (to < size && bounds[to] == bounds[from]) to++;
+            long[] sorted = new long[to - from];
+            for (int i = from; i < to; i++) {
+                orders[i] = orderOf.applyAsLong(ids[i]);
+                sorted[i - from] = orders[i];
+            }
+            Arrays.sort(sorted);
+            UUID[] run = new UUID[to - from];
+            for (int i = from; i < to; i++) {
+                run[Arrays.binarySearch(sorted, orders[i])] = ids[i];
+            }
+            System.arraycopy(run, 0, ids, from, run.length);
+            System.arraycopy(sorted, 0, orders, from, sorted.length);
+            return to;
+        }
+
+        private void add(UUID id, float bound) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                bounds = Arrays.copyOf(bounds, size * 2);
+            }
+            ids[size] = id;
+            bounds[size++] = bound;
+        }
+
+        // Bounds are positive, so their bit patterns sort like the values.
+        private void sort() {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (long) Float.floatToIntBits(bounds[i]) << 32 | i;
+            }
+            Arrays.sort(keys);
+            UUID[] sortedIds = new UUID[size];
+            float[] sortedBounds = new float[size];
+            for (int i = 0; i < size; i++) {
+                int from = (int) keys[size - 1 - i];
+                sortedIds[i] = ids[from];
+                sortedBounds[i] = bounds[from];
+            }
+            ids = sortedIds;
+            bounds = sortedBounds;
+            orders = new long[size];
+        }
+    }
+
+    // Bit 48 keeps every trigram nonzero, so TrigramTable can use 0 for a free slot.
+    static long trigram(String text, int start) {
+        return 1L << 48 | ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    private static final class Doc {
+        final UUID id;
+        final String title;
+        final String description;
+        private final boolean deleted;
+
+        Doc(Task task) {
+            this(task.getId(), lower(task.getTitle()), lower(task.getDescription()), false);
+        }
+
+        private Doc(UUID id, String title, String description, boolean deleted) {
+            this.id = id;
+            this.title = title;
+            this.description = description;
+            this.deleted = deleted;
+        }
+
+        // Stands in for a task that was deleted, hiding it in older levels.
+        static Doc deleted(UUID id) {
+            return new Doc(id, "", "", true);
+        }
+
+        boolean isDeleted() {
+            return deleted;
+        }
+
+        boolean matches(String lowerQuery) {
+            return !deleted && (title.contains(lowerQuery) || description.contains(lowerQuery));
+        }
+    }
+
+    // Growable sorted int array used while building; cheaper than a Set<Integer> by an order of magnitude.
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.TaskChange;
+
+import java.util.List;
+
+// Notified after TaskManager applies changes, on the thread that made them.
+public interface TaskChangeListener {
+    void tasksChanged(List<TaskChange> changes);
+}
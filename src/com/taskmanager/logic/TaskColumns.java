@@ -0,0 +1,403 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A list of tasks stored column by column instead of as objects: ids as two longs, due
+ * dates as int epoch days, priorities as bytes, completion as bits, and titles and
+ * descriptions in a TextPool. That comes to roughly 60 bytes a task plus its text, where
+ * a Task object with its UUID, LocalDate and Strings costs well over 150 before the text
+ * and several hundred more once it sits in TaskStore's trees.
+ *
+ * Rows are numbered in list order and never change. task(row) hands out a read-only Task
+ * that reads the row's columns when asked, so holding on to one costs a few bytes. The
+ * sorted row lists behind TaskStore's lookups (by id, priority, status and due date) are
+ * built along with the columns.
+ *
+ * Descriptions are most of the text but are only read by the edit dialog, search and
+ * saving. Run with -Dtaskmanager.descriptions.offheap=true and they go to a pool of their
+ * own in a memory-mapped file (see TextPool.Builder.offHeap), leaving titles and the
+ * columns as the only text on the heap. Columns are built through a Loader, which writes
+ * each batch's descriptions to that file as the batch is read.
+ */
+final class TaskColumns {
+    private static final Priority[] PRIORITIES = Priority.values();
+    // Rows are packed into the low bits of a long when sorting by due date.
+    private static final int ROW_BITS = 30;
+    private static final boolean DESCRIPTIONS_OFF_HEAP = Boolean.getBoolean("taskmanager.descriptions.offheap");
+
+    static final TaskColumns EMPTY = new TaskColumns(Collections.emptyList(), null, null);
+
+    private final int size;
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final int[] dueDay;
+    private final byte[] priority;
+    private final long[] completed; // one bit per row
+    private final int[] title; // TextPool entries
+    private final int[] description;
+    private final TextPool text;
+    private final TextPool descriptions; // text itself unless kept off the heap
+
+    private final int[] rowsById;
+    private final int[][] rowsByPriority;
+    private final int[][] rowsByStatus; // pending, completed
+    private final int[] rowsByDue; // by completed, then due date, then row
+    private final boolean duplicateIds;
+
+    // Every due date must pass fits(). With offHeap set, descriptionEntries are the tasks'
+    // descriptions in it and the tasks' own are not read.
+    private TaskColumns(List<Task> tasks, TextPool offHeap, int[] descriptionEntries) {
+        size = tasks.size();
+        if (size >= 1 << ROW_BITS) {
+            throw new IllegalArgumentException("Too many tasks for one column store: " + size);
+        }
+        idHigh = new long[size];
+        idLow = new long[size];
+        dueDay = new int[size];
+        priority = new byte[size];
+        completed = new long[(size + 63) >>> 6];
+        title = new int[size];
+        description = new int[size];
+
+        TextPool.Builder pool = new TextPool.Builder();
+        int[] priorityCounts = new int[PRIORITIES.length];
+        int completedCount = 0;
+        int row = 0;
+        for (Task task : tasks) {
+            UUID id = task.getId();
+            idHigh[row] = id.getMostSignificantBits();
+            idLow[row] = id.getLeastSignificantBits();
+            dueDay[row] = (int) task.getDueDate().toEpochDay();
+            priority[row] = (byte) task.getPriority().ordinal();
+            priorityCounts[priority[row]]++;
+            if (task.isCompleted()) {
+                completed[row >>> 6] |= 1L << row;
+                completedCount++;
+            }
+            title[row] = pool.add(task.getTitle());
+            row++;
+        }
+        if (offHeap != null) {
+            System.arraycopy(descriptionEntries, 0, description, 0, size);
+        } else {
+            row = 0;
+            for (Task task : tasks) {
+                description[row++] = pool.add(task.getDescription());
+            }
+        }
+        text = pool.build();
+        descriptions = offHeap != null ? offHeap : text;
+
+        rowsById = new int[size];
+        for (int i = 0; i < size; i++) {
+            rowsById[i] = i;
+        }
+        sortById(rowsById, new int[size], 0, size);
+        boolean duplicates = false;
+        for (int i = 1; i < size && !duplicates; i++) {
+            duplicates = compareIds(rowsById[i - 1], idHigh[rowsById[i]], idLow[rowsById[i]]) == 0;
+        }
+        duplicateIds = duplicates;
+
+        rowsByPriority = new int[priorityCounts.length][];
+        for (int p = 0; p < priorityCounts.length; p++) {
+            rowsByPriority[p] = new int[priorityCounts[p]];
+        }
+        rowsByStatus = new int[][]{new int[size - completedCount], new int[completedCount]};
+        int[] priorityFill = new int[priorityCounts.length];
+        int[] statusFill = new int[2];
+        long[] dueKeys = new long[size];
+        for (int r = 0; r < size; r++) {
+            rowsByPriority[priority[r]][priorityFill[priority[r]]++] = r;
+            int status = isCompleted(r) ? 1 : 0;
+            rowsByStatus[status][statusFill[status]++] = r;
+            dueKeys[r] = (long) status << 62 | (dueDay[r] - (long) Integer.MIN_VALUE) << ROW_BITS | r;
+        }
+        Arrays.sort(dueKeys);
+        rowsByDue = new int[size];
+        for (int i = 0; i < size; i++) {
+            rowsByDue[i] = (int) (dueKeys[i] & (1 << ROW_BITS) - 1);
+        }
+    }
+
+    // Every due date must pass fits().
+    static TaskColumns of(List<Task> tasks) {
+        Loader loader = new Loader();
+        try {
+            loader.add(tasks);
+            return loader.build();
+        } finally {
+            loader.finish();
+        }
+    }
+
+    // Whether the task's due date can be stored; only dates millions of years away can't.
+    static boolean fits(Task task) {
+        long day = task.getDueDate().toEpochDay();
+        return day == (int) day;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // True if the list had the same id more than once; find() then returns any one of them.
+    boolean hasDuplicateIds() {
+        return duplicateIds;
+    }
+
+    // Row of the task with this id, or -1.
+    int find(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int from = 0;
+        int to = size - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            int c = compareIds(rowsById[mid], high, low);
+            if (c < 0) {
+                from = mid + 1;
+            } else if (c > 0) {
+                to = mid - 1;
+            } else {
+                return rowsById[mid];
+            }
+        }
+        return -1;
+    }
+
+    Task task(int row) {
+        return new Row(this, row);
+    }
+
+    UUID id(int row) {
+        return new UUID(idHigh[row], idLow[row]);
+    }
+
+    String title(int row) {
+        return text.get(title[row]);
+    }
+
+    String description(int row) {
+        return descriptions.get(description[row]);
+    }
+
+    Priority priority(int row) {
+        return PRIORITIES[priority[row]];
+    }
+
+    int dueDay(int row) {
+        return dueDay[row];
+    }
+
+    boolean isCompleted(int row) {
+        return (completed[row >>> 6] & 1L << row) != 0;
+    }
+
+    // Whether the lowercased title or description contains lowerQuery.
+    boolean textContains(int row, String lowerQuery) {
+        return text.containsLowercase(title[row], lowerQuery) || descriptions.containsLowercase(description[row], lowerQuery);
+    }
+
+    // Rows with the priority, in list order.
+    int[] rowsWithPriority(Priority p) {
+        return rowsByPriority[p.ordinal()];
+    }
+
+    int[] rowsWithStatus(boolean isCompleted) {
+        return rowsByStatus[isCompleted ? 1 : 0];
+    }
+
+    int rowByDue(int position) {
+        return rowsByDue[position];
+    }
+
+    // Number of rows that sort before (completed, epochDay) in due date order.
+    int duePosition(boolean isCompleted, long epochDay) {
+        int status = isCompleted ? 1 : 0;
+        int from = 0;
+        int to = size;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            int row = rowsByDue[mid];
+            int rowStatus = isCompleted(row) ? 1 : 0;
+            if (rowStatus < status || (rowStatus == status && dueDay[row] < epochDay)) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    // Same order as UUID.compareTo.
+    private int compareIds(int row, long high, long low) {
+        int c = Long.compare(idHigh[row], high);
+        return c != 0 ? c : Long.compare(idLow[row], low);
+    }
+
+    // Merge sort of rows[from, to) by id, using scratch of the same length.
+    private void sortById(int[] rows, int[] scratch, int from, int to) {
+        if (to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        sortById(rows, scratch, from, mid);
+        sortById(rows, scratch, mid, to);
+        if (compareIds(rows[mid - 1], idHigh[rows[mid]], idLow[rows[mid]]) <= 0) return;
+        System.arraycopy(rows, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right == to || (left < mid && compareIds(scratch[left], idHigh[scratch[right]], idLow[scratch[right]]) <= 0)) {
+                rows[i] = scratch[left++];
+            } else {
+                rows[i] = scratch[right++];
+            }
+        }
+    }
+
+    /**
+     * Takes a list batch by batch as it is read and builds columns of everything so far,
+     * as often as asked. With descriptions off the heap each batch's descriptions go
+     * straight to the blob and the tasks are kept without them, so the whole list's text is
+     * never on the heap at once, and every build maps that same blob: a background load that
+     * publishes the list several times writes each description once. If the blob can't be
+     * written the descriptions are read back and kept on the heap from then on.
+     */
+    static final class Loader {
+        private final List<Task> tasks = new ArrayList<>();
+        private TextPool.Builder descriptions; // null while the tasks keep their own
+        private int[] entries = new int[0];
+        private boolean allFit = true;
+
+        Loader() {
+            this(DESCRIPTIONS_OFF_HEAP);
+        }
+
+        Loader(boolean descriptionsOffHeap) {
+            if (descriptionsOffHeap) {
+                try {
+                    descriptions = TextPool.Builder.offHeap();
+                    entries = new int[16];
+                } catch (IOException e) {
+                    warnOnHeap(e);
+                }
+            }
+        }
+
+        void add(List<Task> batch) {
+            for (Task task : batch) {
+                allFit &= fits(task);
+                if (descriptions != null) {
+                    try {
+                        int entry = descriptions.add(task.getDescription());
+                        if (tasks.size() == entries.length) {
+                            entries = Arrays.copyOf(entries, entries.length * 2);
+                        }
+                        entries[tasks.size()] = entry;
+                        task = new Task(task.getId(), task.getTitle(), null, task.getPriority(), task.getDueDate(), task.isCompleted());
+                    } catch (UncheckedIOException e) {
+                        keepOnHeap(e);
+                    }
+                }
+                tasks.add(task);
+            }
+        }
+
+        int size() {
+            return tasks.size();
+        }
+
+        // False once a task's due date didn't pass fits(); build() can't be used then.
+        boolean allFit() {
+            return allFit;
+        }
+
+        // Columns of every task added so far. Not to be called after finish().
+        TaskColumns build() {
+            if (descriptions != null) {
+                try {
+                    return new TaskColumns(tasks, descriptions.pool(), entries);
+                } catch (UncheckedIOException e) {
+                    keepOnHeap(e);
+                }
+            }
+            return new TaskColumns(tasks, null, null);
+        }
+
+        // The tasks added so far, with their descriptions.
+        List<Task> tasks() {
+            List<Task> full = new ArrayList<>(tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                full.add(descriptions == null ? task : new Task(task.getId(), task.getTitle(), descriptions.get(entries[i]),
+                        task.getPriority(), task.getDueDate(), task.isCompleted()));
+            }
+            return full;
+        }
+
+        // Releases the blob; columns already built keep reading it.
+        void finish() {
+            if (descriptions != null) {
+                descriptions.release();
+            }
+        }
+
+        private void keepOnHeap(UncheckedIOException e) {
+            warnOnHeap(e.getCause());
+            List<Task> restored = tasks();
+            descriptions.release();
+            descriptions = null;
+            entries = new int[0];
+            tasks.clear();
+            tasks.addAll(restored);
+        }
+
+        private static void warnOnHeap(IOException e) {
+            System.err.println("Could not keep descriptions off the heap, keeping them in memory: " + e.getMessage());
+        }
+    }
+
+    // The Task handed out for a row. The id is kept once asked for, since lookups and
+    // sorting ask for it over and over.
+    private static final class Row extends ReadOnlyTask {
+        private final TaskColumns columns;
+        private final int row;
+        private UUID id;
+
+        Row(TaskColumns columns, int row) {
+            this.columns = columns;
+            this.row = row;
+        }
+
+        @Override
+        public UUID getId() {
+            UUID cached = id;
+            if (cached == null) {
+                cached = columns.id(row);
+                id = cached;
+            }
+            return cached;
+        }
+        @Override
+        public String getTitle() { return columns.title(row); }
+        @Override
+        public String getDescription() { return columns.description(row); }
+        @Override
+        public Priority getPriority() { return columns.priority(row); }
+        @Override
+        public LocalDate getDueDate() { return LocalDate.ofEpochDay(columns.dueDay(row)); }
+        @Override
+        public boolean isCompleted() { return columns.isCompleted(row); }
+    }
+}
@@ -0,0 +1,111 @@
+package com.taskmanager.logic;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a TaskManager up to date with what other running copies of the app save to the same
+ * data file, for a store opened in shared mode (-Dtaskmanager.sync=true).
+ *
+ * A WatchService on the file's directory says when the data file or its journals change.
+ * Events come in bursts while another copy writes, so the sync waits until the files have
+ * been quiet for QUIET_MILLIS and then calls TaskManager.syncExternalChanges once, which
+ * applies only the records that were appended. Watch events don't always arrive for
+ * network drives, so it also checks every POLL_MILLIS when nothing has happened; with no
+ * changes that is a look at two file sizes, and so are the events for this copy's own writes.
+ */
+public class TaskFileSync {
+    static final long QUIET_MILLIS = 200;
+    static final long POLL_MILLIS = 5000;
+
+    private final TaskManager taskManager;
+    private final Path dataFile;
+    private WatchService watcher;
+    private Thread thread;
+
+    public TaskFileSync(TaskManager taskManager, Path dataFile) {
+        this.taskManager = taskManager;
+        this.dataFile = dataFile.toAbsolutePath();
+    }
+
+    // Whether TaskManager.defaultPersistence opens the data file in shared mode.
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("taskmanager.sync");
+    }
+
+    public synchronized void start() throws IOException {
+        if (thread != null) return;
+        watcher = FileSystems.getDefault().newWatchService();
+        dataFile.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        WatchService service = watcher;
+        thread = new Thread(() -> run(service), "task-file-sync");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void close() {
+        if (thread == null) return;
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            System.err.println("Error closing file watcher: " + e.getMessage());
+        }
+        thread.interrupt();
+        thread = null;
+        watcher = null;
+    }
+
+    private void run(WatchService service) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    if (!takeEvents(key)) continue;
+                    // Wait for the burst to end.
+                    while ((key = service.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        takeEvents(key);
+                    }
+                }
+                sync();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed.
+        }
+    }
+
+    // Returns whether any of the events were about the data file or its journal. Temporary
+    // files, the lock and the rotated journal are left out; writes of this copy's own still
+    // count, and syncExternalChanges sees there is nothing new in them.
+    private boolean takeEvents(WatchKey key) {
+        String data = dataFile.getFileName().toString();
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+                continue;
+            }
+            String name = event.context().toString();
+            if (name.equals(data) || name.equals(data + ".journal")) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private void sync() {
+        try {
+            taskManager.syncExternalChanges();
+        } catch (RuntimeException e) {
+            System.err.println("Error syncing tasks: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.taskmanager.logic;
+
+import java.io.IOException;
+
+// Follows a load started with TaskManager.loadTasksInBackground. Called on the loading thread.
+public interface TaskLoadListener {
+
+    // More of the stored list has been read. When published is true the snapshot now
+    // holds everything read so far; otherwise it still shows an earlier part.
+    void loadProgress(int tasksRead, double fractionRead, boolean published);
+
+    // The whole list is in the snapshot and the changes made while loading have been handed
+    // to persistence. error is what cut the load short, in which case the list starts out
+    // empty as it does for loadTasks, or null.
+    void loadFinished(int totalTasks, IOException error);
+}
@@ -2,104 +2,621 @@ package com.taskmanager.logic;
 
 import com.taskmanager.model.Task;
 import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.perf.InstrumentedPersistence;
+import com.taskmanager.perf.Operation;
+import com.taskmanager.perf.PerfMonitor;
+import com.taskmanager.util.AsyncPersistenceWriter;
 import com.taskmanager.util.FileHandler;
+import com.taskmanager.util.JournaledPersistence;
+import com.taskmanager.util.SegmentedPersistence;
+import com.taskmanager.util.SnapshotFormat;
+import com.taskmanager.util.TaskPersistence;
+import com.taskmanager.util.UuidTable;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Owns the task list. All state is one immutable TaskSnapshot held in a volatile field:
+ * reads take the current snapshot and never lock, so any number of threads can read while
+ * a change is being made. Changes are serialized on this object; each builds the next
+ * snapshot from the current one, publishes it with a single write, then saves the change
+ * and tells the listeners, in that order, so listeners see changes in the order they were
+ * made.
+ *
+ * Tasks handed out by reads belong to the snapshot and are read-only (see ReadOnlyTask).
+ * Tasks passed in are copied, so the caller may keep changing its own object afterwards.
+ *
+ * loadTasksInBackground fills the list while it is already in use. Whenever the part read
+ * has grown fourfold, and once more at the end, a snapshot of it is built off the lock and
+ * published with the changes made so far applied on top. Nothing is published in between
+ * once half the input is read, so the extra building stays under two thirds of a full
+ * load. Until loading ends those changes are only held, not saved: before then there is
+ * no full list to save them against. Updating or deleting a task that hasn't been read
+ * yet waits for it to arrive.
+ */
 public class TaskManager {
-    private List<Task> tasks;
+    private volatile TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+    private final TaskPersistence persistence;
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Guarded by this. Changes made during a background load, oldest first.
+    private boolean loading;
+    private List<TaskChange> heldChanges = new ArrayList<>();
 
     public TaskManager() {
-        this.tasks = new ArrayList<>();
-        loadTasks();
+        this(defaultPersistence());
     }
 
-    public void loadTasks() {
+    public TaskManager(TaskPersistence persistence) {
+        this(persistence, true);
+    }
+
+    // With load false the list starts out empty; fill it with loadTasks or loadTasksInBackground.
+    public TaskManager(TaskPersistence persistence, boolean load) {
+        this.persistence = persistence;
+        if (load) loadTasks();
+    }
+
+    // The data file in the working directory, journaled and written in the background.
+    // -Dtaskmanager.storage=segmented keeps the list in tasks_data.segments instead, importing
+    // tasks_data.csv the first time. -Dtaskmanager.sync=true opens the journaled file in
+    // shared mode, for several copies of the app on the same file; see TaskFileSync.
+    // -Dtaskmanager.snapshot=binary compacts the journaled file into a BinarySnapshot.
+    public static TaskPersistence defaultPersistence() {
+        TaskPersistence store;
+        if ("segmented".equals(System.getProperty("taskmanager.storage"))) {
+            store = new SegmentedPersistence(Paths.get(SegmentedPersistence.DIRECTORY_NAME), Paths.get(FileHandler.FILE_NAME),
+                    SegmentedPersistence.DEFAULT_SEGMENT_SIZE);
+        } else if (TaskFileSync.isEnabled()) {
+            store = new JournaledPersistence(Paths.get(FileHandler.FILE_NAME), SnapshotFormat.configured(),
+                    JournaledPersistence.DEFAULT_COMPACTION_THRESHOLD, true);
+        } else {
+            store = new JournaledPersistence(Paths.get(FileHandler.FILE_NAME), SnapshotFormat.configured(),
+                    JournaledPersistence.DEFAULT_COMPACTION_THRESHOLD);
+        }
+        return new AsyncPersistenceWriter(new InstrumentedPersistence(store));
+    }
+
+    // Timed from reading the file to having the indexes built, which is the startup cost.
+    public synchronized void loadTasks() {
+        awaitLoaded();
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.LOAD);
+        TaskColumns.Loader loaded = new TaskColumns.Loader();
+        int count;
+        try {
+            persistence.load((batch, progress) -> loaded.add(batch));
+            snapshot = TaskSnapshot.of(loaded, snapshot.getVersion() + 1);
+            count = loaded.size();
+        } catch (IOException e) {
+            System.err.println("Error loading tasks: " + e.getMessage());
+            snapshot = TaskSnapshot.of(new ArrayList<>(), snapshot.getVersion() + 1);
+            count = 0;
+        } finally {
+            loaded.finish();
+        }
+        stopwatch.stop(count);
+    }
+
+    // Returns at once and reads the stored list on a new thread; see the class comment.
+    public synchronized void loadTasksInBackground(TaskLoadListener listener) {
+        awaitLoaded();
+        loading = true;
+        Thread loader = new Thread(() -> runBackgroundLoad(listener), "task-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public synchronized boolean isLoading() {
+        return loading;
+    }
+
+    private void runBackgroundLoad(TaskLoadListener listener) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.LOAD);
+        TaskColumns.Loader loaded = new TaskColumns.Loader();
+        TaskSnapshot[] built = {TaskSnapshot.EMPTY};
+        IOException error = null;
         try {
-            this.tasks = FileHandler.loadTasks();
+            persistence.load((batch, progress) -> {
+                loaded.add(batch);
+                int published = built[0].getTotalTasks();
+                boolean publish = progress < 0.5 && loaded.size() >= Math.max(1, published * 4L);
+                if (publish) {
+                    built[0] = TaskSnapshot.of(loaded, 0);
+                    publishLoaded(built[0], false);
+                }
+                listener.loadProgress(loaded.size(), progress, publish);
+            });
         } catch (IOException e) {
             System.err.println("Error loading tasks: " + e.getMessage());
-            this.tasks = new ArrayList<>();
+            error = e;
+        } catch (RuntimeException e) {
+            System.err.println("Error loading tasks: " + e);
+            error = new IOException(e);
+        }
+        int count = error == null ? loaded.size() : 0;
+        if (count != built[0].getTotalTasks()) {
+            built[0] = error == null ? TaskSnapshot.of(loaded, 0) : TaskSnapshot.of(new ArrayList<>(), 0);
+        }
+        loaded.finish();
+        int total = publishLoaded(built[0], true);
+        stopwatch.stop(count);
+        listener.loadFinished(total, error);
+    }
+
+    // Publishes a snapshot built from stored tasks with the changes held so far applied. When
+    // the load is done, also saves those changes and lets waiting callers through.
+    private synchronized int publishLoaded(TaskSnapshot loaded, boolean done) {
+        TaskSnapshot next = loaded;
+        for (TaskChange change : heldChanges) {
+            next = next.withChange(change);
+        }
+        snapshot = next.withVersion(snapshot.getVersion() + 1);
+        if (done) {
+            loading = false;
+            List<TaskChange> changes = heldChanges;
+            heldChanges = new ArrayList<>();
+            if (!changes.isEmpty()) {
+                try {
+                    persistence.write(changes, this::getAllTasks);
+                } catch (IOException e) {
+                    System.err.println("Error saving tasks: " + e.getMessage());
+                }
+            }
+        }
+        notifyAll();
+        return snapshot.getTotalTasks();
+    }
+
+    // Must hold the lock.
+    private void awaitLoaded() {
+        while (loading) {
+            waitForLoader();
+        }
+    }
+
+    // Must hold the lock. Waits for the next batch or the end of the load.
+    private void waitForLoader() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tasks to load", e);
+        }
+    }
+
+    // Synchronized so the full save can't overtake a change that is being written.
+    public synchronized void saveTasks() {
+        awaitLoaded();
+        try {
+            persistence.saveAll(snapshot.getAllTasks());
+        } catch (IOException e) {
+            System.err.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    // The current state; O(1), and unaffected by changes made after it was taken.
+    public TaskSnapshot snapshot() {
+        return snapshot;
+    }
+
+    // Saves the change, or holds it while loading, and tells the listeners about it.
+    // Called with the lock held.
+    private void changed(TaskChange.Type type, Task task, Task previous) {
+        changed(List.of(new TaskChange(type, task, previous)));
+    }
+
+    private void changed(List<TaskChange> changes) {
+        if (changes.isEmpty()) return;
+        if (loading) {
+            heldChanges.addAll(changes);
+        } else {
+            try {
+                persistence.write(changes, this::getAllTasks);
+            } catch (IOException e) {
+                System.err.println("Error saving tasks: " + e.getMessage());
+            }
         }
+        for (TaskChangeListener listener : listeners) {
+            listener.tasksChanged(changes);
+        }
+    }
+
+    public void addChangeListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(TaskChangeListener listener) {
+        listeners.remove(listener);
     }
 
-    public void saveTasks() {
+    // Blocks until every change made so far has reached the disk, which includes waiting
+    // for a background load to finish.
+    public void flush() {
+        synchronized (this) {
+            awaitLoaded();
+        }
         try {
-            FileHandler.saveTasks(this.tasks);
+            persistence.flush();
         } catch (IOException e) {
             System.err.println("Error saving tasks: " + e.getMessage());
         }
     }
 
-    public void addTask(Task task) {
-        tasks.add(task);
-        saveTasks();
+    public void close() {
+        synchronized (this) {
+            awaitLoaded();
+        }
+        try {
+            persistence.close();
+        } catch (IOException e) {
+            System.err.println("Error closing task storage: " + e.getMessage());
+        }
+    }
+
+    // Mutations are timed from taking the lock to the listeners returning.
+    public synchronized void addTask(Task task) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.ADD);
+        Task stored = new ReadOnlyTask(task);
+        Task previous = snapshot.getTask(stored.getId());
+        snapshot = snapshot.withAdded(stored);
+        changed(TaskChange.Type.ADDED, stored, previous);
+        stopwatch.stop(1);
+    }
+
+    public synchronized void updateTask(Task updatedTask) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.UPDATE);
+        awaitTask(updatedTask.getId());
+        Task previous = snapshot.getTask(updatedTask.getId());
+        if (previous != null) {
+            Task stored = new ReadOnlyTask(updatedTask);
+            snapshot = snapshot.withReplaced(stored);
+            changed(TaskChange.Type.UPDATED, stored, previous);
+            stopwatch.stop(1);
+        } else {
+            stopwatch.stop(0);
+        }
+    }
+
+    public synchronized void deleteTask(Task task) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.DELETE);
+        awaitTask(task.getId());
+        Task removed = snapshot.getTask(task.getId());
+        if (removed != null) {
+            snapshot = snapshot.without(task.getId());
+            changed(TaskChange.Type.DELETED, removed, removed);
+            stopwatch.stop(1);
+        } else {
+            stopwatch.stop(0);
+        }
+    }
+
+    // Must hold the lock. While loading, a task that isn't there yet may still be on its way.
+    private void awaitTask(UUID id) {
+        while (loading && !snapshot.contains(id)) {
+            waitForLoader();
+        }
+    }
+
+    // The bulk versions apply the whole batch as one change: readers see none of it or all
+    // of it, and it is saved in one write and reaches the listeners as one list. Each
+    // returns how many tasks it changed; unknown ids are skipped as the single versions do.
+
+    public synchronized int addAll(List<Task> tasks) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.ADD);
+        TaskSnapshot next = snapshot;
+        List<TaskChange> changes = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Task stored = new ReadOnlyTask(task);
+            Task previous = next.getTask(stored.getId());
+            next = next.withAdded(stored);
+            changes.add(new TaskChange(TaskChange.Type.ADDED, stored, previous));
+        }
+        return publish(next, changes, stopwatch);
+    }
+
+    public synchronized int updateAll(List<Task> updatedTasks) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.UPDATE);
+        awaitTasks(updatedTasks);
+        TaskSnapshot next = snapshot;
+        List<TaskChange> changes = new ArrayList<>(updatedTasks.size());
+        for (Task updatedTask : updatedTasks) {
+            Task previous = next.getTask(updatedTask.getId());
+            if (previous == null) continue;
+            Task stored = new ReadOnlyTask(updatedTask);
+            next = next.withReplaced(stored);
+            changes.add(new TaskChange(TaskChange.Type.UPDATED, stored, previous));
+        }
+        return publish(next, changes, stopwatch);
+    }
+
+    public synchronized int deleteAll(List<Task> tasks) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.DELETE);
+        awaitTasks(tasks);
+        TaskSnapshot next = snapshot;
+        List<TaskChange> changes = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Task removed = next.getTask(task.getId());
+            if (removed == null) continue;
+            next = next.without(task.getId());
+            changes.add(new TaskChange(TaskChange.Type.DELETED, removed, removed));
+        }
+        return publish(next, changes, stopwatch);
+    }
+
+    // Marks the tasks completed, using the stored version of each; ones already done are skipped.
+    public synchronized int completeAll(List<Task> tasks) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.UPDATE);
+        awaitTasks(tasks);
+        TaskSnapshot next = snapshot;
+        List<TaskChange> changes = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Task current = next.getTask(task.getId());
+            if (current == null || current.isCompleted()) continue;
+            Task completed = new Task(current);
+            completed.setCompleted(true);
+            Task stored = new ReadOnlyTask(completed);
+            next = next.withReplaced(stored);
+            changes.add(new TaskChange(TaskChange.Type.UPDATED, stored, current));
+        }
+        return publish(next, changes, stopwatch);
+    }
+
+    // Adds the tasks whose ids are new and replaces the ones already in the list, so the same
+    // file can be imported twice. Waits for a background load first, since until then a
+    // task that looks new may still be on its way.
+    public synchronized int importAll(List<Task> tasks) {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.ADD);
+        awaitLoaded();
+        TaskSnapshot next = snapshot;
+        List<TaskChange> changes = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Task stored = new ReadOnlyTask(task);
+            Task previous = next.getTask(stored.getId());
+            if (previous != null) {
+                next = next.withReplaced(stored);
+                changes.add(new TaskChange(TaskChange.Type.UPDATED, stored, previous));
+            } else {
+                next = next.withAdded(stored);
+                changes.add(new TaskChange(TaskChange.Type.ADDED, stored, null));
+            }
+        }
+        return publish(next, changes, stopwatch);
+    }
+
+    // Takes in what other copies of the app have saved to the same store since this one last
+    // looked, and returns how many tasks that changed here. Only the changed records are
+    // read and applied, unless the store says it has to be loaded again; then the new list
+    // is compared with the current one by id. Either way the listeners hear only about tasks
+    // that really differ, with their previous state, and nothing is written back.
+    //
+    // The files are read without holding the lock, which only guards applying what was read,
+    // so a slow drive doesn't hold up the UI. A task changed here in the meantime keeps its
+    // new state: that change is written after anything the read saw.
+    public int syncExternalChanges() {
+        synchronized (this) {
+            awaitLoaded();
+        }
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.SYNC);
+        TaskSnapshot base = snapshot;
+        List<TaskChange> external;
+        List<Task> loaded = null;
+        try {
+            if (!persistence.hasExternalChanges()) {
+                stopwatch.stop(0);
+                return 0;
+            }
+            external = persistence.readExternalChanges();
+            if (external == null) {
+                loaded = persistence.load();
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading changes to tasks: " + e.getMessage());
+            stopwatch.stop(0);
+            return 0;
+        }
+        synchronized (this) {
+            if (loaded != null) {
+                return reloadChanged(base, loaded, stopwatch);
+            }
+            return applyExternal(base, external, stopwatch);
+        }
+    }
+
+    // Must hold the lock. Applies the records read since base was current, except to tasks
+    // that have changed here since.
+    private int applyExternal(TaskSnapshot base, List<TaskChange> external, PerfMonitor.Stopwatch stopwatch) {
+        TaskSnapshot next = snapshot;
+        List<TaskChange> changes = new ArrayList<>();
+        for (TaskChange change : external) {
+            Task task = ReadOnlyTask.of(change.getTask());
+            Task previous = next.getTask(task.getId());
+            if (snapshot.getTask(task.getId()) != base.getTask(task.getId())) continue;
+            switch (change.getType()) {
+                case ADDED:
+                    // Replaces a task with the same id, as replaying the journal does.
+                    if (previous != null && sameContent(previous, task)) continue;
+                    next = next.withAdded(task);
+                    changes.add(new TaskChange(previous == null ? TaskChange.Type.ADDED : TaskChange.Type.UPDATED,
+                            task, previous));
+                    break;
+                case UPDATED:
+                    if (previous == null || sameContent(previous, task)) continue;
+                    next = next.withReplaced(task);
+                    changes.add(new TaskChange(TaskChange.Type.UPDATED, task, previous));
+                    break;
+                case DELETED:
+                    if (previous == null) continue;
+                    next = next.without(task.getId());
+                    changes.add(new TaskChange(TaskChange.Type.DELETED, previous, previous));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown change type: " + change.getType());
+            }
+        }
+        return publishExternal(next, changes, stopwatch);
     }
 
-    public void updateTask(Task updatedTask) {
-        for (int i = 0; i < tasks.size(); i++) {
-            if (tasks.get(i).getId().equals(updatedTask.getId())) {
-                tasks.set(i, updatedTask);
-                break;
+    // Must hold the lock. Swaps in the reloaded list whole and reports the difference. Tasks
+    // that have changed here since base was current, which the load may have missed, are
+    // kept as they are now.
+    private int reloadChanged(TaskSnapshot base, List<Task> loaded, PerfMonitor.Stopwatch stopwatch) {
+        if (snapshot != base) {
+            loaded = keepLocalChanges(base, loaded);
+        }
+        UuidTable loadedIds = new UuidTable();
+        List<TaskChange> changes = new ArrayList<>();
+        for (int i = 0; i < loaded.size(); i++) {
+            Task task = loaded.get(i);
+            loadedIds.put(task.getId(), i);
+            Task previous = snapshot.getTask(task.getId());
+            if (previous == null) {
+                changes.add(new TaskChange(TaskChange.Type.ADDED, task, null));
+            } else if (!sameContent(previous, task)) {
+                changes.add(new TaskChange(TaskChange.Type.UPDATED, task, previous));
+            }
+        }
+        for (Task task : snapshot.getAllTasks()) {
+            if (loadedIds.get(task.getId()) < 0) {
+                changes.add(new TaskChange(TaskChange.Type.DELETED, task, task));
+            }
+        }
+        TaskSnapshot next = changes.isEmpty() ? snapshot : TaskSnapshot.of(loaded, snapshot.getVersion() + 1);
+        return publishExternal(next, changes, stopwatch);
+    }
+
+    // Must hold the lock.
+    private List<Task> keepLocalChanges(TaskSnapshot base, List<Task> loaded) {
+        UuidTable loadedIds = new UuidTable();
+        List<Task> merged = new ArrayList<>(loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            Task task = loaded.get(i);
+            loadedIds.put(task.getId(), i);
+            Task current = snapshot.getTask(task.getId());
+            if (current == base.getTask(task.getId())) {
+                merged.add(task);
+            } else if (current != null) {
+                merged.add(current);
+            }
+        }
+        for (Task task : snapshot.getAllTasks()) {
+            if (loadedIds.get(task.getId()) < 0 && base.getTask(task.getId()) != task) {
+                merged.add(task);
+            }
+        }
+        return merged;
+    }
+
+    // Must hold the lock. Like publish, but the changes are already in the store.
+    private int publishExternal(TaskSnapshot next, List<TaskChange> changes, PerfMonitor.Stopwatch stopwatch) {
+        snapshot = next;
+        if (!changes.isEmpty()) {
+            for (TaskChangeListener listener : listeners) {
+                listener.tasksChanged(changes);
             }
         }
-        saveTasks();
+        stopwatch.stop(changes.size());
+        return changes.size();
+    }
+
+    private static boolean sameContent(Task a, Task b) {
+        return a.isCompleted() == b.isCompleted()
+                && a.getPriority() == b.getPriority()
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getDueDate(), b.getDueDate());
+    }
+
+    // Must hold the lock.
+    private int publish(TaskSnapshot next, List<TaskChange> changes, PerfMonitor.Stopwatch stopwatch) {
+        snapshot = next;
+        changed(changes);
+        stopwatch.stop(changes.size());
+        return changes.size();
+    }
+
+    // Must hold the lock. Done before reading the snapshot, as waiting lets the loader in.
+    private void awaitTasks(List<Task> tasks) {
+        for (Task task : tasks) {
+            awaitTask(task.getId());
+        }
     }
 
-    public void deleteTask(Task task) {
-        tasks.removeIf(t -> t.getId().equals(task.getId()));
-        saveTasks();
+    public Task getTask(UUID id) {
+        return snapshot.getTask(id);
     }
 
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks);
+        return snapshot.getAllTasks();
     }
 
     // --- Extra Features: Search, Filter, Sort ---
 
     public List<Task> searchTasks(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return getAllTasks();
-        }
-        String lowerQuery = query.toLowerCase();
-        return tasks.stream()
-                .filter(t -> t.getTitle().toLowerCase().contains(lowerQuery) || 
-                             t.getDescription().toLowerCase().contains(lowerQuery))
-                .collect(Collectors.toList());
+        return snapshot.searchTasks(query);
     }
 
     public List<Task> filterByPriority(Priority priority) {
-        if (priority == null) return getAllTasks();
-        return tasks.stream()
-                .filter(t -> t.getPriority() == priority)
-                .collect(Collectors.toList());
+        return snapshot.filterByPriority(priority);
     }
 
     public List<Task> filterByStatus(Boolean isCompleted) {
-        if (isCompleted == null) return getAllTasks();
-        return tasks.stream()
-                .filter(t -> t.isCompleted() == isCompleted)
-                .collect(Collectors.toList());
+        return snapshot.filterByStatus(isCompleted);
+    }
+
+    // Tasks due between the two dates (inclusive), earliest first. A null date leaves that end open.
+    public List<Task> findDueBetween(LocalDate from, LocalDate to) {
+        return snapshot.findDueBetween(from, to);
+    }
+
+    // Pending tasks whose due date is before today, earliest first.
+    public List<Task> findOverdue(LocalDate today) {
+        return snapshot.findOverdue(today);
+    }
+
+    // A view of the query's matches that is kept current by feeding it later changes.
+    // A ranked query keeps its limit, so the view holds the top results only.
+    public LiveTaskView openView(TaskQuery query) {
+        TaskSnapshot current = snapshot;
+        // Later changes are looked up in the snapshot that is current when they arrive.
+        if (query.isRanked() && query.getLimit() >= 0) {
+            TaskQuery top = query.unpaged().limit(query.getLimit());
+            return new LiveTaskView(query, current.query(top).getTasks(), id -> snapshot.sequenceOf(id),
+                    query.getLimit(), () -> snapshot.query(top).getTasks());
+        }
+        return new LiveTaskView(query, current.query(query.unpaged()).getTasks(), id -> snapshot.sequenceOf(id));
     }
 
-    public void sortTasksByDate() {
-        tasks.sort(Comparator.comparing(Task::getDueDate));
+    // Search, filters, sort and paging in one call; see TaskQuery.
+    public QueryResult query(TaskQuery query) {
+        return snapshot.query(query);
     }
 
-    public void sortTasksByPriority() {
-        tasks.sort(Comparator.comparing(Task::getPriority).reversed()); // High to Low
+    // The sort methods return a sorted copy; the list itself keeps insertion order.
+    public List<Task> sortTasksByDate() {
+        return query(new TaskQuery().sortBy(TaskQuery.SortKey.DUE_DATE)).getTasks();
+    }
+
+    public List<Task> sortTasksByPriority() {
+        return query(new TaskQuery().sortBy(TaskQuery.SortKey.PRIORITY)).getTasks(); // High to Low
     }
     
     public int getTotalTasks() {
-        return tasks.size();
+        return snapshot.getTotalTasks();
     }
     
     public int getCompletedTasks() {
-        return (int) tasks.stream().filter(Task::isCompleted).count();
+        return snapshot.getCompletedTasks();
+    }
+
+    public int getTaskCount(Priority priority) {
+        return snapshot.getTaskCount(priority);
     }
 }
@@ -0,0 +1,133 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+
+import java.time.LocalDate;
+
+/**
+ * Describes what TaskManager.query should return: an optional text search, priority,
+ * status and due date filters, a sort key and an optional page. Every setter returns the
+ * query so they can be chained; anything left unset doesn't filter.
+ *
+ * Sorting by RELEVANCE turns the text search into a ranked, typo-tolerant one (see
+ * FuzzyMatcher): every word of the text has to be in the title or description, give or
+ * take a typo, and the best scoring tasks come first, title matches ahead of description
+ * ones. Ranking stops as soon as nothing left can make the page, so getTotalMatches is
+ * then only the number of matches found on the way; it is exact when there is no limit.
+ */
+public class TaskQuery {
+    public enum SortKey {
+        LIST_ORDER, DUE_DATE, PRIORITY, RELEVANCE
+    }
+
+    private String text;
+    private Priority priority;
+    private Boolean completed;
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+    private SortKey sortKey = SortKey.LIST_ORDER;
+    private int offset;
+    private int limit = -1;
+    private FuzzyMatcher matcher;
+
+    // Same matching as searchTasks: case-insensitive substring of title or description.
+    // Sorted by RELEVANCE it is matched word by word instead.
+    public TaskQuery text(String text) {
+        this.text = text;
+        this.matcher = null;
+        return this;
+    }
+
+    public TaskQuery priority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public TaskQuery completed(Boolean completed) {
+        this.completed = completed;
+        return this;
+    }
+
+    // Both dates are inclusive; null leaves that end open.
+    public TaskQuery dueBetween(LocalDate from, LocalDate to) {
+        this.dueFrom = from;
+        this.dueTo = to;
+        return this;
+    }
+
+    public TaskQuery sortBy(SortKey sortKey) {
+        this.sortKey = sortKey == null ? SortKey.LIST_ORDER : sortKey;
+        return this;
+    }
+
+    public TaskQuery offset(int offset) {
+        if (offset < 0) throw new IllegalArgumentException("offset must not be negative");
+        this.offset = offset;
+        return this;
+    }
+
+    // A negative limit means no limit.
+    public TaskQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public String getText() { return text; }
+    public Priority getPriority() { return priority; }
+    public Boolean getCompleted() { return completed; }
+    public LocalDate getDueFrom() { return dueFrom; }
+    public LocalDate getDueTo() { return dueTo; }
+    public SortKey getSortKey() { return sortKey; }
+    public int getOffset() { return offset; }
+    public int getLimit() { return limit; }
+
+    // Applies every filter to a single task; paging and sorting are ignored.
+    public boolean matches(Task task) {
+        if (isRanked()) {
+            if (relevance(task) <= 0) return false;
+        } else if (hasText()) {
+            String lowerQuery = text.toLowerCase();
+            if (!task.getTitle().toLowerCase().contains(lowerQuery)
+                    && !task.getDescription().toLowerCase().contains(lowerQuery)) {
+                return false;
+            }
+        }
+        if (priority != null && task.getPriority() != priority) return false;
+        if (completed != null && task.isCompleted() != completed) return false;
+        if (dueFrom != null && task.getDueDate().isBefore(dueFrom)) return false;
+        if (dueTo != null && task.getDueDate().isAfter(dueTo)) return false;
+        return true;
+    }
+
+    // The task's score for a ranked query, 0 when it doesn't match the text. Reuses one
+    // FuzzyMatcher, so a query shouldn't be matched from two threads at once.
+    float relevance(Task task) {
+        if (!isRanked()) return 0;
+        if (matcher == null) matcher = new FuzzyMatcher(text);
+        return matcher.score(task);
+    }
+
+    // The same query without offset and limit.
+    TaskQuery unpaged() {
+        return new TaskQuery().text(text).priority(priority).completed(completed)
+                .dueBetween(dueFrom, dueTo).sortBy(sortKey);
+    }
+
+    boolean hasText() {
+        return text != null && !text.trim().isEmpty();
+    }
+
+    // RELEVANCE without text has nothing to rank by and keeps list order.
+    boolean isRanked() {
+        return sortKey == SortKey.RELEVANCE && hasText();
+    }
+
+    boolean hasDueRange() {
+        return dueFrom != null || dueTo != null;
+    }
+
+    boolean hasLimit() {
+        return limit >= 0;
+    }
+}
@@ -0,0 +1,157 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.perf.Operation;
+import com.taskmanager.perf.PerfMonitor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The whole task list as of one moment: the store with its indexes and the search index.
+ * A snapshot never changes, so it can be read from any number of threads without locking,
+ * and every read against the same snapshot sees the same tasks. TaskManager publishes a
+ * new one after each change; the new one shares almost all of its structure with the old.
+ *
+ * The Task objects belong to the snapshot and can't be changed in place: they are
+ * ReadOnlyTasks, whose setters throw. To edit a task, change a copy and pass it to
+ * TaskManager.updateTask.
+ *
+ * Every change gives the next snapshot a higher version, so two snapshots of the same
+ * TaskManager with equal versions hold the same tasks.
+ */
+public final class TaskSnapshot {
+    static final TaskSnapshot EMPTY = new TaskSnapshot(TaskStore.EMPTY, SearchIndex.EMPTY, 0);
+
+    private final TaskStore store;
+    private final SearchIndex searchIndex;
+    private final long version;
+
+    private TaskSnapshot(TaskStore store, SearchIndex searchIndex, long version) {
+        this.store = store;
+        this.searchIndex = searchIndex;
+        this.version = version;
+    }
+
+    static TaskSnapshot of(List<Task> tasks, long version) {
+        return of(TaskStore.of(tasks), version);
+    }
+
+    // Of the tasks the loader holds so far.
+    static TaskSnapshot of(TaskColumns.Loader loaded, long version) {
+        return of(TaskStore.of(loaded), version);
+    }
+
+    private static TaskSnapshot of(TaskStore store, long version) {
+        return new TaskSnapshot(store, SearchIndex.of(store.columns(), store.changedTasks()), version);
+    }
+
+    // Appends the task, or replaces the one with the same id in place.
+    TaskSnapshot withAdded(Task task) {
+        task = ReadOnlyTask.of(task);
+        return new TaskSnapshot(store.add(task), searchIndex.add(task), version + 1);
+    }
+
+    // Returns this snapshot if the id is unknown.
+    TaskSnapshot withReplaced(Task task) {
+        if (!store.contains(task.getId())) return this;
+        task = ReadOnlyTask.of(task);
+        return new TaskSnapshot(store.replace(task), searchIndex.update(task), version + 1);
+    }
+
+    // Returns this snapshot if the id is unknown.
+    TaskSnapshot without(UUID id) {
+        if (!store.contains(id)) return this;
+        return new TaskSnapshot(store.remove(id), searchIndex.remove(id), version + 1);
+    }
+
+    // Applies a change that was made to another snapshot.
+    TaskSnapshot withChange(TaskChange change) {
+        switch (change.getType()) {
+            case ADDED: return withAdded(change.getTask());
+            case UPDATED: return withReplaced(change.getTask());
+            case DELETED: return without(change.getTask().getId());
+            default: throw new IllegalArgumentException("Unknown change type: " + change.getType());
+        }
+    }
+
+    TaskSnapshot withVersion(long newVersion) {
+        return new TaskSnapshot(store, searchIndex, newVersion);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Task getTask(UUID id) {
+        return store.get(id);
+    }
+
+    public boolean contains(UUID id) {
+        return store.contains(id);
+    }
+
+    // Read-only, in list order; made in O(1) without copying.
+    public List<Task> getAllTasks() {
+        return store.toList();
+    }
+
+    public List<Task> searchTasks(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return getAllTasks();
+        }
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.SEARCH);
+        List<Task> found = store.inListOrder(searchIndex.search(query.toLowerCase()));
+        stopwatch.stop(query, found.size());
+        return found;
+    }
+
+    public List<Task> filterByPriority(Priority priority) {
+        if (priority == null) return getAllTasks();
+        return store.withPriority(priority);
+    }
+
+    public List<Task> filterByStatus(Boolean isCompleted) {
+        if (isCompleted == null) return getAllTasks();
+        return store.withStatus(isCompleted);
+    }
+
+    public List<Task> findDueBetween(LocalDate from, LocalDate to) {
+        return store.dueBetween(from, to, null);
+    }
+
+    public List<Task> findOverdue(LocalDate today) {
+        return store.dueBetween(null, today.minusDays(1), false);
+    }
+
+    // Timed as a search when it has text, as a sort when it only sorts, else as a query.
+    public QueryResult query(TaskQuery query) {
+        String text = query.getText();
+        boolean search = text != null && !text.trim().isEmpty();
+        boolean sort = query.getSortKey() != TaskQuery.SortKey.LIST_ORDER;
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(search ? Operation.SEARCH : sort ? Operation.SORT : Operation.QUERY);
+        QueryResult result = new QueryEngine(store, searchIndex).run(query);
+        stopwatch.stop(search ? text : sort ? query.getSortKey().name() : null, result.getTotalMatches());
+        return result;
+    }
+
+    // The task's place in the list; ids that aren't in it sort after every task.
+    long sequenceOf(UUID id) {
+        return store.contains(id) ? store.orderOf(id) : Long.MAX_VALUE;
+    }
+
+    public int getTotalTasks() {
+        return store.size();
+    }
+
+    public int getCompletedTasks() {
+        return store.countCompleted();
+    }
+
+    public int getTaskCount(Priority priority) {
+        return store.countWithPriority(priority);
+    }
+}
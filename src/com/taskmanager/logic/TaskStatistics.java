@@ -0,0 +1,196 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts for the stats panel, kept up to date from the TaskManager's change feed instead
+ * of being recomputed: totals, per priority, overdue, due today and due in the next seven
+ * days, and how many tasks were completed on each of the last TREND_DAYS days.
+ *
+ * Each change takes its old task out of the counts and puts the new one in, using
+ * TaskChange.getPrevious, so it costs O(1) however long the list is. The due-date counts
+ * rest on a count of pending tasks per due day; when the date moves on by a day they are
+ * shifted in O(1) from that, and after a longer gap they are summed again from it, which
+ * costs the number of distinct due days, not the number of tasks.
+ *
+ * rebuild() counts the whole list once, for a start or after a load. Tasks don't record
+ * when they were completed, so the completion trend can't be rebuilt: it holds the
+ * completions seen in the feed since this object was made.
+ */
+public class TaskStatistics implements TaskChangeListener {
+    public static final int TREND_DAYS = 7;
+    private static final int WEEK_DAYS = 7;
+
+    private final TaskManager taskManager;
+    private final Clock clock;
+
+    // Guarded by this.
+    private int total;
+    private int completed;
+    private final int[] byPriority = new int[Priority.values().length];
+    private final Map<Long, int[]> pendingByDay = new HashMap<>();
+    private long today;
+    private int overdue;
+    private int dueToday;
+    private int dueThisWeek;
+    private final int[] completedOn = new int[TREND_DAYS]; // ring, indexed by epoch day
+
+    public TaskStatistics(TaskManager taskManager, Clock clock) {
+        this.taskManager = taskManager;
+        this.clock = clock;
+        this.today = LocalDate.now(clock).toEpochDay();
+    }
+
+    // Follows the change feed from now on and counts the current list.
+    public void start() {
+        taskManager.addChangeListener(this);
+        rebuild();
+    }
+
+    public void close() {
+        taskManager.removeChangeListener(this);
+    }
+
+    // Counts under the manager's lock, which it holds from publishing a change until the
+    // listeners have heard of it, so every change is counted exactly once: either it is in
+    // the list read here or it arrives afterwards. Unlike ReminderScheduler, whose rebuild
+    // can safely see a change twice, counting one twice would leave the totals wrong.
+    // Always the manager's lock first, then this one, as for tasksChanged.
+    public void rebuild() {
+        synchronized (taskManager) {
+            synchronized (this) {
+                recount();
+            }
+        }
+    }
+
+    private void recount() {
+        total = 0;
+        completed = 0;
+        Arrays.fill(byPriority, 0);
+        pendingByDay.clear();
+        overdue = 0;
+        dueToday = 0;
+        dueThisWeek = 0;
+        today = LocalDate.now(clock).toEpochDay();
+        for (Task task : taskManager.snapshot().getAllTasks()) {
+            count(task, 1);
+        }
+    }
+
+    @Override
+    public synchronized void tasksChanged(List<TaskChange> changes) {
+        moveToToday();
+        for (TaskChange change : changes) {
+            Task previous = change.getPrevious();
+            if (previous != null) {
+                count(previous, -1);
+            }
+            if (change.getType() != TaskChange.Type.DELETED) {
+                count(change.getTask(), 1);
+                if (change.getTask().isCompleted() && (previous == null || !previous.isCompleted())) {
+                    completedOn[(int) Math.floorMod(today, (long) TREND_DAYS)]++;
+                }
+            }
+        }
+    }
+
+    // The counts as of now; O(1) apart from a change of date, see the class comment.
+    public synchronized Summary summary() {
+        moveToToday();
+        int[] trend = new int[TREND_DAYS];
+        for (int i = 0; i < TREND_DAYS; i++) {
+            long day = today - TREND_DAYS + 1 + i;
+            trend[i] = completedOn[(int) Math.floorMod(day, (long) TREND_DAYS)];
+        }
+        return new Summary(total, completed, byPriority.clone(), overdue, dueToday, dueThisWeek, trend);
+    }
+
+    private void count(Task task, int delta) {
+        total += delta;
+        byPriority[task.getPriority().ordinal()] += delta;
+        if (task.isCompleted()) {
+            completed += delta;
+            return;
+        }
+        long day = task.getDueDate().toEpochDay();
+        int[] pending = pendingByDay.computeIfAbsent(day, key -> new int[1]);
+        pending[0] += delta;
+        if (pending[0] == 0) pendingByDay.remove(day);
+        if (day < today) overdue += delta;
+        if (day == today) dueToday += delta;
+        if (day >= today && day < today + WEEK_DAYS) dueThisWeek += delta;
+    }
+
+    private void moveToToday() {
+        long now = LocalDate.now(clock).toEpochDay();
+        if (now == today) return;
+        if (now == today + 1) {
+            overdue += pendingOn(today);
+            dueThisWeek += pendingOn(today + WEEK_DAYS) - pendingOn(today);
+            dueToday = pendingOn(now);
+        } else {
+            overdue = 0;
+            dueToday = 0;
+            dueThisWeek = 0;
+            for (Map.Entry<Long, int[]> entry : pendingByDay.entrySet()) {
+                long day = entry.getKey();
+                int pending = entry.getValue()[0];
+                if (day < now) overdue += pending;
+                if (day == now) dueToday += pending;
+                if (day >= now && day < now + WEEK_DAYS) dueThisWeek += pending;
+            }
+        }
+        // Days that have left the trend window are cleared before their slot is reused.
+        for (long day = Math.max(today + 1, now - TREND_DAYS + 1); day <= now; day++) {
+            completedOn[(int) Math.floorMod(day, (long) TREND_DAYS)] = 0;
+        }
+        today = now;
+    }
+
+    private int pendingOn(long day) {
+        int[] pending = pendingByDay.get(day);
+        return pending == null ? 0 : pending[0];
+    }
+
+    // The counts at one moment. trend[TREND_DAYS - 1] is today.
+    public static final class Summary {
+        private final int total;
+        private final int completed;
+        private final int[] byPriority;
+        private final int overdue;
+        private final int dueToday;
+        private final int dueThisWeek;
+        private final int[] trend;
+
+        Summary(int total, int completed, int[] byPriority, int overdue, int dueToday, int dueThisWeek, int[] trend) {
+            this.total = total;
+            this.completed = completed;
+            this.byPriority = byPriority;
+            this.overdue = overdue;
+            this.dueToday = dueToday;
+            this.dueThisWeek = dueThisWeek;
+            this.trend = trend;
+        }
+
+        public int getTotal() { return total; }
+        public int getCompleted() { return completed; }
+        public int getCount(Priority priority) { return byPriority[priority.ordinal()]; }
+        // Pending tasks only.
+        public int getOverdue() { return overdue; }
+        public int getDueToday() { return dueToday; }
+        // Today and the six days after it.
+        public int getDueThisWeek() { return dueThisWeek; }
+        // Tasks completed on each of the last TREND_DAYS days, oldest first.
+        public int[] getCompletionTrend() { return trend.clone(); }
+    }
+}
@@ -0,0 +1,538 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * The task list, keyed by id. Every task has a sequence number that fixes its place in
+ * list order. Replacing a task keeps its number, so it stays where it was, like
+ * ArrayList.set did.
+ *
+ * The list as it was loaded lives in TaskColumns, one row per task, with the row as its
+ * sequence number; that is where almost all the tasks of a large list stay. Changes made
+ * since are layered on top, in the manner of a log-structured merge tree: the changed
+ * tasks are held in trees sorted by sequence number, and rows that were replaced or
+ * removed are entered in the same kind of trees as hidden. Every lookup reads the rows,
+ * skips the hidden ones and merges in the changed tasks, which gives positional access in
+ * O(log^2 n) and iteration in O(1) per task.
+ *
+ * Besides list order there are lookups by id, by priority and by completion state (both in
+ * list order, so filters come out in the same order as before), and by due date, keyed by
+ * (completed, due date, sequence number) so pending tasks in a date range form one
+ * contiguous run. Each slot remembers the values it was indexed under, because callers
+ * sometimes change a Task in place before handing it back to updateTask.
+ *
+ * A store never changes: add, replace and remove return a new store that shares the
+ * columns and all but O(log n) nodes of every tree with this one, so any number of threads
+ * can read a store while a writer derives the next one from it.
+ */
+final class TaskStore {
+    private static final Comparator<Long> ORDER = Long::compare;
+    private static final Comparator<UUID> ID_ORDER = UUID::compareTo;
+    private static final Comparator<DueKey> DUE_ORDER = Comparator
+            .comparingInt((DueKey key) -> key.completed ? 1 : 0)
+            .thenComparingLong(key -> key.epochDay)
+            .thenComparingLong(key -> key.order);
+
+    static final TaskStore EMPTY = new TaskStore(TaskColumns.EMPTY, Layer.EMPTY, Layer.EMPTY, new PersistentTree<>(ID_ORDER), 0);
+
+    private final TaskColumns rows;
+    private final Layer hidden; // rows replaced or removed since the store was built
+    private final Layer changed; // tasks added or replaced since
+    private final PersistentTree<UUID, Slot> changedById;
+    private final long nextOrder;
+
+    private TaskStore(TaskColumns rows, Layer hidden, Layer changed, PersistentTree<UUID, Slot> changedById, long nextOrder) {
+        this.rows = rows;
+        this.hidden = hidden;
+        this.changed = changed;
+        this.changedById = changedById;
+        this.nextOrder = nextOrder;
+    }
+
+    static TaskStore of(List<Task> tasks) {
+        TaskColumns.Loader loader = new TaskColumns.Loader();
+        try {
+            loader.add(tasks);
+            return of(loader);
+        } finally {
+            loader.finish();
+        }
+    }
+
+    // Built from what the loader holds so far; it can take more tasks for the next store.
+    static TaskStore of(TaskColumns.Loader loaded) {
+        if (!loaded.allFit()) {
+            // A due date out of the columns' range; keep everything in the trees instead.
+            TaskStore store = EMPTY;
+            for (Task t : loaded.tasks()) {
+                store = store.add(ReadOnlyTask.of(t));
+            }
+            return store;
+        }
+        TaskColumns columns = loaded.build();
+        if (columns.hasDuplicateIds()) {
+            columns = TaskColumns.of(withoutDuplicates(loaded.tasks()));
+        }
+        return new TaskStore(columns, Layer.EMPTY, Layer.EMPTY, new PersistentTree<>(ID_ORDER), columns.size());
+    }
+
+    // The same id twice: keep the first position, the last content.
+    private static List<Task> withoutDuplicates(List<Task> tasks) {
+        Map<UUID, Task> byId = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            byId.put(task.getId(), task);
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    // The columns the store was built on, and the tasks changed since; together with the
+    // hidden rows they make up the list. SearchIndex is built from the same two parts.
+    TaskColumns columns() {
+        return rows;
+    }
+
+    List<Task> changedTasks() {
+        return tasksOf(changed.byOrder.values());
+    }
+
+    int size() {
+        return rows.size() - hidden.size() + changed.size();
+    }
+
+    Task get(UUID id) {
+        Slot slot = slot(id);
+        return slot == null ? null : slot.task;
+    }
+
+    boolean contains(UUID id) {
+        return slot(id) != null;
+    }
+
+    // Appends the task; an existing task with the same id is replaced in place instead.
+    TaskStore add(Task task) {
+        if (contains(task.getId())) return replace(task);
+        return with(new Slot(nextOrder, task), nextOrder + 1);
+    }
+
+    // Returns this store unchanged if the id is unknown.
+    TaskStore replace(Task task) {
+        Slot old = slot(task.getId());
+        if (old == null) return this;
+        return without(old).with(new Slot(old.order, task), nextOrder);
+    }
+
+    // Returns this store unchanged if the id is unknown.
+    TaskStore remove(UUID id) {
+        Slot slot = slot(id);
+        if (slot == null) return this;
+        return without(slot);
+    }
+
+    Task getAt(int index) {
+        return toList().get(index);
+    }
+
+    // Read-only list view in list order, made in O(1).
+    List<Task> toList() {
+        return new LayeredList(rows, null, hidden.byOrder, changed.byOrder, nextOrder);
+    }
+
+    // The tasks with the given ids, in list order. Unknown ids are ignored.
+    List<Task> inListOrder(Collection<UUID> ids) {
+        List<Slot> slots = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Slot slot = slot(id);
+            if (slot != null) slots.add(slot);
+        }
+        slots.sort(Comparator.comparingLong(slot -> slot.order));
+        return tasksOf(slots);
+    }
+
+    // Position of the task in list order terms; only meaningful for comparing two tasks.
+    // For a task in the store; doesn't read the task out of its row.
+    long orderOf(UUID id) {
+        Slot slot = changedById.get(id);
+        return slot != null ? slot.order : rows.find(id);
+    }
+
+    List<Task> withPriority(Priority priority) {
+        int p = priority.ordinal();
+        return new LayeredList(rows, rows.rowsWithPriority(priority), hidden.byPriority[p], changed.byPriority[p], nextOrder);
+    }
+
+    int countWithPriority(Priority priority) {
+        int p = priority.ordinal();
+        return rows.rowsWithPriority(priority).length - hidden.byPriority[p].size() + changed.byPriority[p].size();
+    }
+
+    List<Task> withStatus(boolean completed) {
+        int s = completed ? 1 : 0;
+        return new LayeredList(rows, rows.rowsWithStatus(completed), hidden.byStatus[s], changed.byStatus[s], nextOrder);
+    }
+
+    int countCompleted() {
+        return rows.rowsWithStatus(true).length - hidden.byStatus[1].size() + changed.byStatus[1].size();
+    }
+
+    // Tasks due in [from, to] ordered by due date, then list order. Null bounds are open,
+    // and a null completed takes both pending and completed tasks.
+    List<Task> dueBetween(LocalDate from, LocalDate to, Boolean completed) {
+        List<DueKey> pendingKeys = new ArrayList<>();
+        List<Task> pending = new ArrayList<>();
+        if (completed == null || !completed) {
+            collectDue(false, from, to, pendingKeys, pending);
+            if (completed != null) return pending;
+        }
+        List<DueKey> completedKeys = new ArrayList<>();
+        List<Task> done = new ArrayList<>();
+        collectDue(true, from, to, completedKeys, done);
+        if (completed != null) return done;
+
+        // Merge the two runs back into one by (due date, list order).
+        List<Task> merged = new ArrayList<>(pending.size() + done.size());
+        int p = 0;
+        int c = 0;
+        while (p < pending.size() || c < done.size()) {
+            boolean takePending;
+            if (c == done.size()) {
+                takePending = true;
+            } else if (p == pending.size()) {
+                takePending = false;
+            } else {
+                takePending = before(pendingKeys.get(p), completedKeys.get(c));
+            }
+            merged.add(takePending ? pending.get(p++) : done.get(c++));
+        }
+        return merged;
+    }
+
+    // Same range as dueBetween, counted in O(log n) without visiting the tasks.
+    int countDueBetween(LocalDate from, LocalDate to, Boolean completed) {
+        int count = 0;
+        if (completed == null || !completed) {
+            count += countDue(dueLow(false, from), dueHigh(false, to));
+        }
+        if (completed == null || completed) {
+            count += countDue(dueLow(true, from), dueHigh(true, to));
+        }
+        return count;
+    }
+
+    private int countDue(DueKey low, DueKey high) {
+        int inRows = duePosition(high) - duePosition(low);
+        return inRows - countInRange(hidden.byDueDate, low, high) + countInRange(changed.byDueDate, low, high);
+    }
+
+    private static int countInRange(PersistentTree<DueKey, Slot> tree, DueKey low, DueKey high) {
+        return (high == null ? tree.size() : tree.rank(high)) - tree.rank(low);
+    }
+
+    // Number of rows before the key in due date order; null is the end.
+    private int duePosition(DueKey key) {
+        return key == null ? rows.size() : rows.duePosition(key.completed, key.epochDay);
+    }
+
+    // One status's run of dueBetween: the rows in range that aren't hidden, merged with the
+    // changed tasks in range.
+    private void collectDue(boolean completed, LocalDate from, LocalDate to, List<DueKey> keys, List<Task> tasks) {
+        DueKey low = dueLow(completed, from);
+        DueKey high = dueHigh(completed, to);
+        List<Slot> changedInRange = new ArrayList<>();
+        changed.byDueDate.forEachInRange(low, high, (key, slot) -> changedInRange.add(slot));
+
+        int position = duePosition(low);
+        int end = duePosition(high);
+        int next = 0;
+        while (true) {
+            while (position < end && hidden.byOrder.get((long) rows.rowByDue(position)) != null) {
+                position++;
+            }
+            DueKey rowKey = position < end ? rowKey(rows.rowByDue(position)) : null;
+            DueKey changedKey = next < changedInRange.size() ? changedInRange.get(next).dueKey() : null;
+            if (rowKey == null && changedKey == null) return;
+            if (changedKey == null || (rowKey != null && before(rowKey, changedKey))) {
+                keys.add(rowKey);
+                tasks.add(rows.task((int) rowKey.order));
+                position++;
+            } else {
+                keys.add(changedKey);
+                tasks.add(changedInRange.get(next++).task);
+            }
+        }
+    }
+
+    private DueKey rowKey(int row) {
+        return new DueKey(rows.isCompleted(row), rows.dueDay(row), row);
+    }
+
+    // Order of two keys with the same completion state.
+    private static boolean before(DueKey a, DueKey b) {
+        return a.epochDay < b.epochDay || (a.epochDay == b.epochDay && a.order < b.order);
+    }
+
+    private static DueKey dueLow(boolean completed, LocalDate from) {
+        return new DueKey(completed, from == null ? Long.MIN_VALUE : from.toEpochDay(), Long.MIN_VALUE);
+    }
+
+    // Exclusive upper key; null only for an open range over completed tasks, which sort last.
+    private static DueKey dueHigh(boolean completed, LocalDate to) {
+        if (to != null) {
+            return new DueKey(completed, to.toEpochDay() + 1, Long.MIN_VALUE);
+        }
+        return completed ? null : new DueKey(true, Long.MIN_VALUE, Long.MIN_VALUE);
+    }
+
+    // The task's slot, whether it is a changed task or a row that is still visible.
+    private Slot slot(UUID id) {
+        Slot slot = changedById.get(id);
+        if (slot != null) return slot;
+        int row = rows.find(id);
+        if (row < 0 || hidden.byOrder.get((long) row) != null) return null;
+        return new Slot(rows, row);
+    }
+
+    private TaskStore with(Slot slot, long nextOrder) {
+        return new TaskStore(rows, hidden, changed.with(slot), changedById.put(slot.task.getId(), slot), nextOrder);
+    }
+
+    private TaskStore without(Slot slot) {
+        if (slot.isRow) {
+            return new TaskStore(rows, hidden.with(slot), changed, changedById, nextOrder);
+        }
+        return new TaskStore(rows, hidden, changed.without(slot), changedById.remove(slot.task.getId()), nextOrder);
+    }
+
+    private static List<Task> tasksOf(List<Slot> slots) {
+        List<Task> tasks = new ArrayList<>(slots.size());
+        for (Slot slot : slots) {
+            tasks.add(slot.task);
+        }
+        return tasks;
+    }
+
+    // Slots by sequence number, by priority, by completion state and by due date.
+    private static final class Layer {
+        static final Layer EMPTY = new Layer(new PersistentTree<>(ORDER), newOrderTrees(Priority.values().length),
+                newOrderTrees(2), new PersistentTree<>(DUE_ORDER));
+
+        final PersistentTree<Long, Slot> byOrder;
+        final PersistentTree<Long, Slot>[] byPriority;
+        final PersistentTree<Long, Slot>[] byStatus;
+        final PersistentTree<DueKey, Slot> byDueDate;
+
+        private Layer(PersistentTree<Long, Slot> byOrder, PersistentTree<Long, Slot>[] byPriority,
+                      PersistentTree<Long, Slot>[] byStatus, PersistentTree<DueKey, Slot> byDueDate) {
+            this.byOrder = byOrder;
+            this.byPriority = byPriority;
+            this.byStatus = byStatus;
+            this.byDueDate = byDueDate;
+        }
+
+        int size() {
+            return byOrder.size();
+        }
+
+        Layer with(Slot slot) {
+            PersistentTree<Long, Slot>[] priorities = byPriority.clone();
+            int p = slot.priority.ordinal();
+            priorities[p] = priorities[p].put(slot.order, slot);
+            PersistentTree<Long, Slot>[] statuses = byStatus.clone();
+            int s = slot.completed ? 1 : 0;
+            statuses[s] = statuses[s].put(slot.order, slot);
+            return new Layer(byOrder.put(slot.order, slot), priorities, statuses, byDueDate.put(slot.dueKey(), slot));
+        }
+
+        Layer without(Slot slot) {
+            PersistentTree<Long, Slot>[] priorities = byPriority.clone();
+            int p = slot.priority.ordinal();
+            priorities[p] = priorities[p].remove(slot.order);
+            PersistentTree<Long, Slot>[] statuses = byStatus.clone();
+            int s = slot.completed ? 1 : 0;
+            statuses[s] = statuses[s].remove(slot.order);
+            return new Layer(byOrder.remove(slot.order), priorities, statuses, byDueDate.remove(slot.dueKey()));
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static PersistentTree<Long, Slot>[] newOrderTrees(int count) {
+            PersistentTree<Long, Slot>[] trees = new PersistentTree[count];
+            for (int i = 0; i < count; i++) {
+                trees[i] = new PersistentTree<>(ORDER);
+            }
+            return trees;
+        }
+    }
+
+    // Some of the rows (in list order; null for all of them) without the hidden ones,
+    // merged by sequence number with the changed tasks. Made in O(1); get(i) costs
+    // O(log^2 n), iterating O(1) per task.
+    private static final class LayeredList extends AbstractList<Task> {
+        private final TaskColumns columns;
+        private final int[] rows;
+        private final PersistentTree<Long, Slot> hidden;
+        private final PersistentTree<Long, Slot> changed;
+        private final long nextOrder;
+
+        LayeredList(TaskColumns columns, int[] rows, PersistentTree<Long, Slot> hidden,
+                    PersistentTree<Long, Slot> changed, long nextOrder) {
+            this.columns = columns;
+            this.rows = rows;
+            this.hidden = hidden;
+            this.changed = changed;
+            this.nextOrder = nextOrder;
+        }
+
+        @Override
+        public int size() {
+            return rowCount() - hidden.size() + changed.size();
+        }
+
+        // Binary search for the smallest sequence number with more than index tasks at or before it.
+        @Override
+        public Task get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            long low = 0;
+            long high = nextOrder - 1;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                if (countThrough(mid) > index) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            Slot slot = changed.get(low);
+            return slot != null ? slot.task : columns.task((int) low);
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<Task>() {
+                private final Iterator<Slot> hiddenSlots = hidden.valuesView().iterator();
+                private final Iterator<Slot> changedSlots = changed.valuesView().iterator();
+                private Slot nextHidden = advance(hiddenSlots);
+                private Slot nextChanged = advance(changedSlots);
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    skipHidden();
+                    return position < rowCount() || nextChanged != null;
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    if (nextChanged == null || (position < rowCount() && rowAt(position) < nextChanged.order)) {
+                        return columns.task(rowAt(position++));
+                    }
+                    Task task = nextChanged.task;
+                    nextChanged = advance(changedSlots);
+                    return task;
+                }
+
+                // Hidden rows come in the same order as the rows, so they are skipped in one pass.
+                private void skipHidden() {
+                    while (position < rowCount()) {
+                        int row = rowAt(position);
+                        while (nextHidden != null && nextHidden.order < row) {
+                            nextHidden = advance(hiddenSlots);
+                        }
+                        if (nextHidden == null || nextHidden.order != row) return;
+                        position++;
+                    }
+                }
+            };
+        }
+
+        private static Slot advance(Iterator<Slot> slots) {
+            return slots.hasNext() ? slots.next() : null;
+        }
+
+        // Number of tasks in the list with a sequence number <= order.
+        private int countThrough(long order) {
+            return rowsBelow(order + 1) - hidden.rank(order + 1) + changed.rank(order + 1);
+        }
+
+        private int rowsBelow(long order) {
+            if (rows == null) return (int) Math.min(order, columns.size());
+            int from = 0;
+            int to = rows.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (rows[mid] < order) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+
+        private int rowCount() {
+            return rows == null ? columns.size() : rows.length;
+        }
+
+        private int rowAt(int position) {
+            return rows == null ? position : rows[position];
+        }
+    }
+
+    // A task together with the values it is indexed under.
+    private static final class Slot {
+        final long order;
+        final Task task;
+        final Priority priority;
+        final boolean completed;
+        final long epochDay;
+        final boolean isRow;
+
+        Slot(long order, Task task) {
+            this.order = order;
+            this.task = task;
+            this.priority = task.getPriority();
+            this.completed = task.isCompleted();
+            this.epochDay = task.getDueDate().toEpochDay();
+            this.isRow = false;
+        }
+
+        Slot(TaskColumns columns, int row) {
+            this.order = row;
+            this.task = columns.task(row);
+            this.priority = columns.priority(row);
+            this.completed = columns.isCompleted(row);
+            this.epochDay = columns.dueDay(row);
+            this.isRow = true;
+        }
+
+        DueKey dueKey() {
+            return new DueKey(completed, epochDay, order);
+        }
+    }
+
+    private static final class DueKey {
+        final boolean completed;
+        final long epochDay;
+        final long order;
+
+        DueKey(boolean completed, long epochDay, long order) {
+            this.completed = completed;
+            this.epochDay = epochDay;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.taskmanager.logic;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The titles and descriptions of TaskColumns: the UTF-8 bytes of every distinct string,
+ * packed into large byte pages and addressed by entry number. Equal strings are stored
+ * once, and none of them pays for a String object until it is read. Entry -1 stands for
+ * null.
+ *
+ * Matching a lowercase query against an ASCII entry is done on the bytes, so a search
+ * that has to check every task doesn't decode them.
+ *
+ * A pool made by Builder.offHeap() keeps its bytes in a temporary blob file mapped into
+ * memory instead of in heap pages. The operating system pages them in when an entry is
+ * read and can drop them again under memory pressure, so the heap only holds the offsets.
+ *
+ * Builder.pool() hands out a pool of the entries added so far and the builder carries on
+ * after it, so a list that grows while it loads can be published several times without
+ * copying or writing its text again.
+ */
+final class TextPool {
+    static final TextPool EMPTY = new Builder().build();
+
+    private static final int PAGE_SIZE = 1 << 22;
+    // Off-heap pages are mapped regions of the blob file; a mapping holds at most 2 GB.
+    private static final int MAPPED_PAGE_SIZE = 1 << 30;
+
+    private final ByteBuffer[] pages;
+    private final long[] starts; // page << 32 | offset
+    private final int[] lengths;
+    private final long[] ascii; // one bit per entry
+
+    private TextPool(ByteBuffer[] pages, long[] starts, int[] lengths, long[] ascii) {
+        this.pages = pages;
+        this.starts = starts;
+        this.lengths = lengths;
+        this.ascii = ascii;
+    }
+
+    String get(int entry) {
+        if (entry < 0) return null;
+        long start = starts[entry];
+        ByteBuffer page = pages[(int) (start >>> 32)];
+        int length = lengths[entry];
+        if (page.hasArray()) {
+            return new String(page.array(), (int) start, length, charset(entry));
+        }
+        byte[] bytes = new byte[length];
+        page.get((int) start, bytes);
+        return new String(bytes, charset(entry));
+    }
+
+    // Same answer as lower(get(entry)).contains(lowerQuery), with null read as "".
+    boolean containsLowercase(int entry, String lowerQuery) {
+        if (entry < 0) return lowerQuery.isEmpty();
+        if (!isAscii(entry) || !asciiLowercaseIsSimple()) {
+            return get(entry).toLowerCase().contains(lowerQuery);
+        }
+        int queryLength = lowerQuery.length();
+        for (int i = 0; i < queryLength; i++) {
+            if (lowerQuery.charAt(i) >= 0x80) return false; // ASCII text lowercases to ASCII
+        }
+        long start = starts[entry];
+        ByteBuffer page = pages[(int) (start >>> 32)];
+        int from = (int) start;
+        int last = from + lengths[entry] - queryLength;
+        outer:
+        for (int i = from; i <= last; i++) {
+            for (int j = 0; j < queryLength; j++) {
+                int c = page.get(i + j);
+                if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+                if (c != lowerQuery.charAt(j)) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isAscii(int entry) {
+        return (ascii[entry >>> 6] & 1L << entry) != 0;
+    }
+
+    private Charset charset(int entry) {
+        return isAscii(entry) ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+    }
+
+    // Turkish, Azerbaijani and Lithuanian lowercase some ASCII letters to other characters,
+    // so under those locales every entry goes through String.toLowerCase.
+    private static boolean asciiLowercaseIsSimple() {
+        String language = Locale.getDefault().getLanguage();
+        return !language.equals("tr") && !language.equals("az") && !language.equals("lt");
+    }
+
+    static final class Builder {
+        private final Map<String, Integer> entries = new HashMap<>();
+        private final List<byte[]> pages = new ArrayList<>();
+        private byte[] page = new byte[0];
+        private int used;
+        private long[] starts = new long[16];
+        private int[] lengths = new int[16];
+        private long[] ascii = new long[1];
+        private int count;
+
+        // Set for off-heap pools: the bytes go to the blob file through pending, and
+        // pageStarts records where each mapped page begins. A page that has filled up stays
+        // mapped from one pool() to the next.
+        private final Path blobFile;
+        private final FileChannel blob;
+        private final ByteBuffer pending;
+        private final List<Long> pageStarts = new ArrayList<>();
+        private final List<ByteBuffer> mappedPages = new ArrayList<>();
+        private long blobLength;
+        private long flushed;
+        // Off-heap text is only shared when it is empty: descriptions seldom repeat
+        // otherwise, and a map of them all would put the text back on the heap.
+        private int emptyEntry = -1;
+
+        Builder() {
+            this.blobFile = null;
+            this.blob = null;
+            this.pending = null;
+        }
+
+        private Builder(Path blobFile) throws IOException {
+            this.blobFile = blobFile;
+            this.blob = FileChannel.open(blobFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.pending = ByteBuffer.allocate(1 << 16);
+        }
+
+        // A builder for a pool kept in a mapped temporary file. add(), get(), pool() and
+        // build() throw UncheckedIOException if writing or mapping the file fails. Call
+        // release() once no more pools will be taken.
+        static Builder offHeap() throws IOException {
+            Path file = Files.createTempFile("taskmanager-text", ".blob");
+            try {
+                return new Builder(file);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        }
+
+        int add(String text) {
+            if (text == null) return -1;
+            if (blob == null) {
+                Integer existing = entries.get(text);
+                if (existing != null) return existing;
+            } else if (text.isEmpty() && emptyEntry >= 0) {
+                return emptyEntry;
+            }
+
+            boolean isAscii = true;
+            for (int i = 0; i < text.length() && isAscii; i++) {
+                isAscii = text.charAt(i) < 0x80;
+            }
+            byte[] bytes = text.getBytes(isAscii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+            int pageNumber;
+            int offset;
+            if (blob != null) {
+                pageNumber = appendToBlob(bytes);
+                offset = used;
+            } else {
+                if (pages.isEmpty() || used + bytes.length > page.length) {
+                    // Entries never straddle pages; a string bigger than a page gets one of its own.
+                    page = new byte[Math.max(PAGE_SIZE, bytes.length)];
+                    pages.add(page);
+                    used = 0;
+                }
+                System.arraycopy(bytes, 0, page, used, bytes.length);
+                pageNumber = pages.size() - 1;
+                offset = used;
+            }
+
+            int entry = count++;
+            if (entry == starts.length) {
+                starts = Arrays.copyOf(starts, entry * 2);
+                lengths = Arrays.copyOf(lengths, entry * 2);
+            }
+            if (entry >>> 6 == ascii.length) {
+                ascii = Arrays.copyOf(ascii, ascii.length * 2);
+            }
+            starts[entry] = (long) pageNumber << 32 | offset;
+            lengths[entry] = bytes.length;
+            if (isAscii) ascii[entry >>> 6] |= 1L << entry;
+            used += bytes.length;
+            if (blob == null) {
+                entries.put(text, entry);
+            } else if (text.isEmpty()) {
+                emptyEntry = entry;
+            }
+            return entry;
+        }
+
+        // The text of an entry added so far, read back from the pages or the blob.
+        String get(int entry) {
+            if (entry < 0) return null;
+            long start = starts[entry];
+            int pageNumber = (int) (start >>> 32);
+            byte[] bytes = new byte[lengths[entry]];
+            if (blob == null) {
+                System.arraycopy(pages.get(pageNumber), (int) start, bytes, 0, bytes.length);
+            } else {
+                readBlob(pageStarts.get(pageNumber) + (int) start, bytes);
+            }
+            boolean isAscii = (ascii[entry >>> 6] & 1L << entry) != 0;
+            return new String(bytes, isAscii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+
+        private int appendToBlob(byte[] bytes) {
+            if (pageStarts.isEmpty() || used + (long) bytes.length > MAPPED_PAGE_SIZE) {
+                pageStarts.add(blobLength);
+                used = 0;
+            }
+            try {
+                if (bytes.length > pending.remaining()) {
+                    flush();
+                }
+                if (bytes.length > pending.remaining()) {
+                    ByteBuffer large = ByteBuffer.wrap(bytes);
+                    while (large.hasRemaining()) {
+                        flushed += blob.write(large, flushed);
+                    }
+                } else {
+                    pending.put(bytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            blobLength += bytes.length;
+            return pageStarts.size() - 1;
+        }
+
+        // Writes out pending. Whatever a failed write leaves behind stays in pending, so
+        // readBlob still finds every entry added.
+        private void flush() throws IOException {
+            pending.flip();
+            try {
+                while (pending.hasRemaining()) {
+                    flushed += blob.write(pending, flushed);
+                }
+            } finally {
+                pending.compact();
+            }
+        }
+
+        private void readBlob(long position, byte[] bytes) {
+            int done = 0;
+            try {
+                while (done < bytes.length && position + done < flushed) {
+                    int length = (int) Math.min(bytes.length - done, flushed - position - done);
+                    int read = blob.read(ByteBuffer.wrap(bytes, done, length), position + done);
+                    if (read < 0) throw new EOFException("Text blob is shorter than written: " + blobFile);
+                    done += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (done < bytes.length) {
+                pending.get((int) (position + done - flushed), bytes, done, bytes.length - done);
+            }
+        }
+
+        // A pool of the entries added so far; the builder can go on adding after it.
+        TextPool pool() {
+            ByteBuffer[] pageArray;
+            if (blob != null) {
+                pageArray = mapBlob();
+            } else {
+                pageArray = new ByteBuffer[pages.size()];
+                for (int i = 0; i < pageArray.length; i++) {
+                    pageArray[i] = ByteBuffer.wrap(pages.get(i));
+                }
+            }
+            return pool(pageArray);
+        }
+
+        // The last pool: heap pages are trimmed, and an off-heap builder is released.
+        TextPool build() {
+            if (blob != null) {
+                try {
+                    return pool();
+                } finally {
+                    release();
+                }
+            }
+            ByteBuffer[] pageArray = new ByteBuffer[pages.size()];
+            for (int i = 0; i < pageArray.length; i++) {
+                pageArray[i] = ByteBuffer.wrap(pages.get(i));
+            }
+            if (pageArray.length > 0) {
+                // Trim the last page to what it holds.
+                pageArray[pageArray.length - 1] = ByteBuffer.wrap(Arrays.copyOf(page, used));
+            }
+            return pool(pageArray);
+        }
+
+        private TextPool pool(ByteBuffer[] pageArray) {
+            return new TextPool(pageArray, Arrays.copyOf(starts, count), Arrays.copyOf(lengths, count),
+                    Arrays.copyOf(ascii, (count + 63) >>> 6));
+        }
+
+        // Maps the pages that filled up since the last call once, and the one still being
+        // written as far as it goes now.
+        private ByteBuffer[] mapBlob() {
+            try {
+                flush();
+                int pageCount = pageStarts.size();
+                while (mappedPages.size() < pageCount - 1) {
+                    int i = mappedPages.size();
+                    mappedPages.add(blob.map(FileChannel.MapMode.READ_ONLY, pageStarts.get(i), pageStarts.get(i + 1) - pageStarts.get(i)));
+                }
+                ByteBuffer[] pageArray = new ByteBuffer[pageCount];
+                for (int i = 0; i < pageCount - 1; i++) {
+                    pageArray[i] = mappedPages.get(i);
+                }
+                if (pageCount > 0) {
+                    long lastStart = pageStarts.get(pageCount - 1);
+                    pageArray[pageCount - 1] = blob.map(FileChannel.MapMode.READ_ONLY, lastStart, blobLength - lastStart);
+                }
+                return pageArray;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Closes and deletes the blob of an off-heap builder, which can't be used after.
+        // Pools taken from it keep working: a mapping outlives its file on most systems.
+        // Windows refuses to delete a mapped file; there it goes when the JVM exits.
+        void release() {
+            if (blob == null) return;
+            try {
+                blob.close();
+            } catch (IOException ignored) {
+                // The file is deleted next anyway.
+            }
+            try {
+                Files.deleteIfExists(blobFile);
+            } catch (IOException e) {
+                blobFile.toFile().deleteOnExit();
+            }
+        }
+    }
+}
@@ -34,6 +34,11 @@ public class Task {
         this.isCompleted = isCompleted;
     }
 
+    // Goes through the getters, so copying a read-only task from the task list works too.
+    public Task(Task other) {
+        this(other.getId(), other.getTitle(), other.getDescription(), other.getPriority(), other.getDueDate(), other.isCompleted());
+    }
+
     public UUID getId() { return id; }
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
@@ -48,6 +53,6 @@ public class Task {
 
     @Override
     public String toString() {
-        return title + " (" + priority + ") - " + dueDate + (isCompleted ? " [Completed]" : "");
+        return getTitle() + " (" + getPriority() + ") - " + getDueDate() + (isCompleted() ? " [Completed]" : "");
     }
 }
@@ -0,0 +1,33 @@
+package com.taskmanager.model;
+
+// A single mutation applied to the task list.
+public class TaskChange {
+    public enum Type {
+        ADDED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Task task;
+    private final Task previous;
+
+    public TaskChange(Type type, Task task) {
+        this(type, task, null);
+    }
+
+    public TaskChange(Type type, Task task, Task previous) {
+        this.type = type;
+        this.task = task;
+        this.previous = previous;
+    }
+
+    public Type getType() { return type; }
+    public Task getTask() { return task; }
+    // The task as it was before the change, when TaskManager knew it: null for a new task,
+    // the removed task for DELETED. Not saved, so null for changes read back from a journal.
+    public Task getPrevious() { return previous; }
+
+    @Override
+    public String toString() {
+        return type + " " + task.getId();
+    }
+}
@@ -0,0 +1,79 @@
+package com.taskmanager.perf;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.util.TaskBatchConsumer;
+import com.taskmanager.util.TaskPersistence;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Times the writes and flushes that reach the wrapped persistence. Goes directly around
+ * the storage, inside AsyncPersistenceWriter, so the numbers are the time spent on disk
+ * rather than the time to queue a change. Loads are timed by TaskManager, which also
+ * counts building the indexes.
+ */
+public class InstrumentedPersistence implements TaskPersistence {
+    private final TaskPersistence delegate;
+
+    public InstrumentedPersistence(TaskPersistence delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Task> load() throws IOException {
+        return delegate.load();
+    }
+
+    @Override
+    public void load(TaskBatchConsumer consumer) throws IOException {
+        delegate.load(consumer);
+    }
+
+    @Override
+    public void saveAll(List<Task> tasks) throws IOException {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.SAVE);
+        try {
+            delegate.saveAll(tasks);
+        } finally {
+            stopwatch.stop("full save", tasks.size());
+        }
+    }
+
+    @Override
+    public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) throws IOException {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.SAVE);
+        try {
+            delegate.write(changes, snapshot);
+        } finally {
+            stopwatch.stop("changes", changes.size());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        PerfMonitor.Stopwatch stopwatch = PerfMonitor.start(Operation.FLUSH);
+        try {
+            delegate.flush();
+        } finally {
+            stopwatch.stop();
+        }
+    }
+
+    @Override
+    public List<TaskChange> readExternalChanges() throws IOException {
+        return delegate.readExternalChanges();
+    }
+
+    @Override
+    public boolean hasExternalChanges() throws IOException {
+        return delegate.hasExternalChanges();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
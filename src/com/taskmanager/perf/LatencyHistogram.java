@@ -0,0 +1,89 @@
+package com.taskmanager.perf;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts latencies in nanoseconds without locking. Buckets are log-linear: values below 8
+ * get a bucket each, and every power of two above that is split into 8 equal buckets, so
+ * a percentile is never off by more than one eighth. The whole range of a long fits in
+ * under 500 buckets, and recording is a few uncontended atomic adds.
+ *
+ * Reads while other threads record see a slightly torn but usable picture, which is fine
+ * for diagnostics.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucket(nanos));
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    OperationStats stats(Operation operation) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long max = maxNanos.get();
+        double mean = count == 0 ? 0 : (double) totalNanos.sum() / count;
+        return new OperationStats(operation.getLabel(), count, millis(mean),
+                millis(percentile(snapshot, count, 0.50, max)),
+                millis(percentile(snapshot, count, 0.90, max)),
+                millis(percentile(snapshot, count, 0.99, max)),
+                millis(max));
+    }
+
+    // The upper end of the bucket holding the given rank, capped at the largest value seen.
+    private static long percentile(long[] counts, long count, double fraction, long max) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int highestBit = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Largest value that falls into the bucket.
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long next = (SUB_BUCKETS + sub + 1) << shift;
+        return next < 0 ? Long.MAX_VALUE : next - 1;
+    }
+
+    private static double millis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.perf;
+
+// The kinds of work PerfMonitor keeps a latency histogram for.
+public enum Operation {
+    LOAD("load"),
+    SAVE("save"),
+    FLUSH("flush"),
+    SEARCH("search"),
+    SORT("sort"),
+    QUERY("query"),
+    ADD("add"),
+    UPDATE("update"),
+    DELETE("delete"),
+    // Taking in changes another running copy of the app saved.
+    SYNC("sync"),
+    // Time a MainFrame handler held the event dispatch thread.
+    EDT("edt");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event for every timed operation; costs nothing unless a recording is running, e.g.
+// java -XX:StartFlightRecording=filename=tasks.jfr -jar TaskManager.jar
+@Name("com.taskmanager.Operation")
+@Label("Task Manager Operation")
+@Category("Task Manager")
+@Description("A load, save, search, sort, mutation or EDT handler, with its duration")
+@StackTrace(false)
+final class OperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Detail")
+    @Description("Search text, sort key or handler name")
+    String detail;
+
+    @Label("Tasks")
+    @Description("Tasks read, written or returned; -1 when not applicable")
+    int tasks;
+}
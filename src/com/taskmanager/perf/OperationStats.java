@@ -0,0 +1,35 @@
+package com.taskmanager.perf;
+
+import java.beans.ConstructorProperties;
+
+// Summary of one operation's histogram. Times are in milliseconds; JMX clients show the
+// getters as the fields of a composite value.
+public final class OperationStats {
+    private final String operation;
+    private final long count;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    @ConstructorProperties({"operation", "count", "meanMillis", "p50Millis", "p90Millis", "p99Millis", "maxMillis"})
+    public OperationStats(String operation, long count, double meanMillis, double p50Millis,
+                          double p90Millis, double p99Millis, double maxMillis) {
+        this.operation = operation;
+        this.count = count;
+        this.meanMillis = meanMillis;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public String getOperation() { return operation; }
+    public long getCount() { return count; }
+    public double getMeanMillis() { return meanMillis; }
+    public double getP50Millis() { return p50Millis; }
+    public double getP90Millis() { return p90Millis; }
+    public double getP99Millis() { return p99Millis; }
+    public double getMaxMillis() { return maxMillis; }
+}
@@ -0,0 +1,164 @@
+package com.taskmanager.perf;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Always-on latency histograms for the operations in Operation. Code under measurement
+ * calls start() and stops the returned Stopwatch when it is done; that records the time in
+ * the operation's histogram and emits an OperationEvent to JFR.
+ *
+ * The results can be read through the com.taskmanager:type=Performance MBean (after
+ * registerMBean()), as text with report(), or saved with dumpToFile() for bug reports.
+ */
+public final class PerfMonitor {
+    public static final String MBEAN_NAME = "com.taskmanager:type=Performance";
+
+    private static final LatencyHistogram[] histograms = new LatencyHistogram[Operation.values().length];
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    static {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    private PerfMonitor() {
+    }
+
+    public static Stopwatch start(Operation operation) {
+        return new Stopwatch(operation);
+    }
+
+    public static OperationStats stats(Operation operation) {
+        return histograms[operation.ordinal()].stats(operation);
+    }
+
+    public static List<OperationStats> stats() {
+        List<OperationStats> stats = new ArrayList<>(histograms.length);
+        for (Operation operation : Operation.values()) {
+            stats.add(stats(operation));
+        }
+        return stats;
+    }
+
+    public static void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    // Makes the histograms visible over JMX. Safe to call more than once.
+    public static synchronized void registerMBean() {
+        try {
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new Performance(), name);
+            }
+        } catch (JMException e) {
+            System.err.println("Error registering performance MBean: " + e.getMessage());
+        }
+    }
+
+    // The histograms as a table, with enough about the JVM to make sense of them.
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append("Task Manager performance report, ").append(LocalDateTime.now().withNano(0)).append('\n');
+        out.append("Java ").append(System.getProperty("java.version"))
+                .append(" (").append(System.getProperty("java.vm.name")).append("), ")
+                .append(Runtime.getRuntime().availableProcessors()).append(" CPUs\n");
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        out.append(String.format("Uptime %d s, heap %d of %d MB, %d threads%n",
+                ManagementFactory.getRuntimeMXBean().getUptime() / 1000,
+                heap.getUsed() >> 20, heap.getMax() >> 20,
+                ManagementFactory.getThreadMXBean().getThreadCount()));
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.append(String.format("GC %s: %d collections, %d ms%n", gc.getName(), gc.getCollectionCount(), gc.getCollectionTime()));
+        }
+        out.append('\n');
+        out.append(String.format("%-8s %10s %10s %10s %10s %10s %10s%n",
+                "op", "count", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (OperationStats s : stats()) {
+            out.append(String.format("%-8s %10d %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                    s.getOperation(), s.getCount(), s.getMeanMillis(), s.getP50Millis(),
+                    s.getP90Millis(), s.getP99Millis(), s.getMaxMillis()));
+        }
+        return out.toString();
+    }
+
+    // Writes report() to a new timestamped file in the directory and returns its path.
+    public static Path dumpToFile(Path directory) throws IOException {
+        Path file = directory.resolve("taskmanager-perf-" + LocalDateTime.now().format(FILE_TIME) + ".txt");
+        Files.writeString(file, report());
+        return file;
+    }
+
+    // One timed operation; stop it exactly once.
+    public static final class Stopwatch {
+        private final Operation operation;
+        private final OperationEvent event = new OperationEvent();
+        private final long startNanos;
+
+        private Stopwatch(Operation operation) {
+            this.operation = operation;
+            event.begin();
+            this.startNanos = System.nanoTime();
+        }
+
+        public void stop() {
+            stop(null, -1);
+        }
+
+        public void stop(int tasks) {
+            stop(null, tasks);
+        }
+
+        public void stop(String detail) {
+            stop(detail, -1);
+        }
+
+        public void stop(String detail, int tasks) {
+            histograms[operation.ordinal()].record(System.nanoTime() - startNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation.getLabel();
+                event.detail = detail;
+                event.tasks = tasks;
+                event.commit();
+            }
+        }
+    }
+
+    private static final class Performance implements PerformanceMXBean {
+        @Override
+        public List<OperationStats> getOperations() {
+            return stats();
+        }
+
+        @Override
+        public String getReport() {
+            return report();
+        }
+
+        @Override
+        public String dumpToFile(String directory) throws IOException {
+            return PerfMonitor.dumpToFile(Paths.get(directory)).toAbsolutePath().toString();
+        }
+
+        @Override
+        public void reset() {
+            PerfMonitor.reset();
+        }
+    }
+}
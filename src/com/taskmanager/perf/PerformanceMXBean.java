@@ -0,0 +1,18 @@
+package com.taskmanager.perf;
+
+import java.io.IOException;
+import java.util.List;
+
+// Registered as com.taskmanager:type=Performance; browse it with jconsole or VisualVM.
+public interface PerformanceMXBean {
+
+    List<OperationStats> getOperations();
+
+    // The same text the dump file holds.
+    String getReport();
+
+    // Writes the report to a new file in the directory and returns its path.
+    String dumpToFile(String directory) throws IOException;
+
+    void reset();
+}
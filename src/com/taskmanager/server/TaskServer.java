@@ -0,0 +1,475 @@
+package com.taskmanager.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.taskmanager.logic.QueryResult;
+import com.taskmanager.logic.TaskManager;
+import com.taskmanager.logic.TaskQuery;
+import com.taskmanager.logic.TaskSnapshot;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * HTTP/JSON front end for a TaskManager, on the JDK's built-in server. Every request runs
+ * on its own virtual thread, and reads are answered from one TaskSnapshot without locking,
+ * so thousands of clients can poll at once.
+ *
+ *   GET    /tasks            list; q, priority, completed, dueFrom, dueTo, sort
+ *                            (list, date, priority), offset and limit narrow it down
+ *   POST   /tasks            create from a JSON task, answers 201 with the stored task
+ *   GET    /tasks/{id}       one task
+ *   PUT    /tasks/{id}       change a task; fields left out keep their value
+ *   DELETE /tasks/{id}       answers 204
+ *   GET    /stats            totals, per priority counts and overdue tasks
+ *
+ * GET responses carry an ETag made from the snapshot version, so a client that polls with
+ * If-None-Match gets a bodiless 304 until something changes, without the query being run.
+ * PUT and DELETE honour If-Match with such a tag and answer 412 if the list has changed
+ * since; a PUT answers with the tag of the list it produced.
+ */
+public class TaskServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 4096;
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final TaskManager taskManager;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Tells this run's versions apart from those of an earlier run that restarted at 0.
+    private final String instanceTag = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    public TaskServer(TaskManager taskManager, InetSocketAddress address) throws IOException {
+        this.taskManager = taskManager;
+        this.server = HttpServer.create(address, BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/tasks", this::handleTasks);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Stops accepting requests and waits up to delaySeconds for running ones to finish.
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handleTasks(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String path = exchange.getRequestURI().getPath();
+            String rest = path.substring("/tasks".length());
+            String method = exchange.getRequestMethod();
+            if (rest.isEmpty() || rest.equals("/")) {
+                switch (method) {
+                    case "GET":
+                    case "HEAD":
+                        listTasks(exchange);
+                        return;
+                    case "POST":
+                        createTask(exchange);
+                        return;
+                    default:
+                        methodNotAllowed(exchange, "GET, HEAD, POST");
+                        return;
+                }
+            }
+            if (!rest.startsWith("/") || rest.indexOf('/', 1) >= 0) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+            UUID id;
+            try {
+                id = UUID.fromString(rest.substring(1));
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+            switch (method) {
+                case "GET":
+                case "HEAD":
+                    getTask(exchange, id);
+                    return;
+                case "PUT":
+                    updateTask(exchange, id);
+                    return;
+                case "DELETE":
+                    deleteTask(exchange, id);
+                    return;
+                default:
+                    methodNotAllowed(exchange, "GET, HEAD, PUT, DELETE");
+            }
+        });
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String path = exchange.getRequestURI().getPath();
+            if (!path.equals("/stats") && !path.equals("/stats/")) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                methodNotAllowed(exchange, "GET, HEAD");
+                return;
+            }
+            TaskSnapshot snapshot = taskManager.snapshot();
+            LocalDate today = LocalDate.now();
+            // Overdue depends on the date as well as the tasks.
+            String etag = etag(snapshot, today.toString());
+            if (notModified(exchange, etag)) return;
+
+            StringBuilder body = new StringBuilder();
+            int total = snapshot.getTotalTasks();
+            int completed = snapshot.getCompletedTasks();
+            body.append("{\"total\":").append(total)
+                    .append(",\"completed\":").append(completed)
+                    .append(",\"pending\":").append(total - completed)
+                    .append(",\"overdue\":").append(snapshot.findOverdue(today).size())
+                    .append(",\"byPriority\":{");
+            for (Priority priority : Priority.values()) {
+                if (priority.ordinal() > 0) body.append(',');
+                Json.appendString(body, priority.name());
+                body.append(':').append(snapshot.getTaskCount(priority));
+            }
+            body.append("}}");
+            send(exchange, 200, etag, body);
+        });
+    }
+
+    private void listTasks(HttpExchange exchange) throws IOException {
+        TaskSnapshot snapshot = taskManager.snapshot();
+        String etag = etag(snapshot, null);
+        if (notModified(exchange, etag)) return;
+
+        QueryResult result = snapshot.query(queryFrom(queryParameters(exchange)));
+        StringBuilder body = new StringBuilder();
+        body.append("{\"total\":").append(result.getTotalMatches()).append(",\"tasks\":[");
+        boolean first = true;
+        for (Task task : result.getTasks()) {
+            if (!first) body.append(',');
+            first = false;
+            Json.appendTask(body, task);
+        }
+        body.append("]}");
+        send(exchange, 200, etag, body);
+    }
+
+    private void getTask(HttpExchange exchange, UUID id) throws IOException {
+        TaskSnapshot snapshot = taskManager.snapshot();
+        Task task = snapshot.getTask(id);
+        if (task == null) {
+            sendError(exchange, 404, "No task with id " + id);
+            return;
+        }
+        String etag = etag(snapshot, null);
+        if (notModified(exchange, etag)) return;
+        sendTask(exchange, 200, etag, task);
+    }
+
+    private void createTask(HttpExchange exchange) throws IOException {
+        Map<String, Object> fields = readObject(exchange);
+        Task task = new Task(UUID.randomUUID(), null, "", Priority.MEDIUM, null, false);
+        applyFields(task, fields);
+        validate(task);
+        taskManager.addTask(task);
+        exchange.getResponseHeaders().set("Location", "/tasks/" + task.getId());
+        sendTask(exchange, 201, null, taskManager.getTask(task.getId()));
+    }
+
+    // The task is read and the merged one stored under the manager's lock, so two PUTs that
+    // change different fields of the same task can't undo each other.
+    private void updateTask(HttpExchange exchange, UUID id) throws IOException {
+        Map<String, Object> fields = readObject(exchange);
+        Task stored = null;
+        String etag = null;
+        int status;
+        synchronized (taskManager) {
+            TaskSnapshot snapshot = taskManager.snapshot();
+            Task current = snapshot.getTask(id);
+            if (current == null) {
+                status = 404;
+            } else if (!preconditionHolds(exchange, snapshot)) {
+                status = 412;
+            } else {
+                Task task = new Task(current);
+                applyFields(task, fields);
+                validate(task);
+                taskManager.updateTask(task);
+                snapshot = taskManager.snapshot();
+                stored = snapshot.getTask(id);
+                etag = etag(snapshot, null);
+                status = 200;
+            }
+        }
+        if (status == 200) {
+            sendTask(exchange, 200, etag, stored);
+        } else {
+            sendFailure(exchange, status, id);
+        }
+    }
+
+    private void deleteTask(HttpExchange exchange, UUID id) throws IOException {
+        int status;
+        synchronized (taskManager) {
+            TaskSnapshot snapshot = taskManager.snapshot();
+            Task task = snapshot.getTask(id);
+            if (task == null) {
+                status = 404;
+            } else if (!preconditionHolds(exchange, snapshot)) {
+                status = 412;
+            } else {
+                taskManager.deleteTask(task);
+                status = 204;
+            }
+        }
+        if (status == 204) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            sendFailure(exchange, status, id);
+        }
+    }
+
+    // False when the request has an If-Match that doesn't name this version of the list.
+    private boolean preconditionHolds(HttpExchange exchange, TaskSnapshot snapshot) {
+        String header = exchange.getRequestHeaders().getFirst("If-Match");
+        if (header == null) return true;
+        String etag = etag(snapshot, null);
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(etag) || tag.equals("*")) return true;
+        }
+        return false;
+    }
+
+    private static void sendFailure(HttpExchange exchange, int status, UUID id) throws IOException {
+        if (status == 412) {
+            sendError(exchange, 412, "The tasks have changed since that version");
+        } else {
+            sendError(exchange, 404, "No task with id " + id);
+        }
+    }
+
+    // --- Requests ---
+
+    private static TaskQuery queryFrom(Map<String, String> parameters) {
+        TaskQuery query = new TaskQuery().text(parameters.get("q"));
+        String priority = parameters.get("priority");
+        if (priority != null) query.priority(parsePriority(priority));
+        String completed = parameters.get("completed");
+        if (completed != null) query.completed(parseBoolean("completed", completed));
+        query.dueBetween(parseDate(parameters.get("dueFrom")), parseDate(parameters.get("dueTo")));
+        String sort = parameters.get("sort");
+        if (sort != null) {
+            switch (sort.toLowerCase(Locale.ROOT)) {
+                case "list": query.sortBy(TaskQuery.SortKey.LIST_ORDER); break;
+                case "date": query.sortBy(TaskQuery.SortKey.DUE_DATE); break;
+                case "priority": query.sortBy(TaskQuery.SortKey.PRIORITY); break;
+                case "relevance": query.sortBy(TaskQuery.SortKey.RELEVANCE); break;
+                default: throw new IllegalArgumentException("sort must be list, date, priority or relevance");
+            }
+        }
+        String offset = parameters.get("offset");
+        if (offset != null) query.offset(parseInt("offset", offset));
+        String limit = parameters.get("limit");
+        if (limit != null) query.limit(parseInt("limit", limit));
+        return query;
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) return parameters;
+        for (String pair : raw.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readObject(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Object value = Json.parse(body);
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+    private static void applyFields(Task task, Map<String, Object> fields) {
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Object value = field.getValue();
+            switch (field.getKey()) {
+                case "id":
+                    break; // the id comes from the URL, or is made up for a new task
+                case "title":
+                    task.setTitle(string(field.getKey(), value).trim());
+                    break;
+                case "description":
+                    task.setDescription(value == null ? "" : string(field.getKey(), value).trim());
+                    break;
+                case "priority":
+                    task.setPriority(parsePriority(string(field.getKey(), value)));
+                    break;
+                case "dueDate":
+                    task.setDueDate(parseDate(string(field.getKey(), value)));
+                    break;
+                case "completed":
+                    if (!(value instanceof Boolean)) throw new IllegalArgumentException("completed must be true or false");
+                    task.setCompleted((Boolean) value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown field " + field.getKey());
+            }
+        }
+    }
+
+    // Same rules as AddEditTaskDialog.
+    private static void validate(Task task) {
+        if (task.getTitle() == null || task.getTitle().isEmpty()) {
+            throw new IllegalArgumentException("Title cannot be empty.");
+        }
+        if (task.getDueDate() == null) {
+            throw new IllegalArgumentException("dueDate is required (YYYY-MM-DD).");
+        }
+    }
+
+    private static String string(String name, Object value) {
+        if (!(value instanceof String)) throw new IllegalArgumentException(name + " must be a string");
+        return (String) value;
+    }
+
+    private static Priority parsePriority(String value) {
+        try {
+            return Priority.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("priority must be LOW, MEDIUM or HIGH");
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid Date format. Use YYYY-MM-DD.");
+        }
+    }
+
+    private static boolean parseBoolean(String name, String value) {
+        if (value.equalsIgnoreCase("true")) return true;
+        if (value.equalsIgnoreCase("false")) return false;
+        throw new IllegalArgumentException(name + " must be true or false");
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    // --- Responses ---
+
+    private String etag(TaskSnapshot snapshot, String extra) {
+        String tag = instanceTag + "-" + snapshot.getVersion();
+        return "\"" + (extra == null ? tag : tag + "-" + extra) + "\"";
+    }
+
+    // Answers 304 if the client already has this version.
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        String header = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (header == null) return false;
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag) || tag.equals("*")) {
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sendTask(HttpExchange exchange, int status, String etag, Task task) throws IOException {
+        StringBuilder body = new StringBuilder();
+        Json.appendTask(body, task);
+        send(exchange, status, etag, body);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder body = new StringBuilder("{\"error\":");
+        Json.appendString(body, message);
+        body.append('}');
+        send(exchange, status, null, body);
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        sendError(exchange, 405, "Method not allowed");
+    }
+
+    private static void send(HttpExchange exchange, int status, String etag, CharSequence body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        }
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private interface Handler {
+        void run() throws IOException;
+    }
+
+    // Turns bad input into 400 and anything unexpected into 500, then closes the exchange.
+    private static void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try {
+            handler.run();
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException | IOException e) {
+            System.err.println("Error handling request: " + e.getMessage());
+            if (exchange.getResponseCode() == -1) sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+}
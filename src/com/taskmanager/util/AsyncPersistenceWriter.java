@@ -0,0 +1,251 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Moves persistence onto a background thread so callers (the Swing EDT in particular)
+ * never wait for the disk. Changes are queued and handed to the wrapped persistence in
+ * batches: the first queued change starts a window of at most maxDelay, and everything
+ * that arrives inside it goes out in one write. flush() and awaitDurable() let shutdown
+ * wait for the queue to drain.
+ *
+ * A failed write is logged and dropped, the same as the synchronous path did.
+ */
+public class AsyncPersistenceWriter implements TaskPersistence {
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 200;
+
+    private final TaskPersistence delegate;
+    private final long maxDelayNanos;
+    private final Thread thread;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition written = lock.newCondition();
+
+    // Guarded by lock
+    private List<TaskChange> pendingChanges = new ArrayList<>();
+    private List<Task> pendingFullSave;
+    private Supplier<List<Task>> snapshot;
+    private boolean windowOpen;
+    private long firstPendingAt;
+    private long submittedSeq;
+    private long durableSeq;
+    private boolean flushRequested;
+    private boolean closed;
+
+    public AsyncPersistenceWriter(TaskPersistence delegate) {
+        this(delegate, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    public AsyncPersistenceWriter(TaskPersistence delegate, long maxDelayMillis) {
+        this.delegate = delegate;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.thread = new Thread(this::run, "task-persistence-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Loading stays on the caller's thread; TaskManager decides whether that is a background one.
+    // Whatever is still queued is written first, or the load would read the list without it.
+    @Override
+    public List<Task> load() throws IOException {
+        flush();
+        return delegate.load();
+    }
+
+    @Override
+    public void load(TaskBatchConsumer consumer) throws IOException {
+        flush();
+        delegate.load(consumer);
+    }
+
+    @Override
+    public void saveAll(List<Task> tasks) {
+        lock.lock();
+        try {
+            ensureOpen();
+            // A full save supersedes every change queued before it.
+            pendingChanges = new ArrayList<>();
+            pendingFullSave = new ArrayList<>(tasks);
+            submitted();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) {
+        if (changes.isEmpty()) return;
+        lock.lock();
+        try {
+            ensureOpen();
+            pendingChanges.addAll(changes);
+            this.snapshot = snapshot;
+            submitted();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writes everything queued so far without waiting out the delay, and blocks until done.
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            long target = submittedSeq;
+            if (durableSeq >= target) return;
+            flushRequested = true;
+            workAvailable.signal();
+            while (durableSeq < target) {
+                written.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Whatever is still queued goes out first, so the files are read back in a settled state.
+    @Override
+    public List<TaskChange> readExternalChanges() throws IOException {
+        flush();
+        return delegate.readExternalChanges();
+    }
+
+    // What is still queued is this program's own, so it doesn't count.
+    @Override
+    public boolean hasExternalChanges() throws IOException {
+        return delegate.hasExternalChanges();
+    }
+
+    // Waits up to the timeout for everything submitted before this call to be written.
+    public boolean awaitDurable(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            long target = submittedSeq;
+            while (durableSeq < target) {
+                if (remaining <= 0) return false;
+                remaining = written.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasPendingWrites() {
+        lock.lock();
+        try {
+            return durableSeq < submittedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    // Must hold lock.
+    private void submitted() {
+        if (!windowOpen) {
+            windowOpen = true;
+            firstPendingAt = System.nanoTime();
+        }
+        submittedSeq++;
+        workAvailable.signal();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Persistence writer is closed");
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<TaskChange> changes;
+            List<Task> fullSave;
+            Supplier<List<Task>> currentSnapshot;
+            long target;
+
+            lock.lock();
+            try {
+                while (!windowOpen && !closed) {
+                    workAvailable.awaitUninterruptibly();
+                }
+                if (!windowOpen) {
+                    return; // closed and drained
+                }
+                // Group commit: let the burst build up until the deadline unless someone is waiting.
+                long deadline = firstPendingAt + maxDelayNanos;
+                long wait;
+                while (!flushRequested && !closed && (wait = deadline - System.nanoTime()) > 0) {
+                    try {
+                        workAvailable.awaitNanos(wait);
+                    } catch (InterruptedException e) {
+                        // Nobody interrupts this thread; write out what we have.
+                        break;
+                    }
+                }
+                changes = pendingChanges;
+                fullSave = pendingFullSave;
+                currentSnapshot = snapshot;
+                target = submittedSeq;
+                pendingChanges = new ArrayList<>();
+                pendingFullSave = null;
+                windowOpen = false;
+                flushRequested = false;
+            } finally {
+                lock.unlock();
+            }
+
+            writeBatch(fullSave, changes, currentSnapshot);
+
+            lock.lock();
+            try {
+                durableSeq = target;
+                written.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeBatch(List<Task> fullSave, List<TaskChange> changes, Supplier<List<Task>> currentSnapshot) {
+        try {
+            if (fullSave != null) {
+                delegate.saveAll(fullSave);
+            }
+            if (!changes.isEmpty()) {
+                delegate.write(changes, currentSnapshot);
+            }
+            delegate.flush();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+}
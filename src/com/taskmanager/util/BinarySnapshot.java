@@ -0,0 +1,230 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Binary alternative to the CSV data file, meant for large lists where parsing text
+ * dominates startup.
+ *
+ * Layout (big endian):
+ *   header   magic "TMBS", version (short), flags (short), task count (int),
+ *            payload length (long), payload CRC32 (int), CRC32 of the preceding header bytes (int)
+ *   payload  per task: id as two longs, due date as epoch day (int), one byte holding the
+ *            priority ordinal in bits 0-1 and completion in bit 2, then title and description
+ *            as varint length + UTF-8 bytes.
+ */
+public final class BinarySnapshot {
+    public static final int MAGIC = 0x544D4253; // "TMBS"
+    public static final short VERSION = 1;
+    private static final int HEADER_SIZE = 28;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int DATE_CACHE_SIZE = 4096;
+    private static final int BATCH_SIZE = 1 << 16;
+
+    private static final int PRIORITY_MASK = 0x03;
+    private static final int COMPLETED_BIT = 0x04;
+
+    private BinarySnapshot() {
+    }
+
+    public static void write(List<Task> tasks, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            CRC32 payloadCrc = new CRC32();
+            long payloadLength = 0;
+
+            channel.position(HEADER_SIZE);
+            for (Task task : tasks) {
+                byte[] title = utf8(task.getTitle());
+                byte[] description = utf8(task.getDescription());
+                int recordSize = 21 + 10 + title.length + description.length;
+                if (buffer.remaining() < recordSize) {
+                    payloadLength += drain(buffer, channel, payloadCrc);
+                    if (buffer.capacity() < recordSize) {
+                        buffer = ByteBuffer.allocateDirect(recordSize);
+                    }
+                }
+                UUID id = task.getId();
+                buffer.putLong(id.getMostSignificantBits());
+                buffer.putLong(id.getLeastSignificantBits());
+                buffer.putInt(Math.toIntExact(task.getDueDate().toEpochDay()));
+                int flags = task.getPriority().ordinal() & PRIORITY_MASK;
+                if (task.isCompleted()) flags |= COMPLETED_BIT;
+                buffer.put((byte) flags);
+                putBytes(buffer, title);
+                putBytes(buffer, description);
+            }
+            payloadLength += drain(buffer, channel, payloadCrc);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putShort(VERSION);
+            header.putShort((short) 0);
+            header.putInt(tasks.size());
+            header.putLong(payloadLength);
+            header.putInt((int) payloadCrc.getValue());
+            CRC32 headerCrc = new CRC32();
+            headerCrc.update(header.array(), 0, HEADER_SIZE - 4);
+            header.putInt((int) headerCrc.getValue());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_SIZE - header.remaining());
+            }
+            channel.force(true);
+        }
+        FileHandler.moveReplacing(temp, path);
+    }
+
+    public static List<Task> read(Path path) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        read(path, (batch, progress) -> tasks.addAll(batch));
+        return tasks;
+    }
+
+    // Checks the whole file first, then hands the tasks over BATCH_SIZE at a time.
+    public static void read(Path path, TaskBatchConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a task snapshot: " + path);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a task snapshot: " + path);
+            }
+            CRC32 headerCrc = new CRC32();
+            headerCrc.update(buffer.slice(0, HEADER_SIZE - 4));
+            if ((int) headerCrc.getValue() != buffer.getInt(HEADER_SIZE - 4)) {
+                throw new IOException("Snapshot header is corrupted: " + path);
+            }
+            short version = buffer.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + path);
+            }
+            int count = buffer.getInt(8);
+            long payloadLength = buffer.getLong(12);
+            if (payloadLength != size - HEADER_SIZE) {
+                throw new IOException("Snapshot is truncated: " + path);
+            }
+            CRC32 payloadCrc = new CRC32();
+            payloadCrc.update(buffer.slice(HEADER_SIZE, (int) payloadLength));
+            if ((int) payloadCrc.getValue() != buffer.getInt(20)) {
+                throw new IOException("Snapshot payload is corrupted: " + path);
+            }
+
+            Priority[] priorities = Priority.values();
+            List<Task> tasks = new ArrayList<>(Math.min(count, BATCH_SIZE));
+            byte[] scratch = new byte[256];
+            // Due dates cluster heavily, so most rows can share a LocalDate instead of allocating one.
+            LocalDate[] dateCache = new LocalDate[DATE_CACHE_SIZE];
+            buffer.position(HEADER_SIZE);
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(buffer.getLong(), buffer.getLong());
+                int epochDay = buffer.getInt();
+                LocalDate dueDate = dateCache[epochDay & (DATE_CACHE_SIZE - 1)];
+                if (dueDate == null || dueDate.toEpochDay() != epochDay) {
+                    dueDate = LocalDate.ofEpochDay(epochDay);
+                    dateCache[epochDay & (DATE_CACHE_SIZE - 1)] = dueDate;
+                }
+                int flags = buffer.get();
+                if ((flags & PRIORITY_MASK) >= priorities.length) {
+                    throw new IOException("Unknown priority in snapshot: " + path);
+                }
+
+                int titleLength = getVarInt(buffer);
+                if (scratch.length < titleLength) scratch = new byte[titleLength];
+                buffer.get(scratch, 0, titleLength);
+                String title = new String(scratch, 0, titleLength, StandardCharsets.UTF_8);
+
+                int descriptionLength = getVarInt(buffer);
+                if (scratch.length < descriptionLength) scratch = new byte[descriptionLength];
+                buffer.get(scratch, 0, descriptionLength);
+                String description = new String(scratch, 0, descriptionLength, StandardCharsets.UTF_8);
+
+                tasks.add(new Task(id, title, description, priorities[flags & PRIORITY_MASK], dueDate,
+                        (flags & COMPLETED_BIT) != 0));
+                if (tasks.size() == BATCH_SIZE) {
+                    consumer.accept(tasks, (double) buffer.position() / size);
+                    tasks = new ArrayList<>(Math.min(count - i - 1, BATCH_SIZE));
+                }
+            }
+            consumer.accept(tasks, 1);
+        }
+    }
+
+    // True if the file starts with the snapshot magic number.
+    public static boolean isSnapshot(Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) < HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            channel.read(magic, 0);
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    public static void exportCsv(Path binaryPath, Path csvPath) throws IOException {
+        FileHandler.saveTasks(read(binaryPath), csvPath);
+    }
+
+    public static void importCsv(Path csvPath, Path binaryPath) throws IOException {
+        write(FileHandler.loadTasks(csvPath), binaryPath);
+    }
+
+    private static byte[] utf8(String text) {
+        return text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            buffer.put((byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        buffer.put((byte) length);
+        buffer.put(bytes);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed length in snapshot");
+    }
+
+    private static long drain(ByteBuffer buffer, FileChannel channel, CRC32 crc) throws IOException {
+        buffer.flip();
+        int written = buffer.remaining();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return written;
+    }
+}
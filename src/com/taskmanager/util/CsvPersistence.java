@@ -0,0 +1,38 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+// The original mode: every change rewrites the whole data file.
+public class CsvPersistence implements TaskPersistence {
+    private final Path path;
+
+    public CsvPersistence(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public List<Task> load() throws IOException {
+        return FileHandler.loadTasks(path);
+    }
+
+    @Override
+    public void load(TaskBatchConsumer consumer) throws IOException {
+        FileHandler.loadTasks(path, consumer);
+    }
+
+    @Override
+    public void saveAll(List<Task> tasks) throws IOException {
+        FileHandler.saveTasks(tasks, path);
+    }
+
+    @Override
+    public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) throws IOException {
+        saveAll(snapshot.get());
+    }
+}
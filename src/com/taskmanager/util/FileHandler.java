@@ -4,80 +4,300 @@ import com.taskmanager.model.Task;
 import com.taskmanager.model.Task.Priority;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * The data file format: one task per line, fields separated by '|'. In the title and
+ * description '|', line breaks and '%' itself are written as escapes, so any text comes
+ * back exactly as it went in. Escaping '%' is what keeps a title that really contains
+ * "%PIPE%" from turning into "|"; files written before it was escaped still read the same
+ * unless they contain the text "%PCT%" or "%CR%".
+ *
+ * Whole files go through TaskFileWriter and TaskFileReader (or ParallelTaskLoader for big
+ * ones), which work on bytes and allocate nothing per row beyond the tasks read.
+ * formatTask and parseTask are the same format one String at a time, for the journal and
+ * the PIPE import format.
+ *
+ * Files are written in UTF-8. Older versions wrote the platform's encoding (cp1252 on most
+ * Windows machines), so a text field that isn't valid UTF-8 is read in LEGACY_CHARSET
+ * instead; such a file is converted by the next full save.
+ */
 public class FileHandler {
-    private static final String FILE_NAME = "tasks_data.csv";
-    private static final String SEPARATOR = "\\|";
-    private static final String SEPARATOR_CHAR = "|";
+    public static final String FILE_NAME = "tasks_data.csv";
+    static final String PIPE_ESCAPE = "%PIPE%";
+    static final String NL_ESCAPE = "%NL%";
+    static final String CR_ESCAPE = "%CR%";
+    static final String PERCENT_ESCAPE = "%PCT%";
+    // What FileReader used before JDK 18 made UTF-8 the default. -Dtaskmanager.legacy.charset
+    // overrides it, for a file brought over from a machine with another encoding.
+    static final Charset LEGACY_CHARSET = legacyCharset();
+    // Files at least this big are loaded with ParallelTaskLoader.
+    private static final long PARALLEL_LOAD_THRESHOLD = 4L << 20;
+
+    private static Charset legacyCharset() {
+        try {
+            return Charset.forName(System.getProperty("taskmanager.legacy.charset",
+                    System.getProperty("native.encoding", "UTF-8")));
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.ISO_8859_1;
+        }
+    }
 
     public static void saveTasks(List<Task> tasks) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_NAME))) {
+        saveTasks(tasks, Paths.get(FILE_NAME));
+    }
+
+    public static List<Task> loadTasks() throws IOException {
+        return loadTasks(Paths.get(FILE_NAME));
+    }
+
+    // Writes to a temp file first, forces it to disk and renames it over the target, so a
+    // crash mid-write never leaves a half-written data file behind, and once this returns
+    // the new file is what a reboot finds.
+    public static void saveTasks(List<Task> tasks, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (TaskFileWriter writer = new TaskFileWriter(temp)) {
             for (Task task : tasks) {
-                // Sanitize content to avoid separator conflict
-                String title = sanitize(task.getTitle());
-                String description = sanitize(task.getDescription());
-                
-                String line = String.join(SEPARATOR_CHAR,
-                        task.getId().toString(),
-                        title,
-                        description,
-                        task.getPriority().name(),
-                        task.getDueDate().toString(),
-                        String.valueOf(task.isCompleted())
-                );
-                writer.write(line);
-                writer.newLine();
+                writer.write(task);
             }
         }
+        moveReplacing(temp, path);
     }
 
-    public static List<Task> loadTasks() throws IOException {
-        List<Task> tasks = new ArrayList<>();
-        File file = new File(FILE_NAME);
+    // Hands the tasks to the consumer in batches. Small files are read in one go; large ones
+    // come in the pieces ParallelTaskLoader parses them in.
+    public static void loadTasks(Path path, TaskBatchConsumer consumer) throws IOException {
+        File file = path.toFile();
+        if (file.exists() && file.length() >= PARALLEL_LOAD_THRESHOLD) {
+            ParallelTaskLoader.load(path, consumer);
+        } else {
+            consumer.accept(loadTasks(path), 1);
+        }
+    }
+
+    public static List<Task> loadTasks(Path path) throws IOException {
+        File file = path.toFile();
 
         if (!file.exists()) {
-            return tasks;
-        }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                
-                String[] parts = line.split(SEPARATOR);
-                if (parts.length >= 6) {
-                    try {
-                        UUID id = UUID.fromString(parts[0]);
-                        String title = desanitize(parts[1]);
-                        String description = desanitize(parts[2]);
-                        Priority priority = Priority.valueOf(parts[3]);
-                        LocalDate dueDate = LocalDate.parse(parts[4]);
-                        boolean isCompleted = Boolean.parseBoolean(parts[5]);
-
-                        tasks.add(new Task(id, title, description, priority, dueDate, isCompleted));
-                    } catch (IllegalArgumentException | DateTimeParseException e) {
-                        System.err.println("Skipping corrupted line: " + line);
-                        // Using System.err is acceptable for logging in this scope
-                    }
+            return new ArrayList<>();
+        }
+        if (file.length() >= PARALLEL_LOAD_THRESHOLD) {
+            return ParallelTaskLoader.load(path);
+        }
+        return TaskFileReader.read(path);
+    }
+
+    // Single line representation of a task, shared by the data file and the journal.
+    public static String formatTask(Task task) {
+        StringBuilder line = new StringBuilder(64 + length(task.getTitle()) + length(task.getDescription()));
+        appendTask(line, task);
+        return line.toString();
+    }
+
+    // formatTask without the intermediate String, for callers building a larger text.
+    static void appendTask(StringBuilder line, Task task) {
+        appendId(line, task.getId());
+        line.append('|');
+        appendEscaped(line, task.getTitle());
+        line.append('|');
+        appendEscaped(line, task.getDescription());
+        line.append('|').append(task.getPriority().name()).append('|');
+        appendDate(line, task.getDueDate());
+        line.append('|').append(task.isCompleted());
+    }
+
+    // Returns null when the line has too few fields; throws when a field can't be parsed.
+    public static Task parseTask(String line) {
+        // The first six fields, found as line.split("\\|") would: trailing empty fields
+        // don't count.
+        int[] starts = new int[6];
+        int[] ends = new int[6];
+        int fields = 0;
+        int lastNonEmpty = 0;
+        int fieldBegin = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i == line.length() || line.charAt(i) == '|') {
+                if (fields < 6) {
+                    starts[fields] = fieldBegin;
+                    ends[fields] = i;
+                }
+                fields++;
+                if (i > fieldBegin) lastNonEmpty = fields;
+                fieldBegin = i + 1;
+            }
+        }
+        if (lastNonEmpty < 6) {
+            return null;
+        }
+        UUID id = UUID.fromString(line.substring(starts[0], ends[0]));
+        String title = unescape(line, starts[1], ends[1]);
+        String description = unescape(line, starts[2], ends[2]);
+        Priority priority = parsePriority(line, starts[3], ends[3]);
+        LocalDate dueDate = parseDate(line, starts[4], ends[4]);
+        boolean isCompleted = ends[5] - starts[5] == 4 && line.regionMatches(true, starts[5], "true", 0, 4);
+
+        return new Task(id, title, description, priority, dueDate, isCompleted);
+    }
+
+    // The source should already be forced to disk. The directory is forced after the rename
+    // so the rename itself survives a crash.
+    static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Some file systems can't do an atomic replace; fall back to a plain one.
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(target.toAbsolutePath().getParent());
+    }
+
+    // Windows can't open a directory as a channel; there the rename is as durable as the
+    // file system makes it on its own.
+    private static void forceDirectory(Path directory) {
+        if (directory == null) return;
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported here
+        }
+    }
+
+    private static Priority parsePriority(String line, int start, int end) {
+        for (Priority priority : Priority.values()) {
+            String name = priority.name();
+            if (end - start == name.length() && line.startsWith(name, start)) return priority;
+        }
+        return Priority.valueOf(line.substring(start, end));
+    }
+
+    // Plain yyyy-MM-dd without going through a formatter; anything else gets
+    // LocalDate.parse and its error.
+    private static LocalDate parseDate(String line, int start, int end) {
+        if (end - start == 10 && line.charAt(start + 4) == '-' && line.charAt(start + 7) == '-') {
+            int year = digits(line, start, 4);
+            int month = digits(line, start + 5, 2);
+            int day = digits(line, start + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (DateTimeException e) {
+                    // fall through so the error matches LocalDate.parse
                 }
             }
         }
-        return tasks;
+        return LocalDate.parse(line.substring(start, end));
     }
 
-    private static String sanitize(String input) {
-        if (input == null) return "";
-        // Replace pipe and newlines to keep single line format
-        return input.replace("|", "%PIPE%").replace("\n", "%NL%");
+    private static int digits(String line, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
     }
 
-    private static String desanitize(String input) {
-        if (input == null) return "";
-        return input.replace("%PIPE%", "|").replace("%NL%", "\n");
+    // Same text as UUID.toString and LocalDate.toString, without making those Strings.
+    private static void appendId(StringBuilder line, UUID id) {
+        appendHex(line, id.getMostSignificantBits() >>> 32, 8);
+        line.append('-');
+        appendHex(line, id.getMostSignificantBits() >>> 16, 4);
+        line.append('-');
+        appendHex(line, id.getMostSignificantBits(), 4);
+        line.append('-');
+        appendHex(line, id.getLeastSignificantBits() >>> 48, 4);
+        line.append('-');
+        appendHex(line, id.getLeastSignificantBits(), 12);
+    }
+
+    private static void appendHex(StringBuilder line, long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            line.append(Character.forDigit((int) (value >>> shift) & 0xF, 16));
+        }
+    }
+
+    private static void appendDate(StringBuilder line, LocalDate date) {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            line.append(date);
+            return;
+        }
+        line.append(year).append('-');
+        if (date.getMonthValue() < 10) line.append('0');
+        line.append(date.getMonthValue()).append('-');
+        if (date.getDayOfMonth() < 10) line.append('0');
+        line.append(date.getDayOfMonth());
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    // One pass, keeping the line on one line and its separators unambiguous.
+    private static void appendEscaped(StringBuilder line, String text) {
+        if (text == null) return;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '|': line.append(PIPE_ESCAPE); break;
+                case '\n': line.append(NL_ESCAPE); break;
+                case '\r': line.append(CR_ESCAPE); break;
+                case '%': line.append(PERCENT_ESCAPE); break;
+                default: line.append(c);
+            }
+        }
+    }
+
+    // Text with no '%' in it needs no copying beyond the substring.
+    private static String unescape(String line, int start, int end) {
+        int percent = line.indexOf('%', start);
+        if (percent < 0 || percent >= end) {
+            return line.substring(start, end);
+        }
+        StringBuilder text = new StringBuilder(end - start);
+        text.append(line, start, percent);
+        int i = percent;
+        while (i < end) {
+            char c = line.charAt(i);
+            if (c == '%') {
+                if (line.startsWith(PIPE_ESCAPE, i)) {
+                    text.append('|');
+                    i += PIPE_ESCAPE.length();
+                    continue;
+                }
+                if (line.startsWith(NL_ESCAPE, i)) {
+                    text.append('\n');
+                    i += NL_ESCAPE.length();
+                    continue;
+                }
+                if (line.startsWith(CR_ESCAPE, i)) {
+                    text.append('\r');
+                    i += CR_ESCAPE.length();
+                    continue;
+                }
+                if (line.startsWith(PERCENT_ESCAPE, i)) {
+                    text.append('%');
+                    i += PERCENT_ESCAPE.length();
+                    continue;
+                }
+            }
+            text.append(c);
+            i++;
+        }
+        return text.toString();
     }
 }
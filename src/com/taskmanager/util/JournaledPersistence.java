@@ -0,0 +1,655 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the data file as a snapshot and appends each change to a journal next to it
+ * ("tasks_data.csv.journal"), so a mutation costs one short line instead of a full rewrite.
+ *
+ * Journal records are "A|task", "U|task" and "D|id", where task is the usual data file line.
+ * They describe the resulting state rather than a diff, which makes replaying them twice
+ * harmless. Once the journal passes the threshold it is rotated to ".journal.old" and a
+ * background thread writes a fresh snapshot, then deletes the rotated file. If the app dies
+ * in between, the next load replays both journals over the older snapshot. A journal is
+ * only ever deleted after the snapshot that replaces it has been forced to disk and renamed
+ * into place, so a crash or a failed write leaves the records where the next load finds them.
+ *
+ * Shared mode is for a data file that several instances of the app have open. Every load,
+ * write and compaction then holds an exclusive lock on ".lock" next to the data file, and
+ * a compaction builds the new snapshot from the files rather than from memory, under the
+ * lock, so it folds in what the other instances wrote. readExternalChanges hands out the
+ * journal records appended since this instance last looked, which is how the others'
+ * changes reach it without a full reload; when another instance has rewritten the snapshot
+ * it returns null instead, and the caller has to load the list again.
+ */
+public class JournaledPersistence implements TaskPersistence {
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 5000;
+
+    private static final String ADD = "A";
+    private static final String UPDATE = "U";
+    private static final String DELETE = "D";
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path rotatedPath;
+    private final SnapshotFormat snapshotFormat;
+    private final int compactionThreshold;
+    private final boolean shared;
+    private final Path lockPath;
+
+    private final Object snapshotLock = new Object();
+    private FileChannel journalChannel;
+    private BufferedWriter journal;
+    private int journalRecords;
+    private Thread compactor;
+    // Bumped by saveAll so an older background snapshot never overwrites a newer one.
+    private long snapshotGeneration;
+
+    // Shared mode only, guarded by this. How far into which journal this instance has read,
+    // the snapshot as it was then, and the records read or written since the caller last
+    // asked, kept in file order so applying them leaves memory the same as the files.
+    private long readPosition;
+    private Object journalKey;
+    private String snapshotStamp;
+    private List<TaskChange> unread = new ArrayList<>();
+    private boolean reloadNeeded;
+
+    public JournaledPersistence(Path snapshotPath) {
+        this(snapshotPath, SnapshotFormat.CSV, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public JournaledPersistence(Path snapshotPath, int compactionThreshold) {
+        this(snapshotPath, SnapshotFormat.CSV, compactionThreshold);
+    }
+
+    public JournaledPersistence(Path snapshotPath, SnapshotFormat snapshotFormat, int compactionThreshold) {
+        this(snapshotPath, snapshotFormat, compactionThreshold, false);
+    }
+
+    // shared turns on shared mode; see the class comment.
+    public JournaledPersistence(Path snapshotPath, SnapshotFormat snapshotFormat, int compactionThreshold, boolean shared) {
+        this.snapshotPath = snapshotPath;
+        this.snapshotFormat = snapshotFormat;
+        this.journalPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal");
+        this.rotatedPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal.old");
+        this.lockPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".lock");
+        this.compactionThreshold = compactionThreshold;
+        this.shared = shared;
+    }
+
+    @Override
+    public synchronized List<Task> load() throws IOException {
+        Map<UUID, Task> byId = new LinkedHashMap<>();
+        load((batch, progress) -> {
+            for (Task task : batch) {
+                byId.put(task.getId(), task);
+            }
+        });
+        return new ArrayList<>(byId.values());
+    }
+
+    // The journals are small next to the snapshot, so they are read first. Each snapshot
+    // task can then be handed over with its journaled changes already applied, and the tasks
+    // the journals added come last, in the order the map-based replay would put them.
+    @Override
+    public synchronized void load(TaskBatchConsumer consumer) throws IOException {
+        FileLock lock = lockFiles();
+        try {
+            readStored(consumer);
+            if (shared) {
+                unread = new ArrayList<>();
+                reloadNeeded = false;
+                markRead();
+            }
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    // Hands over the stored list and, if it's due, compacts.
+    private void readStored(TaskBatchConsumer consumer) throws IOException {
+        Journal journal = new Journal();
+        replay(rotatedPath, journal);
+        journalRecords = replay(journalPath, journal);
+
+        // Left over from an interrupted compaction, or simply overdue.
+        boolean compact = Files.exists(rotatedPath) || journalRecords >= compactionThreshold;
+        Map<UUID, Task> all = compact ? new LinkedHashMap<>() : null;
+
+        SnapshotFormat.read(snapshotPath, (batch, progress) -> {
+            List<Task> tasks = new ArrayList<>(batch.size());
+            for (Task task : batch) {
+                Fate fate = journal.fates.get(task.getId());
+                if (fate == null) {
+                    tasks.add(task);
+                    continue;
+                }
+                fate.inSnapshot = true;
+                Outcome outcome = fate.ifStored;
+                if (outcome.exists && outcome.appendedAt < 0) {
+                    tasks.add(outcome.task != null ? outcome.task : task);
+                }
+            }
+            handOver(tasks, progress, consumer, all);
+        });
+
+        List<Outcome> appended = new ArrayList<>();
+        for (Fate fate : journal.fates.values()) {
+            Outcome outcome = fate.inSnapshot ? fate.ifStored : fate.ifNew;
+            if (outcome.exists && outcome.appendedAt >= 0) appended.add(outcome);
+        }
+        appended.sort((a, b) -> Long.compare(a.appendedAt, b.appendedAt));
+        List<Task> tasks = new ArrayList<>(appended.size());
+        for (Outcome outcome : appended) {
+            tasks.add(outcome.task);
+        }
+        handOver(tasks, 1, consumer, all);
+
+        if (compact) {
+            if (shared) {
+                writeSharedSnapshot(new ArrayList<>(all.values()));
+            } else {
+                compact(new ArrayList<>(all.values()));
+            }
+        }
+    }
+
+    private static void handOver(List<Task> tasks, double progress, TaskBatchConsumer consumer, Map<UUID, Task> all) {
+        if (all != null) {
+            for (Task task : tasks) {
+                all.put(task.getId(), task);
+            }
+        }
+        consumer.accept(tasks, progress);
+    }
+
+    // In shared mode this replaces what the other instances wrote too; it is a full save.
+    @Override
+    public void saveAll(List<Task> tasks) throws IOException {
+        synchronized (this) {
+            FileLock lock = lockFiles();
+            try {
+                closeJournal();
+                synchronized (snapshotLock) {
+                    snapshotGeneration++;
+                    snapshotFormat.write(tasks, snapshotPath);
+                    Files.deleteIfExists(rotatedPath);
+                    Files.deleteIfExists(journalPath);
+                }
+                journalRecords = 0;
+                if (shared) {
+                    unread = new ArrayList<>();
+                    markRead();
+                }
+            } finally {
+                unlock(lock);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) throws IOException {
+        if (changes.isEmpty()) return;
+        FileLock lock = lockFiles();
+        try {
+            if (shared) {
+                // What the others appended goes before these changes, as it does in the file.
+                List<TaskChange> tail = readTail();
+                if (tail != null) journalRecords += tail.size();
+                keepUnread(tail);
+            }
+            BufferedWriter writer = openJournal();
+            for (TaskChange change : changes) {
+                writer.write(formatRecord(change));
+                writer.newLine();
+            }
+            writer.flush();
+            journalRecords += changes.size();
+
+            if (shared) {
+                // Another instance may compact and delete this journal before the next write,
+                // so it isn't kept open, and flush() would have nothing left to force.
+                journalChannel.force(false);
+                // Memory already has these. They are only replayed to keep them after
+                // records of the others' that are still waiting to be handed out.
+                if (!unread.isEmpty()) keepUnread(changes);
+                readPosition = journalChannel.size();
+                closeJournal();
+                journalKey = fileKey(journalPath);
+                if (journalRecords >= compactionThreshold) {
+                    writeSharedSnapshot(readAllStored());
+                }
+            } else if (journalRecords >= compactionThreshold && !isCompacting()) {
+                compact(snapshot.get());
+            }
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    // Shared mode: the changes made to the files since the last call, load, or full save,
+    // in file order. Once the others' records are waiting, this instance's own writes are
+    // kept after them too, though memory already has them; replaying them in order keeps
+    // memory equal to the files when two instances edit the same task. Null means the snapshot was rewritten
+    // by someone else (or too much piled up unread) and only a full load can catch up.
+    // Without shared mode there is never anything to read.
+    @Override
+    public synchronized List<TaskChange> readExternalChanges() throws IOException {
+        if (!shared) return Collections.emptyList();
+        FileLock lock = lockFiles();
+        try {
+            if (reloadNeeded || !stamp(snapshotPath).equals(snapshotStamp)) {
+                unread = new ArrayList<>();
+                return null;
+            }
+            List<TaskChange> tail = readTail();
+            if (tail == null) {
+                unread = new ArrayList<>();
+                return null;
+            }
+            List<TaskChange> changes = unread;
+            changes.addAll(tail);
+            unread = new ArrayList<>();
+            return changes;
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    // Shared mode: compares the files with where this instance last read or wrote up to,
+    // without taking the file lock. This instance's own appends leave nothing to hand out.
+    @Override
+    public synchronized boolean hasExternalChanges() throws IOException {
+        if (!shared) return false;
+        if (reloadNeeded || !unread.isEmpty() || !stamp(snapshotPath).equals(snapshotStamp)) {
+            return true;
+        }
+        if (!Files.exists(journalPath)) {
+            return readPosition != 0;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(journalPath, BasicFileAttributes.class);
+        return attributes.size() != readPosition || (journalKey != null && !journalKey.equals(attributes.fileKey()));
+    }
+
+    // Forces the journal to disk, which write() on its own doesn't do.
+    @Override
+    public synchronized void flush() throws IOException {
+        if (journal != null) {
+            journal.flush();
+            journalChannel.force(false);
+        }
+    }
+
+    // Also lets a running compaction finish so the files are left tidy.
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            flush();
+            closeJournal();
+        }
+        try {
+            awaitCompaction();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized boolean isCompacting() {
+        return compactor != null && compactor.isAlive();
+    }
+
+    // Blocks until a running background compaction has finished.
+    public void awaitCompaction() throws InterruptedException {
+        Thread running;
+        synchronized (this) {
+            running = compactor;
+        }
+        if (running != null) {
+            running.join();
+        }
+    }
+
+    // Must hold the monitor. The tasks list has to match the journal written so far.
+    private void compact(List<Task> tasks) throws IOException {
+        closeJournal();
+        // A rotated journal that is still around belongs to a failed or interrupted
+        // compaction. Keep it and leave the current journal in place; the new snapshot
+        // covers both and replaying them on top of it is harmless.
+        if (!Files.exists(rotatedPath) && Files.exists(journalPath)) {
+            FileHandler.moveReplacing(journalPath, rotatedPath);
+            journalRecords = 0;
+        }
+
+        long generation;
+        synchronized (snapshotLock) {
+            generation = snapshotGeneration;
+        }
+        compactor = new Thread(() -> writeSnapshot(tasks, generation), "journal-compactor");
+        compactor.setDaemon(true);
+        compactor.start();
+    }
+
+    private void writeSnapshot(List<Task> tasks, long generation) {
+        synchronized (snapshotLock) {
+            if (generation != snapshotGeneration) {
+                return; // saveAll already wrote something newer
+            }
+            try {
+                // Returns once the snapshot is on disk; if it throws the rotated journal stays.
+                snapshotFormat.write(tasks, snapshotPath);
+                Files.deleteIfExists(rotatedPath);
+            } catch (IOException e) {
+                System.err.println("Error compacting task journal: " + e.getMessage());
+            }
+        }
+    }
+
+    // Shared mode, with the lock held: the list as the files have it, without compacting.
+    private List<Task> readAllStored() throws IOException {
+        Map<UUID, Task> byId = new LinkedHashMap<>();
+        Journal journal = new Journal();
+        replay(rotatedPath, journal);
+        replay(journalPath, journal);
+        // Same merge as readStored, kept to the map form load() uses.
+        SnapshotFormat.read(snapshotPath, (batch, progress) -> {
+            for (Task task : batch) {
+                Fate fate = journal.fates.get(task.getId());
+                if (fate == null) {
+                    byId.put(task.getId(), task);
+                    continue;
+                }
+                fate.inSnapshot = true;
+                Outcome outcome = fate.ifStored;
+                if (outcome.exists && outcome.appendedAt < 0) {
+                    byId.put(task.getId(), outcome.task != null ? outcome.task : task);
+                }
+            }
+        });
+        List<Outcome> appended = new ArrayList<>();
+        for (Fate fate : journal.fates.values()) {
+            Outcome outcome = fate.inSnapshot ? fate.ifStored : fate.ifNew;
+            if (outcome.exists && outcome.appendedAt >= 0) appended.add(outcome);
+        }
+        appended.sort((a, b) -> Long.compare(a.appendedAt, b.appendedAt));
+        for (Outcome outcome : appended) {
+            byId.put(outcome.task.getId(), outcome.task);
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    // Shared mode, with the lock held, so nobody can append meanwhile: writes the snapshot
+    // in place of the journals. Records this instance hasn't handed out yet stay in unread.
+    private void writeSharedSnapshot(List<Task> tasks) throws IOException {
+        closeJournal();
+        synchronized (snapshotLock) {
+            snapshotGeneration++;
+            snapshotFormat.write(tasks, snapshotPath);
+            Files.deleteIfExists(rotatedPath);
+            Files.deleteIfExists(journalPath);
+        }
+        journalRecords = 0;
+        markRead();
+    }
+
+    // Records the files as they are now as read up to the end.
+    private void markRead() throws IOException {
+        snapshotStamp = stamp(snapshotPath);
+        if (Files.exists(journalPath)) {
+            readPosition = Files.size(journalPath);
+            journalKey = fileKey(journalPath);
+        } else {
+            readPosition = 0;
+            journalKey = null;
+        }
+    }
+
+    // The whole records appended to the journal since readPosition, or null if the journal
+    // is not the one readPosition belongs to any more.
+    private List<TaskChange> readTail() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return readPosition == 0 ? new ArrayList<>() : null;
+        }
+        Object key = fileKey(journalPath);
+        if (readPosition > 0 && journalKey != null && !journalKey.equals(key)) {
+            return null;
+        }
+        List<TaskChange> changes = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+            long end = channel.size();
+            if (end < readPosition) return null;
+            if (end == readPosition) return changes;
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(end - readPosition, Integer.MAX_VALUE - 8));
+            while (buffer.hasRemaining() && channel.read(buffer, readPosition + buffer.position()) > 0) {
+                // keep reading
+            }
+            int length = buffer.position();
+            int lastNewline = length - 1;
+            while (lastNewline >= 0 && buffer.get(lastNewline) != '\n') {
+                lastNewline--;
+            }
+            String text = new String(buffer.array(), 0, lastNewline + 1, StandardCharsets.UTF_8);
+            for (String line : text.split("\n")) {
+                if (line.trim().isEmpty()) continue;
+                try {
+                    changes.add(parseChange(line.trim()));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    System.err.println("Skipping corrupted journal record: " + line);
+                }
+            }
+            readPosition += lastNewline + 1;
+            journalKey = key;
+        }
+        return changes;
+    }
+
+    // Held until readExternalChanges, or dropped in favour of a reload if nobody asks.
+    private void keepUnread(List<TaskChange> changes) {
+        if (changes == null) {
+            reloadNeeded = true;
+            return;
+        }
+        if (reloadNeeded) return;
+        unread.addAll(changes);
+        if (unread.size() > compactionThreshold) {
+            unread = new ArrayList<>();
+            reloadNeeded = true;
+        }
+    }
+
+    private FileLock lockFiles() throws IOException {
+        if (!shared) return null;
+        FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            return channel.lock();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Closing the channel releases the lock.
+    private static void unlock(FileLock lock) throws IOException {
+        if (lock != null) {
+            lock.channel().close();
+        }
+    }
+
+    // Changes whenever the file is replaced or rewritten.
+    private static String stamp(Path path) throws IOException {
+        if (!Files.exists(path)) return "none";
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return attributes.fileKey() + "/" + attributes.lastModifiedTime().toMillis() + "/" + attributes.size();
+    }
+
+    private static Object fileKey(Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+    }
+
+    private BufferedWriter openJournal() throws IOException {
+        if (journal == null) {
+            journalChannel = FileChannel.open(journalPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            // A lone surrogate is written as '?' like in the data file, rather than failing the write.
+            journal = new BufferedWriter(Channels.newWriter(journalChannel, StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE), -1));
+        }
+        return journal;
+    }
+
+    private void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+            journalChannel = null;
+        }
+    }
+
+    private static String formatRecord(TaskChange change) {
+        switch (change.getType()) {
+            case ADDED: return ADD + "|" + FileHandler.formatTask(change.getTask());
+            case UPDATED: return UPDATE + "|" + FileHandler.formatTask(change.getTask());
+            case DELETED: return DELETE + "|" + change.getTask().getId();
+            default: throw new IllegalArgumentException("Unknown change type: " + change.getType());
+        }
+    }
+
+    // Applies every record in the file to the journal and returns how many were read. Bytes
+    // that aren't UTF-8, such as half a character torn off by a crash, become U+FFFD rather
+    // than failing the whole load.
+    private static int replay(Path path, Journal journal) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int records = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                records++;
+                try {
+                    applyRecord(line, journal);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    // Most likely a torn last line from a crash mid-append.
+                    System.err.println("Skipping corrupted journal record: " + line);
+                }
+            }
+        }
+        return records;
+    }
+
+    private static TaskChange parseChange(String line) {
+        int split = line.indexOf('|');
+        if (split < 0) {
+            throw new IllegalArgumentException("Missing record type");
+        }
+        String op = line.substring(0, split);
+        String body = line.substring(split + 1);
+        if (DELETE.equals(op)) {
+            // Only the id is recorded; the rest of the task is a placeholder.
+            Task deleted = new Task(UUID.fromString(body), "", "", Task.Priority.MEDIUM, java.time.LocalDate.MIN, false);
+            return new TaskChange(TaskChange.Type.DELETED, deleted);
+        }
+        Task task = FileHandler.parseTask(body);
+        if (task == null) {
+            throw new IllegalArgumentException("Incomplete task record");
+        }
+        if (ADD.equals(op)) return new TaskChange(TaskChange.Type.ADDED, task);
+        if (UPDATE.equals(op)) return new TaskChange(TaskChange.Type.UPDATED, task);
+        throw new IllegalArgumentException("Unknown record type: " + op);
+    }
+
+    private static void applyRecord(String line, Journal journal) {
+        int split = line.indexOf('|');
+        if (split < 0) {
+            throw new IllegalArgumentException("Missing record type");
+        }
+        String op = line.substring(0, split);
+        String body = line.substring(split + 1);
+
+        if (DELETE.equals(op)) {
+            journal.apply(op, UUID.fromString(body), null);
+            return;
+        }
+        Task task = FileHandler.parseTask(body);
+        if (task == null) {
+            throw new IllegalArgumentException("Incomplete task record");
+        }
+        if (!ADD.equals(op) && !UPDATE.equals(op)) {
+            throw new IllegalArgumentException("Unknown record type: " + op);
+        }
+        journal.apply(op, task.getId(), task);
+    }
+
+    // What replaying the journals does to each id they mention.
+    private static final class Journal {
+        final Map<UUID, Fate> fates = new HashMap<>();
+        private long sequence;
+
+        void apply(String op, UUID id, Task task) {
+            Fate fate = fates.computeIfAbsent(id, key -> new Fate());
+            long position = sequence++;
+            fate.ifStored.apply(op, task, position);
+            fate.ifNew.apply(op, task, position);
+        }
+    }
+
+    // Whether a record applies depends on whether the id is in the snapshot, which isn't
+    // known until the snapshot has been read, so both cases are played out.
+    private static final class Fate {
+        final Outcome ifStored = new Outcome(true);
+        final Outcome ifNew = new Outcome(false);
+        boolean inSnapshot;
+    }
+
+    private static final class Outcome {
+        boolean exists;
+        Task task; // null while the snapshot's own version stands
+        long appendedAt = -1; // set once an add puts the id at the end of the list
+
+        Outcome(boolean exists) {
+            this.exists = exists;
+        }
+
+        void apply(String op, Task record, long position) {
+            if (DELETE.equals(op)) {
+                exists = false;
+                task = null;
+                appendedAt = -1;
+            } else if (ADD.equals(op)) {
+                if (!exists) {
+                    exists = true;
+                    appendedAt = position;
+                }
+                task = record;
+            } else if (exists) {
+                // updateTask never inserts, so neither does replay
+                task = record;
+            }
+        }
+    }
+}
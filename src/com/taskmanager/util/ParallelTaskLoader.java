@@ -0,0 +1,213 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Loads the data file by memory-mapping it, cutting it into chunks that start on line
+ * boundaries and parsing the chunks in parallel. Results are merged back in file order, or
+ * handed over chunk by chunk, in file order, as soon as each one and those before it are done.
+ *
+ * Lines are parsed in place by TaskRecordDecoder, which gives the same results as
+ * FileHandler.parseTask: blank lines and lines with fewer than six fields are skipped
+ * silently, and unparseable lines are reported with the same "Skipping corrupted line"
+ * message FileHandler.loadTasks uses.
+ */
+public final class ParallelTaskLoader {
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+    // Chunks handed over one at a time are kept small so the first ones arrive early.
+    private static final int STREAMING_CHUNK_SIZE = 8 << 20;
+
+    private ParallelTaskLoader() {
+    }
+
+    public static List<Task> load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = chunkBounds(channel, size, MAX_CHUNK_SIZE);
+
+            List<ChunkResult> results;
+            try {
+                results = IntStream.range(0, bounds.length - 1)
+                        .parallel()
+                        .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1]))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            int total = 0;
+            for (ChunkResult result : results) {
+                total += result.tasks.size();
+            }
+            List<Task> tasks = new ArrayList<>(total);
+            for (ChunkResult result : results) {
+                tasks.addAll(result.tasks);
+                reportCorrupted(result);
+            }
+            return tasks;
+        }
+    }
+
+    // The chunks go to a pool with a FIFO queue, one thread per core, so the early ones are
+    // parsed first. The consumer is called on this thread.
+    public static void load(Path path, TaskBatchConsumer consumer) throws IOException {
+        ExecutorService parsers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "task-file-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = chunkBounds(channel, size, STREAMING_CHUNK_SIZE);
+
+            List<CompletableFuture<ChunkResult>> chunks = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                chunks.add(CompletableFuture.supplyAsync(() -> parseChunk(channel, start, end), parsers));
+            }
+            try {
+                for (int i = 0; i < chunks.size(); i++) {
+                    ChunkResult result = chunks.get(i).join();
+                    reportCorrupted(result);
+                    consumer.accept(result.tasks, size == 0 ? 1 : (double) bounds[i + 1] / size);
+                }
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw e;
+            } finally {
+                // If the consumer failed, skip the chunks that haven't started; the channel is about to close.
+                for (CompletableFuture<ChunkResult> chunk : chunks) {
+                    chunk.cancel(false);
+                }
+            }
+        } finally {
+            parsers.shutdown();
+        }
+    }
+
+    private static void reportCorrupted(ChunkResult result) {
+        for (String line : result.corruptedLines) {
+            System.err.println("Skipping corrupted line: " + line);
+        }
+    }
+
+    // Chunk start offsets plus the file size. Every start except the first sits right after a '\n'.
+    private static long[] chunkBounds(FileChannel channel, long size, int maxChunkSize) throws IOException {
+        int parallelism = Runtime.getRuntime().availableProcessors() * 4;
+        long chunks = Math.max(1, Math.min(size / MIN_CHUNK_SIZE, parallelism));
+        chunks = Math.max(chunks, (size + maxChunkSize - 1) / maxChunkSize);
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        for (long i = 1; i < chunks; i++) {
+            long start = nextLineStart(channel, size, i * size / chunks, probe);
+            if (start > bounds.get(bounds.size() - 1) && start < size) {
+                bounds.add(start);
+            }
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, long size, long from, ByteBuffer probe) throws IOException {
+        long position = from - 1;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static ChunkResult parseChunk(FileChannel channel, long start, long end) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ChunkParser(buffer).parse();
+    }
+
+    private static final class ChunkResult {
+        final List<Task> tasks = new ArrayList<>();
+        final List<String> corruptedLines = new ArrayList<>();
+    }
+
+    private static final class ChunkParser {
+        private final MappedByteBuffer buffer;
+        private final int limit;
+        private final ChunkResult result = new ChunkResult();
+        private final TaskRecordDecoder decoder;
+
+        ChunkParser(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+            this.decoder = new TaskRecordDecoder(buffer);
+        }
+
+        ChunkResult parse() {
+            int position = 0;
+            while (position < limit) {
+                int lineEnd = position;
+                while (lineEnd < limit) {
+                    byte b = buffer.get(lineEnd);
+                    if (b == '\n' || b == '\r') break;
+                    lineEnd++;
+                }
+                parseLine(position, lineEnd);
+
+                // Same terminators as BufferedReader.readLine: \n, \r or \r\n
+                position = lineEnd;
+                if (position < limit && buffer.get(position) == '\r') position++;
+                if (position < limit && buffer.get(position) == '\n') position++;
+            }
+            return result;
+        }
+
+        private void parseLine(int start, int end) {
+            try {
+                Task task = decoder.decode(start, end);
+                if (task != null) {
+                    result.tasks.add(task);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                result.corruptedLines.add(decoder.text(start, end, StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
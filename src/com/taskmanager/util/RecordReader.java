@@ -0,0 +1,68 @@
+package com.taskmanager.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Splits text into records for TaskImporter. A record ends at LF or CRLF; with quoted set, a
+// line break inside double quotes belongs to the record, as in RFC 4180 CSV. Blank records
+// are skipped. Reads through its own buffer, since Reader.read() per character locks.
+final class RecordReader {
+    private final Reader in;
+    private final boolean quoted;
+    private final char[] buffer = new char[1 << 16];
+    private final StringBuilder record = new StringBuilder(256);
+    private int position;
+    private int limit;
+    private long line;
+    private long recordLine;
+
+    RecordReader(Reader in, boolean quoted) {
+        this.in = in;
+        this.quoted = quoted;
+    }
+
+    // The next record without its line break, or null at the end of the input.
+    String next() throws IOException {
+        while (true) {
+            record.setLength(0);
+            recordLine = line + 1;
+            boolean inQuotes = false;
+            boolean ended = false;
+            while (!ended) {
+                if (position == limit && !fill()) {
+                    if (record.length() == 0) return null;
+                    break;
+                }
+                char c = buffer[position++];
+                if (c == '\n' && !inQuotes) {
+                    line++;
+                    ended = true;
+                } else {
+                    if (c == '\n') line++;
+                    if (c == '"' && quoted) inQuotes = !inQuotes;
+                    record.append(c);
+                }
+            }
+            int length = record.length();
+            if (length > 0 && record.charAt(length - 1) == '\r') {
+                record.setLength(length - 1);
+            }
+            if (record.length() > 0) {
+                return record.toString();
+            }
+        }
+    }
+
+    // The line number, from 1, that the record last returned by next() starts on.
+    long recordLine() {
+        return recordLine;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) return false;
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
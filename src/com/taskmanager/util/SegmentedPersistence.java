@@ -0,0 +1,464 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the task list as a directory of segment files of at most segmentSize tasks each,
+ * in the data file's line format, plus a manifest naming the segments in list order with
+ * each one's task count, length and CRC32.
+ *
+ * A change rewrites only the segments holding the tasks it touches: each is read back,
+ * checked, patched and written to a new file, which is forced to disk and renamed into
+ * place. The manifest is then replaced the same way, and that rename is the commit; the
+ * files it no longer names are deleted afterwards. A crash at any point leaves the old
+ * manifest and every file it names intact. New tasks go to the last segment, or a new one
+ * once it is full, so the list keeps its order. A segment left empty is dropped.
+ *
+ * Only the id of each task is kept in memory, to know which segment holds it. Segments are
+ * read and checked in parallel on load.
+ */
+public class SegmentedPersistence implements TaskPersistence {
+    public static final String DIRECTORY_NAME = "tasks_data.segments";
+    public static final int DEFAULT_SEGMENT_SIZE = 8192;
+
+    private static final String MANIFEST = "manifest";
+    private static final String MANIFEST_HEADER = "# Task Manager segments";
+    private static final int MANIFEST_VERSION = 1;
+
+    private final Path directory;
+    private final Path manifestPath;
+    private final Path legacyFile;
+    private final int segmentSize;
+
+    // Guarded by this. The segments in list order, and which one holds each task.
+    private List<Segment> segments = new ArrayList<>();
+    private final List<Segment> segmentsBySlot = new ArrayList<>();
+    private UuidTable slotById = new UuidTable();
+    private long nextFileNumber;
+    private boolean stored; // a manifest has been read or written
+
+    public SegmentedPersistence(Path directory) {
+        this(directory, null, DEFAULT_SEGMENT_SIZE);
+    }
+
+    // legacyFile, if not null, is a data file (with its journal) to import from when the
+    // directory holds no segments yet. It is left in place.
+    public SegmentedPersistence(Path directory, Path legacyFile, int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.directory = directory;
+        this.manifestPath = directory.resolve(MANIFEST);
+        this.legacyFile = legacyFile;
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public synchronized List<Task> load() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        load((batch, progress) -> tasks.addAll(batch));
+        return tasks;
+    }
+
+    // Hands the segments over in manifest order as they are read.
+    @Override
+    public synchronized void load(TaskBatchConsumer consumer) throws IOException {
+        segments = new ArrayList<>();
+        segmentsBySlot.clear();
+        slotById = new UuidTable();
+        if (!Files.exists(manifestPath)) {
+            importLegacy(consumer);
+            return;
+        }
+        Manifest manifest = readManifest();
+        nextFileNumber = manifest.nextFileNumber;
+        stored = true;
+        deleteUnlisted(manifest.segments);
+
+        ExecutorService readers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "segment-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<List<Task>>> reads = new ArrayList<>(manifest.segments.size());
+            for (Segment segment : manifest.segments) {
+                reads.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return readSegment(segment.file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, readers));
+            }
+            for (int i = 0; i < reads.size(); i++) {
+                Segment segment = manifest.segments.get(i);
+                List<Task> tasks = reads.get(i).join();
+                register(segment);
+                segments.add(segment);
+                for (Task task : tasks) {
+                    slotById.put(task.getId(), segment.slot);
+                }
+                consumer.accept(tasks, (double) (i + 1) / reads.size());
+            }
+            if (reads.isEmpty()) consumer.accept(new ArrayList<>(), 1);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    private void importLegacy(TaskBatchConsumer consumer) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        if (legacyFile != null && Files.exists(legacyFile)) {
+            JournaledPersistence legacy = new JournaledPersistence(legacyFile);
+            tasks = legacy.load();
+            legacy.close();
+            saveAll(tasks);
+        }
+        consumer.accept(tasks, 1);
+    }
+
+    @Override
+    public synchronized void saveAll(List<Task> tasks) throws IOException {
+        List<SegmentFile> files = new ArrayList<>();
+        for (int from = 0; from < tasks.size(); from += segmentSize) {
+            files.add(writeSegment(tasks.subList(from, Math.min(from + segmentSize, tasks.size()))));
+        }
+        commit(files);
+
+        deleteFiles(segments);
+        segments = new ArrayList<>(files.size());
+        segmentsBySlot.clear();
+        slotById = new UuidTable();
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = new Segment(files.get(i));
+            register(segment);
+            segments.add(segment);
+            for (Task task : tasks.subList(i * segmentSize, Math.min((i + 1) * segmentSize, tasks.size()))) {
+                slotById.put(task.getId(), segment.slot);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) throws IOException {
+        if (changes.isEmpty()) return;
+        if (!stored) {
+            // Nothing on disk to patch yet.
+            saveAll(snapshot.get());
+            return;
+        }
+
+        // Which segment each change lands in, worked out in order, since adds fill up the
+        // last segment and then open new ones.
+        Map<Segment, List<TaskChange>> dirty = new LinkedHashMap<>();
+        List<Segment> opened = new ArrayList<>();
+        Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        int lastCount = last == null ? 0 : last.file.count;
+        Map<UUID, Segment> pending = new HashMap<>(); // decided by earlier changes in this batch; null if deleted
+        for (TaskChange change : changes) {
+            UUID id = change.getTask().getId();
+            Segment segment;
+            if (pending.containsKey(id)) {
+                segment = pending.get(id);
+            } else {
+                int slot = slotById.get(id);
+                segment = slot < 0 ? null : segmentsBySlot.get(slot);
+            }
+            if (segment == null && change.getType() == TaskChange.Type.ADDED) {
+                if (last == null || lastCount >= segmentSize) {
+                    last = new Segment(null);
+                    lastCount = 0;
+                    opened.add(last);
+                }
+                segment = last;
+                lastCount++;
+            } else if (segment == null) {
+                continue; // updateTask and deleteTask ignore unknown ids
+            }
+            pending.put(id, change.getType() == TaskChange.Type.DELETED ? null : segment);
+            dirty.computeIfAbsent(segment, key -> new ArrayList<>()).add(change);
+        }
+
+        // Write the new files, then commit them all with one manifest.
+        Map<Segment, SegmentFile> rewritten = new HashMap<>();
+        for (Map.Entry<Segment, List<TaskChange>> entry : dirty.entrySet()) {
+            Segment segment = entry.getKey();
+            LinkedHashMap<UUID, Task> tasks = new LinkedHashMap<>();
+            if (segment.file != null) {
+                for (Task task : readSegment(segment.file)) {
+                    tasks.put(task.getId(), task);
+                }
+            }
+            for (TaskChange change : entry.getValue()) {
+                Task task = change.getTask();
+                if (change.getType() == TaskChange.Type.DELETED) {
+                    tasks.remove(task.getId());
+                } else {
+                    tasks.put(task.getId(), task);
+                }
+            }
+            rewritten.put(segment, tasks.isEmpty() ? null : writeSegment(new ArrayList<>(tasks.values())));
+        }
+        List<Segment> next = new ArrayList<>(segments.size() + opened.size());
+        List<SegmentFile> files = new ArrayList<>(segments.size() + opened.size());
+        for (Segment segment : segments) {
+            SegmentFile file = rewritten.containsKey(segment) ? rewritten.get(segment) : segment.file;
+            if (file != null) {
+                next.add(segment);
+                files.add(file);
+            }
+        }
+        for (Segment segment : opened) {
+            SegmentFile file = rewritten.get(segment);
+            if (file != null) {
+                next.add(segment);
+                files.add(file);
+            }
+        }
+        commit(files);
+
+        deleteFiles(dirty.keySet());
+        for (Map.Entry<Segment, SegmentFile> entry : rewritten.entrySet()) {
+            Segment segment = entry.getKey();
+            segment.file = entry.getValue();
+            if (segment.file == null) {
+                segmentsBySlot.set(segment.slot, null);
+            } else if (segment.slot < 0) {
+                register(segment);
+            }
+        }
+        segments = next;
+        for (Map.Entry<UUID, Segment> entry : pending.entrySet()) {
+            Segment segment = entry.getValue();
+            if (segment == null || segment.file == null) {
+                slotById.remove(entry.getKey());
+            } else {
+                slotById.put(entry.getKey(), segment.slot);
+            }
+        }
+    }
+
+    // Every write is forced to disk before it returns.
+    @Override
+    public void flush() {
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    // Replaces the manifest with one listing the given files, which is the commit.
+    private void commit(List<SegmentFile> files) throws IOException {
+        Files.createDirectories(directory);
+        StringBuilder manifest = new StringBuilder();
+        manifest.append(MANIFEST_HEADER).append('\n');
+        manifest.append("version|").append(MANIFEST_VERSION).append('\n');
+        manifest.append("next|").append(nextFileNumber).append('\n');
+        for (SegmentFile file : files) {
+            manifest.append("segment|").append(file.name).append('|').append(file.count)
+                    .append('|').append(file.length).append('|').append(Long.toHexString(file.crc)).append('\n');
+        }
+        manifest.append("end|").append(files.size()).append('\n');
+        writeDurably(manifestPath, manifest.toString().getBytes(StandardCharsets.UTF_8));
+        stored = true;
+    }
+
+    // The files of segments the committed manifest no longer names. A failure here only
+    // leaves an orphan, which the next load deletes.
+    private void deleteFiles(Iterable<Segment> replaced) {
+        for (Segment segment : replaced) {
+            if (segment.file == null) continue;
+            try {
+                Files.deleteIfExists(directory.resolve(segment.file.name));
+            } catch (IOException e) {
+                System.err.println("Could not delete old segment " + segment.file.name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private SegmentFile writeSegment(List<Task> tasks) throws IOException {
+        Files.createDirectories(directory);
+        StringBuilder text = new StringBuilder(tasks.size() * 200);
+        for (Task task : tasks) {
+            FileHandler.appendTask(text, task);
+            text.append('\n');
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        String name = String.format("segment-%08d.csv", nextFileNumber++);
+        writeDurably(directory.resolve(name), bytes);
+        return new SegmentFile(name, tasks.size(), bytes.length, crc(bytes));
+    }
+
+    // Temp file, forced to disk, then renamed over the target.
+    private static void writeDurably(Path path, byte[] bytes) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        FileHandler.moveReplacing(temp, path);
+    }
+
+    private List<Task> readSegment(SegmentFile segment) throws IOException {
+        Path path = directory.resolve(segment.name);
+        if (!Files.exists(path)) {
+            throw new IOException("Segment listed in the manifest is missing: " + path);
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length != segment.length || crc(bytes) != segment.crc) {
+            throw new IOException("Segment is corrupted (checksum mismatch): " + path);
+        }
+        List<Task> tasks = new ArrayList<>(segment.count);
+        // Segments are written with \n only, and parsed in place.
+        TaskRecordDecoder decoder = new TaskRecordDecoder(ByteBuffer.wrap(bytes));
+        int position = 0;
+        while (position < bytes.length) {
+            int lineEnd = position;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            try {
+                Task task = decoder.decode(position, lineEnd);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                System.err.println("Skipping corrupted line: " + decoder.text(position, lineEnd, StandardCharsets.UTF_8));
+            }
+            position = lineEnd + 1;
+        }
+        return tasks;
+    }
+
+    private Manifest readManifest() throws IOException {
+        List<String> lines = Files.readAllLines(manifestPath, StandardCharsets.UTF_8);
+        Manifest manifest = new Manifest();
+        boolean ended = false;
+        try {
+            if (lines.isEmpty() || !lines.get(0).equals(MANIFEST_HEADER)) {
+                throw new IOException("Not a segment manifest: " + manifestPath);
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                String[] parts = line.split("\\|");
+                switch (parts[0]) {
+                    case "version":
+                        if (Integer.parseInt(parts[1]) != MANIFEST_VERSION) {
+                            throw new IOException("Unsupported manifest version " + parts[1] + ": " + manifestPath);
+                        }
+                        break;
+                    case "next":
+                        manifest.nextFileNumber = Long.parseLong(parts[1]);
+                        break;
+                    case "segment":
+                        manifest.segments.add(new Segment(new SegmentFile(parts[1], Integer.parseInt(parts[2]),
+                                Long.parseLong(parts[3]), Long.parseLong(parts[4], 16))));
+                        break;
+                    case "end":
+                        ended = Integer.parseInt(parts[1]) == manifest.segments.size();
+                        break;
+                    default:
+                        throw new IOException("Unknown manifest entry: " + line);
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Segment manifest is corrupted: " + manifestPath, e);
+        }
+        if (!ended) {
+            throw new IOException("Segment manifest is truncated: " + manifestPath);
+        }
+        return manifest;
+    }
+
+    // Segment files left behind by a crash between writing them and committing, or between
+    // committing and deleting the old ones.
+    private void deleteUnlisted(List<Segment> listed) throws IOException {
+        Set<String> names = new HashSet<>();
+        for (Segment segment : listed) {
+            names.add(segment.file.name);
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*")) {
+            for (Path file : files) {
+                if (!names.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static final class Manifest {
+        final List<Segment> segments = new ArrayList<>();
+        long nextFileNumber;
+    }
+
+    private void register(Segment segment) {
+        segment.slot = segmentsBySlot.size();
+        segmentsBySlot.add(segment);
+    }
+
+    // A place in the list that keeps its identity while its file is rewritten, so the tasks
+    // in it keep pointing at it. The file is null while a new segment is being opened.
+    private static final class Segment {
+        SegmentFile file;
+        int slot = -1;
+
+        Segment(SegmentFile file) {
+            this.file = file;
+        }
+    }
+
+    private static final class SegmentFile {
+        final String name;
+        final int count;
+        final long length;
+        final long crc;
+
+        SegmentFile(String name, int count, long length, long crc) {
+            this.name = name;
+            this.count = count;
+            this.length = length;
+            this.crc = crc;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+// File format used for full snapshots of the task list.
+public enum SnapshotFormat {
+    CSV {
+        @Override
+        public void write(List<Task> tasks, Path path) throws IOException {
+            FileHandler.saveTasks(tasks, path);
+        }
+    },
+    BINARY {
+        @Override
+        public void write(List<Task> tasks, Path path) throws IOException {
+            BinarySnapshot.write(tasks, path);
+        }
+    };
+
+    public abstract void write(List<Task> tasks, Path path) throws IOException;
+
+    // -Dtaskmanager.snapshot=binary writes BINARY snapshots; the default is CSV.
+    public static SnapshotFormat configured() {
+        return "binary".equals(System.getProperty("taskmanager.snapshot")) ? BINARY : CSV;
+    }
+
+    // Reading looks at the file itself, so switching formats doesn't strand the old data.
+    public static List<Task> read(Path path) throws IOException {
+        if (BinarySnapshot.isSnapshot(path)) {
+            return BinarySnapshot.read(path);
+        }
+        return FileHandler.loadTasks(path);
+    }
+
+    public static void read(Path path, TaskBatchConsumer consumer) throws IOException {
+        if (BinarySnapshot.isSnapshot(path)) {
+            BinarySnapshot.read(path, consumer);
+        } else {
+            FileHandler.loadTasks(path, consumer);
+        }
+    }
+}
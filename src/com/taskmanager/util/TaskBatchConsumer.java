@@ -0,0 +1,13 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+
+import java.util.List;
+
+// Receives a stored task list piece by piece while it is being read.
+@FunctionalInterface
+public interface TaskBatchConsumer {
+
+    // The next tasks in list order. progress is the part of the input read so far, from 0 to 1.
+    void accept(List<Task> batch, double progress);
+}
@@ -0,0 +1,33 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Writes tasks to a file one at a time, through a temp file renamed into place like the
+// data file. Pass it a snapshot's list and nothing is copied, however long the list is.
+public final class TaskExporter {
+    private TaskExporter() {
+    }
+
+    public static TransferReport exportTasks(List<Task> tasks, Path path, TransferFormat format) throws IOException {
+        long started = System.nanoTime();
+        TransferReport report = new TransferReport(false);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            format.writeHeader(writer);
+            for (Task task : tasks) {
+                format.writeRow(writer, task);
+            }
+        }
+        FileHandler.moveReplacing(temp, path);
+        report.accepted(tasks.size());
+        report.finished(System.nanoTime() - started);
+        return report;
+    }
+}
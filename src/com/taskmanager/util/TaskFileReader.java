@@ -0,0 +1,87 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a data file front to back through a FileChannel into one large direct buffer and
+ * parses each line in place with TaskRecordDecoder, so no line Strings or split arrays are
+ * made. A line cut off at the end of the buffer is moved to the front before the next read;
+ * a line longer than the whole buffer makes it grow.
+ *
+ * Lines end at \n, \r or \r\n, as for BufferedReader.readLine, and bad lines are skipped
+ * with the message FileHandler.loadTasks has always printed.
+ */
+final class TaskFileReader {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private TaskFileReader() {
+    }
+
+    static List<Task> read(Path path) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        TaskRecordDecoder decoder = new TaskRecordDecoder(buffer);
+        boolean skipNewline = false;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (true) {
+                boolean end = channel.read(buffer) < 0;
+                int limit = buffer.position();
+                int position = 0;
+                if (skipNewline && limit > 0) {
+                    // The \n of a \r\n that was split between two reads.
+                    if (buffer.get(0) == '\n') position = 1;
+                    skipNewline = false;
+                }
+                while (position < limit) {
+                    int lineEnd = position;
+                    while (lineEnd < limit) {
+                        byte b = buffer.get(lineEnd);
+                        if (b == '\n' || b == '\r') break;
+                        lineEnd++;
+                    }
+                    if (lineEnd == limit && !end) break;
+                    parseLine(decoder, position, lineEnd, tasks);
+                    position = lineEnd;
+                    if (position < limit && buffer.get(position) == '\r') {
+                        position++;
+                        if (position == limit) skipNewline = true;
+                    }
+                    if (position < limit && buffer.get(position) == '\n') position++;
+                }
+                if (end) break;
+
+                buffer.limit(limit).position(position);
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    ByteBuffer bigger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                    buffer.flip();
+                    bigger.put(buffer);
+                    buffer = bigger;
+                    decoder.setBuffer(buffer);
+                }
+            }
+        }
+        return tasks;
+    }
+
+    private static void parseLine(TaskRecordDecoder decoder, int start, int end, List<Task> tasks) {
+        try {
+            Task task = decoder.decode(start, end);
+            if (task != null) {
+                tasks.add(task);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println("Skipping corrupted line: " + decoder.text(start, end, StandardCharsets.UTF_8));
+        }
+    }
+}
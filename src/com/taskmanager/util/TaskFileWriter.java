@@ -0,0 +1,162 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Writes data file lines through a FileChannel from one large direct buffer. Each task is
+ * escaped and UTF-8 encoded straight into the buffer in a single pass over its fields, so
+ * writing a row allocates nothing: no line String, no escaped copies of the text, no
+ * encoder buffers. The output is byte for byte what FileHandler.formatTask gives, in UTF-8,
+ * one line per task.
+ *
+ * A lone surrogate can't be encoded and is written as '?', as String.getBytes does.
+ * close() forces the file to disk, since the caller renames it over the data file next.
+ */
+final class TaskFileWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Nothing a task's fixed fields need comes near this.
+    private static final int FIXED_FIELDS_SIZE = 128;
+    // The most a char of text can become: '|' is escaped to six bytes.
+    private static final int MAX_BYTES_PER_CHAR = 6;
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    TaskFileWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    void write(Task task) throws IOException {
+        String title = task.getTitle() == null ? "" : task.getTitle();
+        String description = task.getDescription() == null ? "" : task.getDescription();
+        ensureRoom(FIXED_FIELDS_SIZE + MAX_BYTES_PER_CHAR * ((long) title.length() + description.length()));
+
+        putId(task.getId());
+        buffer.put((byte) '|');
+        putEscaped(title);
+        buffer.put((byte) '|');
+        putEscaped(description);
+        buffer.put((byte) '|');
+        putAscii(task.getPriority().name());
+        buffer.put((byte) '|');
+        putDate(task.getDueDate());
+        buffer.put((byte) '|');
+        putAscii(task.isCompleted() ? "true" : "false");
+        buffer.put(NEWLINE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureRoom(long bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return;
+        drain();
+        if (buffer.capacity() < bytes) {
+            // One huge task; the buffer stays this size for the rest of the file.
+            buffer = ByteBuffer.allocateDirect((int) Math.min(bytes, Integer.MAX_VALUE - 8));
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putId(UUID id) {
+        putHex(id.getMostSignificantBits() >>> 32, 8);
+        buffer.put((byte) '-');
+        putHex(id.getMostSignificantBits() >>> 16, 4);
+        buffer.put((byte) '-');
+        putHex(id.getMostSignificantBits(), 4);
+        buffer.put((byte) '-');
+        putHex(id.getLeastSignificantBits() >>> 48, 4);
+        buffer.put((byte) '-');
+        putHex(id.getLeastSignificantBits(), 12);
+    }
+
+    private void putHex(long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            buffer.put(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    // Fast path for years 0 to 9999; LocalDate.toString adds a sign outside that range.
+    private void putDate(LocalDate date) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            putAscii(date.toString());
+            return;
+        }
+        putDigits(year, 4);
+        buffer.put((byte) '-');
+        putDigits(date.getMonthValue(), 2);
+        buffer.put((byte) '-');
+        putDigits(date.getDayOfMonth(), 2);
+    }
+
+    private void putDigits(int value, int digits) {
+        for (int divisor = digits == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    private void putAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    private void putEscaped(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                switch (c) {
+                    case '|': putAscii(FileHandler.PIPE_ESCAPE); break;
+                    case '\n': putAscii(FileHandler.NL_ESCAPE); break;
+                    case '\r': putAscii(FileHandler.CR_ESCAPE); break;
+                    case '%': putAscii(FileHandler.PERCENT_ESCAPE); break;
+                    default: buffer.put((byte) c);
+                }
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+}
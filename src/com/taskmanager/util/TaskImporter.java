@@ -0,0 +1,230 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams a task file of any size into a consumer, in a fixed amount of memory.
+ *
+ * A reader thread splits the file into records and groups them into chunks of CHUNK_ROWS.
+ * Each chunk is parsed and validated on a pool with one thread per core, and its future
+ * goes into a queue holding two per thread; when the queue is full the reader waits, so
+ * at most that many chunks are in memory however far ahead the reader could get. The
+ * calling thread takes the chunks in file order, drops rows whose id an earlier row had,
+ * and hands each chunk's tasks to the consumer, which slows the whole pipeline down to
+ * its own pace.
+ *
+ * Only the ids seen so far are kept for the whole run, in a UuidTable. Rows that are not a
+ * valid task are counted in the report rather than failing the import; an unreadable file
+ * or a bad CSV header fails it with an IOException.
+ */
+public final class TaskImporter {
+    static final int CHUNK_ROWS = 4096;
+    // A chunk also ends after this many characters, so a few huge rows can't fill memory.
+    private static final int CHUNK_CHARS = 4 << 20;
+
+    private TaskImporter() {
+    }
+
+    public static TransferReport importTasks(Path path, TaskBatchConsumer consumer) throws IOException {
+        return importTasks(path, TransferFormat.detect(path), consumer);
+    }
+
+    public static TransferReport importTasks(Path path, TransferFormat format, TaskBatchConsumer consumer) throws IOException {
+        long started = System.nanoTime();
+        TransferReport report = new TransferReport(true);
+        long size = Files.size(path);
+        int threads = Runtime.getRuntime().availableProcessors();
+        try (CountingInputStream input = new CountingInputStream(Files.newInputStream(path))) {
+            RecordReader records = new RecordReader(new InputStreamReader(input, StandardCharsets.UTF_8), format.quotedRecords());
+            String first = records.next();
+            int[] columns = first == null ? null : format.readHeader(first);
+            // Without a header the first record is a task like the rest.
+            String pending = columns == null ? first : null;
+            long pendingLine = records.recordLine();
+
+            ExecutorService parsers = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "task-import-parser");
+                thread.setDaemon(true);
+                return thread;
+            });
+            BlockingQueue<CompletableFuture<ParsedChunk>> chunks = new ArrayBlockingQueue<>(threads * 2);
+            Thread reader = new Thread(() -> readChunks(records, pending, pendingLine, format, columns, input, size, parsers, chunks),
+                    "task-import-reader");
+            reader.setDaemon(true);
+            reader.start();
+            try {
+                UuidTable seen = new UuidTable();
+                while (true) {
+                    ParsedChunk chunk = chunks.take().join();
+                    if (chunk == null) break;
+                    // Valid and rejected rows are merged back in line order for the report.
+                    List<Task> batch = new ArrayList<>(chunk.tasks.size());
+                    int rejected = 0;
+                    for (int i = 0; i < chunk.tasks.size(); i++) {
+                        while (rejected < chunk.rejectedLines.size() && chunk.rejectedLines.get(rejected) < chunk.lines[i]) {
+                            report.rejected(chunk.rejectedLines.get(rejected), chunk.reasons.get(rejected));
+                            rejected++;
+                        }
+                        Task task = chunk.tasks.get(i);
+                        UUID id = task.getId();
+                        if (seen.get(id) >= 0) {
+                            report.duplicate(chunk.lines[i], id.toString());
+                        } else {
+                            seen.put(id, 0);
+                            batch.add(task);
+                            report.accepted(1);
+                        }
+                    }
+                    for (; rejected < chunk.rejectedLines.size(); rejected++) {
+                        report.rejected(chunk.rejectedLines.get(rejected), chunk.reasons.get(rejected));
+                    }
+                    consumer.accept(batch, chunk.progress);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Import interrupted");
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw e;
+            } finally {
+                // If the consumer failed, stop the reader and the chunks still queued.
+                reader.interrupt();
+                parsers.shutdownNow();
+            }
+        }
+        report.finished(System.nanoTime() - started);
+        if (report.getRejected() + report.getDuplicates() > 0) {
+            for (String problem : report.getProblems()) {
+                System.err.println("Import skipped " + problem);
+            }
+        }
+        return report;
+    }
+
+    // Runs on the reader thread. Ends the queue with a null chunk, or a failed one if reading fails.
+    private static void readChunks(RecordReader records, String first, long firstLine, TransferFormat format, int[] columns,
+                                   CountingInputStream input, long size, ExecutorService parsers,
+                                   BlockingQueue<CompletableFuture<ParsedChunk>> chunks) {
+        try {
+            try {
+                List<String> rows = new ArrayList<>(CHUNK_ROWS);
+                long[] lines = new long[CHUNK_ROWS];
+                int chars = 0;
+                if (first != null) {
+                    rows.add(first);
+                    lines[0] = firstLine;
+                    chars = first.length();
+                }
+                String record;
+                while ((record = records.next()) != null) {
+                    lines[rows.size()] = records.recordLine();
+                    rows.add(record);
+                    chars += record.length();
+                    if (rows.size() == CHUNK_ROWS || chars >= CHUNK_CHARS) {
+                        submit(rows, lines, format, columns, progress(input, size), parsers, chunks);
+                        rows = new ArrayList<>(CHUNK_ROWS);
+                        lines = new long[CHUNK_ROWS];
+                        chars = 0;
+                    }
+                }
+                submit(rows, lines, format, columns, 1, parsers, chunks);
+                chunks.put(CompletableFuture.completedFuture(null));
+            } catch (IOException e) {
+                CompletableFuture<ParsedChunk> failed = new CompletableFuture<>();
+                failed.completeExceptionally(new UncheckedIOException(e));
+                chunks.put(failed);
+            }
+        } catch (InterruptedException e) {
+            // The import was abandoned.
+        }
+    }
+
+    private static void submit(List<String> rows, long[] lines, TransferFormat format, int[] columns, double progress,
+                               ExecutorService parsers, BlockingQueue<CompletableFuture<ParsedChunk>> chunks)
+            throws InterruptedException {
+        chunks.put(CompletableFuture.supplyAsync(() -> parse(rows, lines, format, columns, progress), parsers));
+    }
+
+    private static double progress(CountingInputStream input, long size) {
+        return size == 0 ? 1 : Math.min(1, (double) input.count / size);
+    }
+
+    private static ParsedChunk parse(List<String> rows, long[] lines, TransferFormat format, int[] columns, double progress) {
+        ParsedChunk chunk = new ParsedChunk(rows.size(), progress);
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                chunk.lines[chunk.tasks.size()] = lines[i];
+                chunk.tasks.add(format.parseRow(rows.get(i), columns));
+            } catch (DateTimeParseException e) {
+                chunk.reject(lines[i], "the due date is not a yyyy-mm-dd date");
+            } catch (IllegalArgumentException e) {
+                chunk.reject(lines[i], e.getMessage());
+            }
+        }
+        return chunk;
+    }
+
+    private static final class ParsedChunk {
+        final List<Task> tasks;
+        final long[] lines; // line of each task
+        final List<Long> rejectedLines = new ArrayList<>();
+        final List<String> reasons = new ArrayList<>();
+        final double progress;
+
+        ParsedChunk(int rows, double progress) {
+            this.tasks = new ArrayList<>(rows);
+            this.lines = new long[rows];
+            this.progress = progress;
+        }
+
+        void reject(long line, String reason) {
+            rejectedLines.add(line);
+            reasons.add(reason);
+        }
+    }
+
+    // Bytes taken from the file so far, read ahead of the records by at most two buffers.
+    private static final class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+    }
+}
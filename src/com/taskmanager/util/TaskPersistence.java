@@ -0,0 +1,51 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+// How the task list gets to and from disk.
+public interface TaskPersistence {
+
+    List<Task> load() throws IOException;
+
+    // Reads the same list as load() but hands it over in batches as it is read, so the
+    // start of a large list can be shown before the end is in. Nothing is handed over twice.
+    // The default reads everything first and hands it over in one go.
+    default void load(TaskBatchConsumer consumer) throws IOException {
+        consumer.accept(load(), 1);
+    }
+
+    // Writes the full list, replacing whatever is stored.
+    void saveAll(List<Task> tasks) throws IOException;
+
+    // Records changes that have already been applied in memory. The snapshot supplier
+    // returns the current full list for implementations that need it.
+    void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) throws IOException;
+
+    // Makes everything written so far durable.
+    default void flush() throws IOException {
+    }
+
+    // Changes other programs have made to the stored list since the last load, read or full
+    // save, for a store shared between several running copies of the app. Null means they
+    // can't be told apart any more and the list has to be loaded again. The default, for a
+    // store only this program uses, never has any.
+    default List<TaskChange> readExternalChanges() throws IOException {
+        return Collections.emptyList();
+    }
+
+    // Whether readExternalChanges has anything to hand out, judged quickly from the files
+    // without waiting for other programs; true when unsure.
+    default boolean hasExternalChanges() throws IOException {
+        return false;
+    }
+
+    default void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,236 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Parses data file lines straight out of a ByteBuffer, with the same results as
+ * FileHandler.parseTask. Fields are found by scanning for the separator, escapes are undone
+ * while the bytes are copied into a reused scratch array, and each text field is decoded
+ * into its String once. Apart from the Task and its two strings a line allocates nothing,
+ * except on the slow paths for ids and dates in an unusual form.
+ *
+ * Positions are absolute indexes into the buffer; its position and limit are left alone.
+ * One instance per thread.
+ */
+final class TaskRecordDecoder {
+    static final int FIELD_COUNT = 6;
+
+    private static final byte[] PIPE_ESCAPE = FileHandler.PIPE_ESCAPE.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NL_ESCAPE = FileHandler.NL_ESCAPE.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CR_ESCAPE = FileHandler.CR_ESCAPE.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PERCENT_ESCAPE = FileHandler.PERCENT_ESCAPE.getBytes(StandardCharsets.US_ASCII);
+
+    private ByteBuffer buffer;
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private byte[] scratch = new byte[256];
+
+    TaskRecordDecoder(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    // For a reader that moves on to a bigger buffer.
+    void setBuffer(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    // Null for a blank line or one with fewer than six fields; throws like parseTask when a
+    // field can't be parsed. end is exclusive and excludes the line terminator.
+    Task decode(int start, int end) {
+        if (isBlank(start, end)) return null;
+
+        // Mirrors line.split("\\|"): trailing empty fields don't count.
+        int fields = 0;
+        int lastNonEmpty = 0;
+        int fieldBegin = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == '|') {
+                if (fields < FIELD_COUNT) {
+                    fieldStart[fields] = fieldBegin;
+                    fieldEnd[fields] = i;
+                }
+                fields++;
+                if (i > fieldBegin) lastNonEmpty = fields;
+                fieldBegin = i + 1;
+            }
+        }
+        if (lastNonEmpty < FIELD_COUNT) return null;
+
+        UUID id = parseId(fieldStart[0], fieldEnd[0]);
+        String title = decodeText(fieldStart[1], fieldEnd[1]);
+        String description = decodeText(fieldStart[2], fieldEnd[2]);
+        Priority priority = parsePriority(fieldStart[3], fieldEnd[3]);
+        LocalDate dueDate = parseDate(fieldStart[4], fieldEnd[4]);
+        boolean isCompleted = parseBoolean(fieldStart[5], fieldEnd[5]);
+
+        return new Task(id, title, description, priority, dueDate, isCompleted);
+    }
+
+    // The raw line, for reporting one that couldn't be parsed.
+    String text(int start, int end, Charset charset) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, charset);
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((buffer.get(i) & 0xFF) > ' ') return false;
+        }
+        return true;
+    }
+
+    private UUID parseId(int start, int end) {
+        if (end - start == 36) {
+            long high = 0;
+            long low = 0;
+            int digits = 0;
+            for (int i = start; i < end; i++) {
+                int offset = i - start;
+                byte b = buffer.get(i);
+                if (offset == 8 || offset == 13 || offset == 18 || offset == 23) {
+                    if (b != '-') return UUID.fromString(text(start, end, StandardCharsets.ISO_8859_1));
+                    continue;
+                }
+                int value = Character.digit(b, 16);
+                if (value < 0) return UUID.fromString(text(start, end, StandardCharsets.ISO_8859_1));
+                if (digits < 16) {
+                    high = (high << 4) | value;
+                } else {
+                    low = (low << 4) | value;
+                }
+                digits++;
+            }
+            return new UUID(high, low);
+        }
+        return UUID.fromString(text(start, end, StandardCharsets.ISO_8859_1));
+    }
+
+    // Undoes FileHandler's escaping while copying the bytes out, then decodes once.
+    private String decodeText(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        int out = 0;
+        int i = start;
+        while (i < end) {
+            byte b = buffer.get(i);
+            if (b == '%') {
+                if (matches(i, end, PIPE_ESCAPE)) {
+                    scratch[out++] = '|';
+                    i += PIPE_ESCAPE.length;
+                    continue;
+                }
+                if (matches(i, end, NL_ESCAPE)) {
+                    scratch[out++] = '\n';
+                    i += NL_ESCAPE.length;
+                    continue;
+                }
+                if (matches(i, end, CR_ESCAPE)) {
+                    scratch[out++] = '\r';
+                    i += CR_ESCAPE.length;
+                    continue;
+                }
+                if (matches(i, end, PERCENT_ESCAPE)) {
+                    scratch[out++] = '%';
+                    i += PERCENT_ESCAPE.length;
+                    continue;
+                }
+            }
+            scratch[out++] = b;
+            i++;
+        }
+        return new String(scratch, 0, out, isUtf8(scratch, out) ? StandardCharsets.UTF_8 : FileHandler.LEGACY_CHARSET);
+    }
+
+    // Whether the bytes are well-formed UTF-8; only text written before the data file was
+    // UTF-8 isn't. ASCII, the common case, is one comparison per byte.
+    static boolean isUtf8(byte[] bytes, int length) {
+        int i = 0;
+        while (i < length) {
+            int b = bytes[i++] & 0xFF;
+            if (b < 0x80) continue;
+            int continuation;
+            if (b >= 0xC2 && b <= 0xDF) {
+                continuation = 1;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                continuation = 2;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                continuation = 3;
+            } else {
+                return false;
+            }
+            if (i + continuation > length) return false;
+            for (int j = 0; j < continuation; j++) {
+                if ((bytes[i++] & 0xC0) != 0x80) return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(int position, int end, byte[] pattern) {
+        if (end - position < pattern.length) return false;
+        for (int j = 0; j < pattern.length; j++) {
+            if (buffer.get(position + j) != pattern[j]) return false;
+        }
+        return true;
+    }
+
+    private Priority parsePriority(int start, int end) {
+        Priority[] values = Priority.values();
+        for (Priority priority : values) {
+            if (equalsAscii(start, end, priority.name(), false)) return priority;
+        }
+        return Priority.valueOf(text(start, end, StandardCharsets.UTF_8));
+    }
+
+    // Fast path for plain yyyy-MM-dd; anything unusual goes through LocalDate.parse.
+    private LocalDate parseDate(int start, int end) {
+        if (end - start == 10 && buffer.get(start + 4) == '-' && buffer.get(start + 7) == '-') {
+            int year = digits(start, 4);
+            int month = digits(start + 5, 2);
+            int day = digits(start + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (DateTimeException e) {
+                    // fall through so the error matches LocalDate.parse
+                }
+            }
+        }
+        return LocalDate.parse(text(start, end, StandardCharsets.UTF_8));
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private boolean parseBoolean(int start, int end) {
+        return equalsAscii(start, end, "true", true);
+    }
+
+    private boolean equalsAscii(int start, int end, String expected, boolean ignoreCase) {
+        if (end - start != expected.length()) return false;
+        for (int i = 0; i < expected.length(); i++) {
+            int b = buffer.get(start + i);
+            int c = expected.charAt(i);
+            if (b != c && !(ignoreCase && Character.toLowerCase(b) == c)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,253 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * File formats for importing and exporting tasks.
+ *
+ * PIPE is the data file's own line format. CSV is RFC 4180: a header row naming the
+ * columns, then one record per task, with fields holding commas, quotes or line breaks in
+ * double quotes. On import the columns may come in any order and only title and dueDate
+ * are required; a missing id gets a new one, a missing priority is MEDIUM and a missing
+ * completed flag is false. Export writes all six columns.
+ */
+public enum TransferFormat {
+    PIPE {
+        @Override
+        int[] readHeader(String firstRecord) {
+            return null;
+        }
+
+        @Override
+        Task parseRow(String record, int[] columns) {
+            Task task = FileHandler.parseTask(record);
+            if (task == null) {
+                throw new IllegalArgumentException("expected 6 fields separated by |");
+            }
+            requireTitle(task.getTitle());
+            return task;
+        }
+
+        @Override
+        void writeHeader(Writer writer) {
+        }
+
+        @Override
+        void writeRow(Writer writer, Task task) throws IOException {
+            writer.write(FileHandler.formatTask(task));
+            writer.write('\n');
+        }
+    },
+    CSV {
+        @Override
+        int[] readHeader(String firstRecord) throws IOException {
+            List<String> names;
+            try {
+                names = splitCsv(firstRecord);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("The CSV header is malformed: " + e.getMessage());
+            }
+            int[] columns = new int[COLUMNS.length + 1];
+            Arrays.fill(columns, -1);
+            for (int i = 0; i < names.size(); i++) {
+                int column = column(names.get(i));
+                if (column >= 0) columns[column] = i;
+            }
+            if (columns[TITLE] < 0 || columns[DUE_DATE] < 0) {
+                throw new IOException("The CSV header must have title and dueDate columns: " + firstRecord);
+            }
+            columns[COLUMNS.length] = names.size();
+            return columns;
+        }
+
+        @Override
+        Task parseRow(String record, int[] columns) {
+            List<String> fields = splitCsv(record);
+            int expected = columns[COLUMNS.length];
+            if (fields.size() != expected) {
+                throw new IllegalArgumentException("expected " + expected + " fields, found " + fields.size());
+            }
+            String id = field(fields, columns[ID]);
+            String title = field(fields, columns[TITLE]);
+            String priority = field(fields, columns[PRIORITY]).trim();
+            String completed = field(fields, columns[COMPLETED]).trim();
+            requireTitle(title);
+            return new Task(id.trim().isEmpty() ? UUID.randomUUID() : UUID.fromString(id.trim()),
+                    title,
+                    field(fields, columns[DESCRIPTION]),
+                    priority.isEmpty() ? Priority.MEDIUM : parsePriority(priority),
+                    LocalDate.parse(field(fields, columns[DUE_DATE]).trim()),
+                    !completed.isEmpty() && parseFlag(completed));
+        }
+
+        @Override
+        void writeHeader(Writer writer) throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        void writeRow(Writer writer, Task task) throws IOException {
+            writer.write(task.getId().toString());
+            writer.write(',');
+            writeCsvField(writer, task.getTitle());
+            writer.write(',');
+            writeCsvField(writer, task.getDescription());
+            writer.write(',');
+            writer.write(task.getPriority().name());
+            writer.write(',');
+            writer.write(task.getDueDate().toString());
+            writer.write(',');
+            writer.write(String.valueOf(task.isCompleted()));
+            writer.write("\r\n");
+        }
+    };
+
+    private static final String[] COLUMNS = {"id", "title", "description", "priority", "dueDate", "completed"};
+    private static final int ID = 0;
+    private static final int TITLE = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int PRIORITY = 3;
+    private static final int DUE_DATE = 4;
+    private static final int COMPLETED = 5;
+
+    // CSV if the first line names a title column, which a data file line never does.
+    public static TransferFormat detect(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String first = reader.readLine();
+            if (first != null) {
+                for (String name : first.split(",")) {
+                    if (column(name.replace("\"", "")) == TITLE) return CSV;
+                }
+            }
+            return PIPE;
+        }
+    }
+
+    // Whether a line break inside double quotes continues the record.
+    boolean quotedRecords() {
+        return this == CSV;
+    }
+
+    // Column positions taken from the first record, or null if the format has no header.
+    abstract int[] readHeader(String firstRecord) throws IOException;
+
+    // Throws IllegalArgumentException or DateTimeParseException, with a message fit for the
+    // import report, if the record is not a valid task.
+    abstract Task parseRow(String record, int[] columns);
+
+    abstract void writeHeader(Writer writer) throws IOException;
+
+    abstract void writeRow(Writer writer, Task task) throws IOException;
+
+    private static void requireTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("the title is empty");
+        }
+    }
+
+    // Header names match ignoring case, spaces and underscores, so due_date and "Due Date"
+    // work; a byte order mark left by spreadsheet programs is ignored too.
+    private static int column(String name) {
+        String key = name.replace("\uFEFF", "").trim().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (COLUMNS[i].toLowerCase(Locale.ROOT).equals(key)) return i;
+        }
+        return -1;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < 0 ? "" : fields.get(index);
+    }
+
+    private static Priority parsePriority(String value) {
+        try {
+            return Priority.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("the priority is not LOW, MEDIUM or HIGH: " + value);
+        }
+    }
+
+    private static boolean parseFlag(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true": case "yes": case "1":
+                return true;
+            case "false": case "no": case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("completed is not true or false: " + value);
+        }
+    }
+
+    // One RFC 4180 record, without its line break, into its fields.
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        int length = record.length();
+        while (true) {
+            field.setLength(0);
+            if (i < length && record.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw new IllegalArgumentException("a quoted field is not closed");
+                    }
+                    char c = record.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < length && record.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < length && record.charAt(i) != ',') {
+                    throw new IllegalArgumentException("text after a closing quote");
+                }
+            } else {
+                int end = record.indexOf(',', i);
+                if (end < 0) end = length;
+                if (record.indexOf('"', i) >= 0 && record.indexOf('"', i) < end) {
+                    throw new IllegalArgumentException("a quote inside an unquoted field");
+                }
+                field.append(record, i, end);
+                i = end;
+            }
+            fields.add(field.toString());
+            if (i >= length) return fields;
+            i++; // the comma
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
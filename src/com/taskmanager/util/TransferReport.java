@@ -0,0 +1,92 @@
+package com.taskmanager.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// What an import or export did: rows seen, rows taken, rows turned away and how fast it
+// went. Only the first MAX_PROBLEMS rejected rows are described; the rest are counted.
+public class TransferReport {
+    public static final int MAX_PROBLEMS = 100;
+
+    private final boolean importing;
+    private long rows;
+    private long transferred;
+    private long rejected;
+    private long duplicates;
+    private long elapsedNanos;
+    private final List<String> problems = new ArrayList<>();
+
+    TransferReport(boolean importing) {
+        this.importing = importing;
+    }
+
+    void accepted(long count) {
+        rows += count;
+        transferred += count;
+    }
+
+    void rejected(long line, String reason) {
+        rows++;
+        rejected++;
+        describe(line, reason);
+    }
+
+    void duplicate(long line, String id) {
+        rows++;
+        duplicates++;
+        describe(line, "duplicate id " + id);
+    }
+
+    void finished(long nanos) {
+        elapsedNanos = nanos;
+    }
+
+    private void describe(long line, String reason) {
+        if (problems.size() < MAX_PROBLEMS) {
+            problems.add("line " + line + ": " + reason);
+        }
+    }
+
+    // Rows read from the file, or tasks written to it.
+    public long getRows() {
+        return rows;
+    }
+
+    // Tasks handed on by an import, or written by an export.
+    public long getTransferred() {
+        return transferred;
+    }
+
+    // Rows that are not a valid task.
+    public long getRejected() {
+        return rejected;
+    }
+
+    // Rows whose id an earlier row already had; the first one wins.
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+
+    public List<String> getProblems() {
+        return Collections.unmodifiableList(problems);
+    }
+
+    @Override
+    public String toString() {
+        String summary = String.format("%s %,d of %,d rows in %.1f s (%,.0f rows/s)",
+                importing ? "Imported" : "Exported", transferred, rows, elapsedNanos / 1e9, getRowsPerSecond());
+        if (rejected > 0 || duplicates > 0) {
+            summary += String.format("; %,d rejected, %,d duplicate ids", rejected, duplicates);
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,100 @@
+package com.taskmanager.util;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+// Maps task ids to non-negative ints, with open addressing and linear probing over the two
+// halves of the id, so a million ids take about 40 MB rather than the 80 MB of a HashMap of
+// UUIDs. Not thread safe.
+public final class UuidTable {
+    private long[] high = new long[16];
+    private long[] low = new long[16];
+    private int[] slots = filled(16);
+    private int size;
+
+    // -1 if the id is absent.
+    public int get(UUID id) {
+        int mask = slots.length - 1;
+        for (int i = index(id, mask); slots[i] >= 0; i = (i + 1) & mask) {
+            if (high[i] == id.getMostSignificantBits() && low[i] == id.getLeastSignificantBits()) {
+                return slots[i];
+            }
+        }
+        return -1;
+    }
+
+    public void put(UUID id, int value) {
+        if ((size + 1) * 4 > slots.length * 3) {
+            grow();
+        }
+        int mask = slots.length - 1;
+        int i = index(id, mask);
+        for (; slots[i] >= 0; i = (i + 1) & mask) {
+            if (high[i] == id.getMostSignificantBits() && low[i] == id.getLeastSignificantBits()) {
+                slots[i] = value;
+                return;
+            }
+        }
+        high[i] = id.getMostSignificantBits();
+        low[i] = id.getLeastSignificantBits();
+        slots[i] = value;
+        size++;
+    }
+
+    public void remove(UUID id) {
+        int mask = slots.length - 1;
+        int i = index(id, mask);
+        while (slots[i] >= 0 && !(high[i] == id.getMostSignificantBits() && low[i] == id.getLeastSignificantBits())) {
+            i = (i + 1) & mask;
+        }
+        if (slots[i] < 0) return;
+        // Shift later entries of the run back so no lookup stops short at the hole.
+        int hole = i;
+        for (int j = (hole + 1) & mask; slots[j] >= 0; j = (j + 1) & mask) {
+            int home = index(high[j], low[j], mask);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                high[hole] = high[j];
+                low[hole] = low[j];
+                slots[hole] = slots[j];
+                hole = j;
+            }
+        }
+        slots[hole] = -1;
+        size--;
+    }
+
+    private void grow() {
+        long[] oldHigh = high;
+        long[] oldLow = low;
+        int[] oldSlots = slots;
+        high = new long[oldSlots.length * 2];
+        low = new long[oldSlots.length * 2];
+        slots = filled(oldSlots.length * 2);
+        int mask = slots.length - 1;
+        for (int j = 0; j < oldSlots.length; j++) {
+            if (oldSlots[j] < 0) continue;
+            int i = index(oldHigh[j], oldLow[j], mask);
+            while (slots[i] >= 0) {
+                i = (i + 1) & mask;
+            }
+            high[i] = oldHigh[j];
+            low[i] = oldLow[j];
+            slots[i] = oldSlots[j];
+        }
+    }
+
+    private static int index(UUID id, int mask) {
+        return index(id.getMostSignificantBits(), id.getLeastSignificantBits(), mask);
+    }
+
+    private static int index(long high, long low, int mask) {
+        long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private static int[] filled(int length) {
+        int[] slots = new int[length];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+}
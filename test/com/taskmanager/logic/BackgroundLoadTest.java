@@ -0,0 +1,157 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.util.TaskBatchConsumer;
+import com.taskmanager.util.TaskPersistence;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackgroundLoadTest {
+
+    // Edits made before the load is done show up at once, survive every later publish, and
+    // are written in one go once the whole list is in.
+    @Test
+    void editsMadeWhileLoadingAreKept() throws Exception {
+        List<Task> stored = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            stored.add(new Task(new UUID(0, i), "task " + i, "", Priority.LOW, LocalDate.of(2025, 1, 1).plusDays(i), false));
+        }
+        GatedPersistence persistence = new GatedPersistence();
+        TaskManager manager = new TaskManager(persistence, false);
+        List<TaskChange> heard = new CopyOnWriteArrayList<>();
+        manager.addChangeListener(heard::addAll);
+        CountDownLatch finished = new CountDownLatch(1);
+        int[] total = new int[1];
+
+        persistence.batches.put(stored.subList(0, 10));
+        manager.loadTasksInBackground(new TaskLoadListener() {
+            @Override
+            public void loadProgress(int tasksRead, double fractionRead, boolean published) {
+            }
+
+            @Override
+            public void loadFinished(int totalTasks, IOException error) {
+                total[0] = totalTasks;
+                finished.countDown();
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (manager.getTotalTasks() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(10, manager.getTotalTasks());
+        assertTrue(manager.isLoading());
+
+        Task added = new Task("added while loading", "", Priority.HIGH, LocalDate.of(2025, 6, 1));
+        manager.addTask(added);
+        manager.updateTask(edited(stored.get(1)));
+        manager.deleteTask(stored.get(2));
+        assertEquals(3, heard.size());
+        assertEquals("task 1 edited", manager.getTask(stored.get(1).getId()).getTitle());
+        assertNull(manager.getTask(stored.get(2).getId()));
+        assertTrue(persistence.writes.isEmpty(), "written before the load ended");
+
+        // A task that hasn't been read yet can't be updated until it arrives.
+        Thread late = new Thread(() -> manager.updateTask(edited(stored.get(25))));
+        late.start();
+        late.join(200);
+        assertTrue(late.isAlive(), "update of an unread task didn't wait");
+
+        persistence.batches.put(stored.subList(10, 20));
+        persistence.batches.put(stored.subList(20, 30));
+        persistence.batches.put(new ArrayList<Task>());
+        late.join(5000);
+        assertFalse(late.isAlive());
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertFalse(manager.isLoading());
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            if (i == 2) continue;
+            expected.add(i == 1 || i == 25 ? "task " + i + " edited" : "task " + i);
+        }
+        expected.add("added while loading");
+        assertEquals(expected, titles(manager.getAllTasks()));
+        assertEquals(expected.size(), total[0]);
+
+        assertEquals(4, heard.size());
+        List<TaskChange> written = new ArrayList<>();
+        for (List<TaskChange> write : persistence.writes) {
+            written.addAll(write);
+        }
+        assertEquals(4, written.size());
+        assertEquals(TaskChange.Type.ADDED, written.get(0).getType());
+        assertEquals(added.getId(), written.get(0).getTask().getId());
+        assertEquals(TaskChange.Type.UPDATED, written.get(1).getType());
+        assertEquals(TaskChange.Type.DELETED, written.get(2).getType());
+        assertEquals(stored.get(25).getId(), written.get(3).getTask().getId());
+    }
+
+    private static Task edited(Task task) {
+        Task copy = new Task(task);
+        copy.setTitle(task.getTitle() + " edited");
+        return copy;
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        List<String> titles = new ArrayList<>();
+        for (Task task : tasks) {
+            titles.add(task.getTitle());
+        }
+        return titles;
+    }
+
+    // Hands over each batch the test puts in the queue; an empty batch ends the load.
+    private static class GatedPersistence implements TaskPersistence {
+        final BlockingQueue<List<Task>> batches = new LinkedBlockingQueue<>();
+        final List<List<TaskChange>> writes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public List<Task> load() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void load(TaskBatchConsumer consumer) throws IOException {
+            int read = 0;
+            while (true) {
+                List<Task> batch;
+                try {
+                    batch = batches.take();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                if (batch.isEmpty()) return;
+                read += batch.size();
+                consumer.accept(new ArrayList<>(batch), read / 30.0);
+            }
+        }
+
+        @Override
+        public void saveAll(List<Task> tasks) {
+        }
+
+        @Override
+        public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) {
+            writes.add(new ArrayList<>(changes));
+        }
+    }
+}
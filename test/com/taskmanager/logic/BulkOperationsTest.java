@@ -0,0 +1,132 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.util.TaskPersistence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkOperationsTest {
+    private final List<List<TaskChange>> writes = new ArrayList<>();
+    private final List<List<TaskChange>> heard = new ArrayList<>();
+    private TaskManager manager;
+    private List<Task> seed;
+
+    @BeforeEach
+    void setUp() {
+        seed = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            seed.add(new Task("task " + i, "", Priority.MEDIUM, LocalDate.of(2025, 1, 1).plusDays(i)));
+        }
+        seed.get(3).setCompleted(true);
+        manager = new TaskManager(new RecordingPersistence(seed));
+        manager.addChangeListener(changes -> heard.add(new ArrayList<>(changes)));
+    }
+
+    @Test
+    void addAllIsOneChange() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(new Task("new " + i, "", Priority.HIGH, LocalDate.of(2025, 2, 1)));
+        }
+        assertEquals(5, manager.addAll(batch));
+        assertOneChangeOf(5, TaskChange.Type.ADDED);
+        assertEquals(15, manager.getTotalTasks());
+        assertEquals("new 4", manager.getAllTasks().get(14).getTitle());
+    }
+
+    @Test
+    void updateAllSkipsUnknownIds() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Task task = new Task(seed.get(i));
+            task.setPriority(Priority.LOW);
+            batch.add(task);
+        }
+        batch.add(new Task("stranger", "", Priority.LOW, LocalDate.of(2025, 3, 1)));
+        assertEquals(4, manager.updateAll(batch));
+        assertOneChangeOf(4, TaskChange.Type.UPDATED);
+        assertEquals(4, manager.getTaskCount(Priority.LOW));
+        assertEquals(10, manager.getTotalTasks());
+    }
+
+    @Test
+    void deleteAllIsOneChange() {
+        assertEquals(3, manager.deleteAll(seed.subList(0, 3)));
+        assertOneChangeOf(3, TaskChange.Type.DELETED);
+        assertEquals(7, manager.getTotalTasks());
+        assertNull(manager.getTask(seed.get(0).getId()));
+    }
+
+    // Works from the stored tasks: the caller's stale title doesn't overwrite the stored one.
+    @Test
+    void completeAllSkipsTasksAlreadyDone() {
+        List<Task> selected = new ArrayList<>();
+        for (int i = 2; i < 6; i++) {
+            Task stale = new Task(seed.get(i));
+            stale.setTitle("stale");
+            selected.add(stale);
+        }
+        assertEquals(3, manager.completeAll(selected));
+        assertOneChangeOf(3, TaskChange.Type.UPDATED);
+        assertEquals(4, manager.getCompletedTasks());
+        for (int i = 2; i < 6; i++) {
+            Task stored = manager.getTask(seed.get(i).getId());
+            assertTrue(stored.isCompleted());
+            assertEquals("task " + i, stored.getTitle());
+        }
+    }
+
+    @Test
+    void nothingToDoFiresNothing() {
+        assertEquals(0, manager.deleteAll(List.of(new Task("stranger", "", Priority.LOW, LocalDate.of(2025, 3, 1)))));
+        assertEquals(0, manager.completeAll(List.of(seed.get(3))));
+        assertEquals(0, manager.addAll(new ArrayList<Task>()));
+        assertTrue(writes.isEmpty());
+        assertTrue(heard.isEmpty());
+        assertFalse(manager.getAllTasks().isEmpty());
+    }
+
+    private void assertOneChangeOf(int size, TaskChange.Type type) {
+        assertEquals(1, writes.size(), "writes");
+        assertEquals(1, heard.size(), "listener calls");
+        assertEquals(size, writes.get(0).size());
+        assertEquals(size, heard.get(0).size());
+        for (TaskChange change : writes.get(0)) {
+            assertEquals(type, change.getType());
+        }
+    }
+
+    private class RecordingPersistence implements TaskPersistence {
+        private final List<Task> initial;
+
+        RecordingPersistence(List<Task> initial) {
+            this.initial = initial;
+        }
+
+        @Override
+        public List<Task> load() {
+            return new ArrayList<>(initial);
+        }
+
+        @Override
+        public void saveAll(List<Task> tasks) {
+        }
+
+        @Override
+        public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) {
+            writes.add(new ArrayList<>(changes));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LiveTaskViewTest {
+    private static final String[] TITLES = {
+        "report", "weekly report", "reports due", "report draft for the board", "rport", "repo",
+        "import data", "quarterly reporting", "sport", "call the plumber", "report report"
+    };
+
+    @Test
+    void rankedViewKeepsTheTopRows() {
+        Random random = new Random(5);
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            seed.add(randomTask(random));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+        TaskQuery query = new TaskQuery().text("report").sortBy(TaskQuery.SortKey.RELEVANCE).limit(20);
+        LiveTaskView view = manager.openView(query);
+        List<UUID> shown = ids(rows(view));
+        LiveTaskView.RowListener table = new LiveTaskView.RowListener() {
+            public void rowInserted(int row) { shown.add(row, view.get(row).getId()); }
+            public void rowUpdated(int row) { shown.set(row, view.get(row).getId()); }
+            public void rowDeleted(int row) { shown.remove(row); }
+        };
+        manager.addChangeListener(changes -> {
+            for (TaskChange change : changes) {
+                view.apply(change, table);
+            }
+        });
+
+        for (int i = 0; i < 1000; i++) {
+            List<Task> all = manager.getAllTasks();
+            Task target = all.get(random.nextInt(all.size()));
+            int op = random.nextInt(3);
+            if (op == 0) {
+                manager.deleteTask(target);
+            } else if (op == 1) {
+                Task edited = new Task(target);
+                edited.setTitle(TITLES[random.nextInt(TITLES.length)]);
+                manager.updateTask(edited);
+            } else {
+                manager.addTask(randomTask(random));
+            }
+            List<UUID> expected = ids(manager.query(query).getTasks());
+            assertEquals(expected, ids(rows(view)), "view after change " + i);
+            assertEquals(expected, shown, "rows reported after change " + i);
+        }
+    }
+
+    private static Task randomTask(Random random) {
+        return new Task(TITLES[random.nextInt(TITLES.length)], "", Priority.MEDIUM, LocalDate.of(2025, 3, 1));
+    }
+
+    private static List<Task> rows(LiveTaskView view) {
+        List<Task> rows = new ArrayList<>();
+        for (int row = 0; row < view.size(); row++) {
+            rows.add(view.get(row));
+        }
+        return rows;
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        List<UUID> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
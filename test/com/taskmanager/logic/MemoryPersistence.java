@@ -0,0 +1,35 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.util.TaskPersistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Starts from the given tasks and keeps nothing; for tests that only look at memory.
+class MemoryPersistence implements TaskPersistence {
+    private final List<Task> initial;
+
+    MemoryPersistence() {
+        this(new ArrayList<>());
+    }
+
+    MemoryPersistence(List<Task> initial) {
+        this.initial = initial;
+    }
+
+    @Override
+    public List<Task> load() {
+        return new ArrayList<>(initial);
+    }
+
+    @Override
+    public void saveAll(List<Task> tasks) {
+    }
+
+    @Override
+    public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) {
+    }
+}
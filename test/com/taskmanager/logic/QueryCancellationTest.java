@@ -0,0 +1,46 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryCancellationTest {
+    private final TaskManager manager = new TaskManager(new MemoryPersistence(tasks(20000)));
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    void interruptedQueriesStop() {
+        Thread.currentThread().interrupt();
+        assertThrows(CancellationException.class, () -> manager.query(new TaskQuery().text("report")));
+        assertThrows(CancellationException.class, () -> manager.query(new TaskQuery().text("re")));
+        assertThrows(CancellationException.class, () -> manager.query(new TaskQuery().sortBy(TaskQuery.SortKey.PRIORITY)));
+        assertThrows(CancellationException.class,
+                () -> manager.query(new TaskQuery().text("reprot").sortBy(TaskQuery.SortKey.RELEVANCE)));
+    }
+
+    @Test
+    void queriesRunNormallyOtherwise() {
+        assertEquals(20000, manager.query(new TaskQuery().text("report")).getTotalMatches());
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task("Weekly report " + i, "", Priority.MEDIUM, LocalDate.of(2025, 1, 1).plusDays(i % 90)));
+        }
+        return tasks;
+    }
+}
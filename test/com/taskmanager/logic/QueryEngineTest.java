@@ -0,0 +1,123 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryEngineTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final String[] WORDS = {"report", "budget", "review", "call", "plan"};
+    private static final String[] TEXTS = {null, "", "rep", "BUDGET", "view", "an", "zzz"};
+
+    // Whatever source the planner drives from, the page must be the one a full stable sort would cut.
+    @Test
+    void samePageAsAFullSort() {
+        Random random = new Random(8);
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            seed.add(randomTask(random));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+        List<Task> all = manager.getAllTasks();
+
+        for (int i = 0; i < 500; i++) {
+            TaskQuery query = new TaskQuery().text(TEXTS[random.nextInt(TEXTS.length)]);
+            if (random.nextBoolean()) {
+                Priority[] priorities = Priority.values();
+                query.priority(priorities[random.nextInt(priorities.length)]);
+            }
+            if (random.nextBoolean()) query.completed(random.nextBoolean());
+            if (random.nextBoolean()) {
+                LocalDate from = random.nextInt(3) == 0 ? null : START.plusDays(random.nextInt(400));
+                LocalDate to = random.nextInt(3) == 0 ? null : START.plusDays(random.nextInt(400));
+                query.dueBetween(from, to);
+            }
+            TaskQuery.SortKey[] keys = {TaskQuery.SortKey.LIST_ORDER, TaskQuery.SortKey.DUE_DATE, TaskQuery.SortKey.PRIORITY};
+            query.sortBy(keys[random.nextInt(keys.length)]);
+            int offset = random.nextInt(4) == 0 ? 0 : random.nextInt(200);
+            int limit = random.nextInt(4) == 0 ? -1 : random.nextInt(50);
+            query.offset(offset).limit(limit);
+
+            List<Task> expected = fullSort(all, query);
+            QueryResult result = manager.query(query);
+            int end = limit < 0 ? expected.size() : Math.min(expected.size(), offset + limit);
+            List<Task> page = offset >= expected.size() ? new ArrayList<Task>() : expected.subList(offset, end);
+            assertEquals(expected.size(), result.getTotalMatches(), "total for query " + i);
+            assertEquals(ids(page), ids(result.getTasks()), "page for query " + i);
+        }
+    }
+
+    @Test
+    void sortMethodsLeaveTheListAlone() {
+        Random random = new Random(80);
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            seed.add(randomTask(random));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+        List<UUID> before = ids(manager.getAllTasks());
+
+        assertEquals(ids(fullSort(manager.getAllTasks(), new TaskQuery().sortBy(TaskQuery.SortKey.DUE_DATE))),
+                ids(manager.sortTasksByDate()));
+        assertEquals(ids(fullSort(manager.getAllTasks(), new TaskQuery().sortBy(TaskQuery.SortKey.PRIORITY))),
+                ids(manager.sortTasksByPriority()));
+        assertEquals(before, ids(manager.getAllTasks()));
+    }
+
+    @Test
+    void negativeOffsetIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TaskQuery().offset(-1));
+    }
+
+    // The old way: filter everything, then a stable sort.
+    private static List<Task> fullSort(List<Task> all, TaskQuery query) {
+        List<Task> matches = new ArrayList<>();
+        String text = query.getText();
+        boolean hasText = text != null && !text.trim().isEmpty();
+        for (Task task : all) {
+            if (hasText && !task.getTitle().toLowerCase().contains(text.toLowerCase())
+                    && !task.getDescription().toLowerCase().contains(text.toLowerCase())) continue;
+            if (query.getPriority() != null && task.getPriority() != query.getPriority()) continue;
+            if (query.getCompleted() != null && task.isCompleted() != query.getCompleted()) continue;
+            if (query.getDueFrom() != null && task.getDueDate().isBefore(query.getDueFrom())) continue;
+            if (query.getDueTo() != null && task.getDueDate().isAfter(query.getDueTo())) continue;
+            matches.add(task);
+        }
+        switch (query.getSortKey()) {
+            case DUE_DATE:
+                matches.sort(Comparator.comparing(Task::getDueDate));
+                break;
+            case PRIORITY:
+                matches.sort(Comparator.comparing(Task::getPriority).reversed());
+                break;
+            default:
+                break;
+        }
+        return matches;
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        List<UUID> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    private static Task randomTask(Random random) {
+        Priority[] priorities = Priority.values();
+        return new Task(new UUID(random.nextLong(), random.nextLong()),
+                WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(100), WORDS[random.nextInt(WORDS.length)],
+                priorities[random.nextInt(priorities.length)], START.plusDays(random.nextInt(365)), random.nextBoolean());
+    }
+}
@@ -0,0 +1,126 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankedSearchTest {
+    private static final LocalDate START = LocalDate.of(2025, 3, 1);
+    private static final String[] WORDS = {
+        "report", "reprot", "rport", "reports", "budget", "budgte", "quarterly", "quartelry", "plumber",
+        "call", "cal", "board", "review", "revue", "the", "for", "draft", "sport", "import"
+    };
+    private static final String[] QUERIES = {
+        "report", "reprot", "budget review", "quarterly report", "cal", "plumbre", "draft for", "xyz", "port"
+    };
+
+    // The page a ranked query returns must be the one a full sort by score would cut.
+    @Test
+    void samePageAsSortingEveryMatch() {
+        Random random = new Random(25);
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            seed.add(randomTask(random));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+        for (int round = 0; round < 3; round++) {
+            for (String text : QUERIES) {
+                for (int i = 0; i < 4; i++) {
+                    int offset = random.nextInt(3) == 0 ? 0 : random.nextInt(40);
+                    int limit = random.nextInt(4) == 0 ? -1 : 1 + random.nextInt(30);
+                    Priority priority = random.nextBoolean() ? null : Priority.values()[random.nextInt(3)];
+                    check(manager, text, priority, offset, limit);
+                }
+            }
+            for (int i = 0; i < 500; i++) {
+                List<Task> all = manager.getAllTasks();
+                Task target = all.get(random.nextInt(all.size()));
+                if (random.nextBoolean()) {
+                    manager.deleteTask(target);
+                } else {
+                    manager.addTask(randomTask(random));
+                }
+            }
+        }
+    }
+
+    @Test
+    void toleratesTyposByWordLength() {
+        FuzzyMatcher matcher = new FuzzyMatcher("reprot");
+        assertTrue(matcher.score("weekly report", "") > 0, "one swap in six letters");
+        assertEquals(0f, new FuzzyMatcher("rxbort").score("weekly report", ""), "two edits in six letters");
+        assertTrue(new FuzzyMatcher("plumbre").score("call the plumber", "") > 0, "one swap in seven letters");
+        assertTrue(new FuzzyMatcher("pulmbre").score("call the plumber", "") > 0, "two swaps in seven letters");
+        assertEquals(0f, new FuzzyMatcher("cal").score("cat", ""), "three letters must match exactly");
+        assertEquals(0f, new FuzzyMatcher("report budget").score("weekly report", ""), "every word has to match");
+    }
+
+    @Test
+    void titlesAndWordStartsRankHigher() {
+        FuzzyMatcher matcher = new FuzzyMatcher("port");
+        assertTrue(matcher.score("port", "") > matcher.score("", "port"));
+        assertTrue(matcher.score("port of call", "") > matcher.score("report", ""));
+    }
+
+    private static void check(TaskManager manager, String text, Priority priority, int offset, int limit) {
+        TaskQuery query = new TaskQuery().text(text).priority(priority).sortBy(TaskQuery.SortKey.RELEVANCE)
+                .offset(offset).limit(limit);
+        TaskQuery oracle = new TaskQuery().text(text).priority(priority).sortBy(TaskQuery.SortKey.RELEVANCE);
+        List<Task> matches = new ArrayList<>();
+        List<Float> scores = new ArrayList<>();
+        for (Task task : manager.getAllTasks()) {
+            if (oracle.matches(task)) {
+                // Insert after every task that scores at least as high, so ties keep list order.
+                float score = oracle.relevance(task);
+                int at = 0;
+                while (at < scores.size() && scores.get(at) >= score) at++;
+                matches.add(at, task);
+                scores.add(at, score);
+            }
+        }
+        int end = limit < 0 ? matches.size() : Math.min(matches.size(), offset + limit);
+        List<Task> page = offset >= matches.size() ? new ArrayList<Task>() : matches.subList(offset, end);
+
+        QueryResult result = manager.query(query);
+        String label = "'" + text + "' " + priority + " " + offset + "+" + limit;
+        // A limited ranked query stops scoring once the page is settled, so its total only
+        // counts the matches it got to.
+        if (limit < 0) {
+            assertEquals(matches.size(), result.getTotalMatches(), label);
+        } else {
+            assertTrue(result.getTotalMatches() >= end && result.getTotalMatches() <= matches.size(), label);
+        }
+        assertEquals(ids(page), ids(result.getTasks()), label);
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        List<UUID> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    private static Task randomTask(Random random) {
+        return new Task(new UUID(random.nextLong(), random.nextLong()), words(random, 1 + random.nextInt(3)),
+                words(random, random.nextInt(4)), Priority.values()[random.nextInt(3)], START, false);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) text.append(' ');
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
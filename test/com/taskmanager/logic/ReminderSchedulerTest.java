@@ -0,0 +1,203 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderSchedulerTest {
+    private static final LocalDate START = LocalDate.of(2025, 3, 10);
+
+    private final DayClock clock = new DayClock(START);
+    private final TaskManager manager = new TaskManager(new MemoryPersistence(new ArrayList<>()));
+    private final List<List<Task>> batches = new ArrayList<>();
+    private final List<LocalDate> dates = new ArrayList<>();
+    private final ReminderScheduler scheduler = new ReminderScheduler(manager, clock, (tasks, today) -> {
+        batches.add(tasks);
+        dates.add(today);
+    });
+
+    @Test
+    void reportsTasksAsTheirDayComes() {
+        Task tomorrow = add("Tomorrow", START.plusDays(1));
+        Task nextWeek = add("Next week", START.plusDays(7));
+        follow();
+        scheduler.advance();
+        assertTrue(batches.isEmpty());
+        assertEquals(2, scheduler.getScheduledCount());
+
+        clock.day = START.plusDays(1);
+        scheduler.advance();
+        assertEquals(1, batches.size());
+        assertEquals(ids(tomorrow), ids(batches.get(0)));
+        assertEquals(START.plusDays(1), dates.get(0));
+        assertEquals(ids(tomorrow), ids(scheduler.getDueTasks()));
+
+        // Reported once only, but the day change itself is still told, and the task is now overdue.
+        clock.day = START.plusDays(2);
+        scheduler.advance();
+        assertEquals(2, batches.size());
+        assertTrue(batches.get(1).isEmpty());
+        assertEquals(START.plusDays(2), scheduler.getToday());
+        assertEquals(ids(tomorrow), ids(scheduler.getDueTasks()));
+
+        clock.day = START.plusDays(7);
+        scheduler.advance();
+        assertEquals(ids(nextWeek), ids(batches.get(2)));
+        assertEquals(2, scheduler.getDueTasks().size());
+    }
+
+    @Test
+    void longGapsCrossBlocksAndOverflow() {
+        Task block = add("Next block", START.plusDays(300));
+        Task far = add("Far", START.plusDays(256L * 70));
+        follow();
+        clock.day = START.plusDays(299);
+        scheduler.advance();
+        assertTrue(scheduler.getDueTasks().isEmpty());
+
+        clock.day = START.plusDays(300);
+        scheduler.advance();
+        assertEquals(ids(block), ids(scheduler.getDueTasks()));
+
+        clock.day = START.plusDays(256L * 70 - 1);
+        scheduler.advance();
+        assertEquals(ids(block), ids(scheduler.getDueTasks()));
+        clock.day = START.plusDays(256L * 70);
+        scheduler.advance();
+        assertEquals(2, scheduler.getDueTasks().size());
+        assertEquals(ids(far), ids(batches.get(batches.size() - 1)));
+    }
+
+    @Test
+    void dueTasksFollowEdits() {
+        Task overdue = add("Overdue", START.minusDays(3));
+        Task today = add("Today", START);
+        follow();
+        scheduler.advance();
+        assertEquals(2, scheduler.getDueTasks().size());
+
+        Task done = new Task(overdue);
+        done.setCompleted(true);
+        manager.updateTask(done);
+        assertEquals(ids(today), ids(scheduler.getDueTasks()));
+
+        Task moved = new Task(today);
+        moved.setDueDate(START.plusDays(5));
+        manager.updateTask(moved);
+        assertTrue(scheduler.getDueTasks().isEmpty());
+        assertEquals(1, scheduler.getScheduledCount());
+
+        Task back = new Task(moved);
+        back.setDueDate(START.minusDays(1));
+        manager.updateTask(back);
+        assertEquals(ids(back), ids(scheduler.getDueTasks()));
+        manager.deleteTask(back);
+        assertTrue(scheduler.getDueTasks().isEmpty());
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void editsRescheduleOrCancel() {
+        Task overdue = add("Overdue", START.minusDays(3));
+        Task later = add("Later", START.plusDays(2));
+        follow();
+        scheduler.advance();
+        assertEquals(ids(overdue), ids(reported()));
+
+        // Editing the title of a reported task doesn't remind about it again.
+        Task renamed = new Task(overdue);
+        renamed.setTitle("Still overdue");
+        manager.updateTask(renamed);
+        Task done = new Task(later);
+        done.setCompleted(true);
+        manager.updateTask(done);
+        assertEquals(0, scheduler.getScheduledCount());
+        clock.day = START.plusDays(2);
+        scheduler.advance();
+        assertEquals(ids(overdue), ids(reported()));
+
+        // A new date does.
+        Task moved = new Task(renamed);
+        moved.setDueDate(START.plusDays(4));
+        manager.updateTask(moved);
+        assertEquals(1, scheduler.getScheduledCount());
+        Task deleted = add("Deleted", START.plusDays(4));
+        manager.deleteTask(deleted);
+        assertEquals(1, scheduler.getScheduledCount());
+        clock.day = START.plusDays(4);
+        scheduler.advance();
+        List<Task> reported = reported();
+        assertEquals(2, reported.size());
+        assertEquals("Still overdue", reported.get(1).getTitle());
+        assertEquals(START.plusDays(4), dates.get(dates.size() - 1));
+    }
+
+    private void follow() {
+        manager.addChangeListener(scheduler);
+        scheduler.rebuild();
+    }
+
+    // Every task reported so far, in the order they were reported.
+    private List<Task> reported() {
+        List<Task> reported = new ArrayList<>();
+        for (List<Task> batch : batches) {
+            reported.addAll(batch);
+        }
+        return reported;
+    }
+
+    private Task add(String title, LocalDate due) {
+        Task task = new Task(title, "", Priority.MEDIUM, due);
+        manager.addTask(task);
+        return task;
+    }
+
+    private static List<Object> ids(Task task) {
+        List<Object> ids = new ArrayList<>();
+        ids.add(task.getId());
+        return ids;
+    }
+
+    private static List<Object> ids(List<Task> tasks) {
+        List<Object> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    // Noon UTC on whichever day the test sets.
+    private static final class DayClock extends Clock {
+        LocalDate day;
+
+        DayClock(LocalDate day) {
+            this.day = day;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return day.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+    }
+}
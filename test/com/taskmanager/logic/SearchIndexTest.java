@@ -0,0 +1,95 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchIndexTest {
+    private static final String[] WORDS = {
+        "report", "Weekly", "REPORTING", "budget", "café", "Straße", "naïve", "x", "ab", "abc", "日本語", "a|b", "  "
+    };
+    private static final String[] QUERIES = {
+        "r", "re", "rep", "report", "REPORT", "eport", "ort wee", "budget", "CAFÉ", "fé", "straße", "日本",
+        "x", "ab", "abc", "bca", "a|b", "zzz", "weekly report", "ly rep", " "
+    };
+
+    // Matches what searchTasks did before the index: a lowercase contains() over every task.
+    @Test
+    void sameResultsAsTheFullScan() {
+        Random random = new Random(23);
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            seed.add(randomTask(random));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+        checkAll(manager);
+
+        // Enough edits for dead documents to outnumber live ones several times over.
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 1000; i++) {
+                List<Task> all = manager.getAllTasks();
+                Task target = all.get(random.nextInt(all.size()));
+                int op = random.nextInt(4);
+                if (op == 0) {
+                    manager.deleteTask(target);
+                } else if (op == 1) {
+                    manager.addTask(randomTask(random));
+                } else {
+                    Task edited = randomTask(random);
+                    manager.updateTask(new Task(target.getId(), edited.getTitle(), edited.getDescription(),
+                            target.getPriority(), target.getDueDate(), target.isCompleted()));
+                }
+            }
+            checkAll(manager);
+        }
+    }
+
+    private static void checkAll(TaskManager manager) {
+        for (String query : QUERIES) {
+            assertEquals(ids(scan(manager.getAllTasks(), query)), ids(manager.searchTasks(query)), "query '" + query + "'");
+        }
+    }
+
+    private static List<Task> scan(List<Task> tasks, String query) {
+        if (query.trim().isEmpty()) return tasks;
+        String lowerQuery = query.toLowerCase();
+        List<Task> matches = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getTitle().toLowerCase().contains(lowerQuery) || task.getDescription().toLowerCase().contains(lowerQuery)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    private static Task randomTask(Random random) {
+        return new Task(words(random), random.nextInt(3) == 0 ? "" : words(random), Priority.values()[random.nextInt(3)],
+                LocalDate.of(2025, 1, 1).plusDays(random.nextInt(100)));
+    }
+
+    private static String words(Random random) {
+        StringBuilder text = new StringBuilder();
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) text.append(' ');
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        List<UUID> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,92 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.util.JournaledPersistence;
+import com.taskmanager.util.SnapshotFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedSyncTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void ownWritesLeaveNothingToSync() throws IOException {
+        JournaledPersistence store = shared();
+        TaskManager manager = new TaskManager(store);
+        manager.addTask(task("Mine"));
+        manager.addTask(task("Also mine"));
+        assertFalse(store.hasExternalChanges());
+        assertEquals(0, manager.syncExternalChanges());
+        manager.close();
+    }
+
+    @Test
+    void othersWritesAreApplied() throws IOException {
+        JournaledPersistence storeA = shared();
+        JournaledPersistence storeB = shared();
+        TaskManager a = new TaskManager(storeA);
+        TaskManager b = new TaskManager(storeB);
+
+        Task task = task("Shared");
+        a.addTask(task);
+        assertTrue(storeB.hasExternalChanges());
+        assertEquals(1, b.syncExternalChanges());
+        assertEquals("Shared", b.getTask(task.getId()).getTitle());
+
+        Task renamed = new Task(task);
+        renamed.setTitle("Renamed");
+        b.updateTask(renamed);
+        a.deleteTask(a.getTask(task.getId()));
+        // B's rename came first in the file, so A's delete wins in both.
+        assertEquals(1, b.syncExternalChanges());
+        assertEquals(0, b.getTotalTasks());
+        assertEquals(0, a.syncExternalChanges());
+        assertEquals(0, a.getTotalTasks());
+        a.close();
+        b.close();
+    }
+
+    @Test
+    void aRewrittenFileIsLoadedAgain() throws IOException {
+        JournaledPersistence storeA = shared();
+        JournaledPersistence storeB = shared();
+        TaskManager a = new TaskManager(storeA);
+        TaskManager b = new TaskManager(storeB);
+        Task kept = task("Kept");
+        Task dropped = task("Dropped");
+        a.addTask(kept);
+        a.addTask(dropped);
+        assertEquals(2, b.syncExternalChanges());
+
+        a.deleteTask(dropped);
+        a.addTask(task("New"));
+        // A full save rewrites the data file, so B can't just read on from where it was.
+        a.saveTasks();
+        a.flush();
+        assertEquals(2, b.syncExternalChanges());
+        assertEquals(2, b.getTotalTasks());
+        assertEquals("Kept", b.getTask(kept.getId()).getTitle());
+        assertEquals(null, b.getTask(dropped.getId()));
+        a.close();
+        b.close();
+    }
+
+    private JournaledPersistence shared() {
+        return new JournaledPersistence(dir.resolve("tasks_data.csv"), SnapshotFormat.CSV,
+                JournaledPersistence.DEFAULT_COMPACTION_THRESHOLD, true);
+    }
+
+    private static Task task(String title) {
+        return new Task(title, "", Priority.MEDIUM, LocalDate.of(2025, 3, 1));
+    }
+}
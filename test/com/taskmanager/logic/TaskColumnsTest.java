@@ -0,0 +1,105 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskColumnsTest {
+
+    // Every build of a loader that keeps growing must still read right after the later
+    // batches, and after the loader is finished, whether the descriptions are on the heap
+    // or in the shared blob.
+    @Test
+    void buildsAlongTheLoadReadTheirOwnRows() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            Random random = new Random(16);
+            List<Task> expected = new ArrayList<>();
+            List<TaskColumns> builds = new ArrayList<>();
+            TaskColumns.Loader loader = new TaskColumns.Loader(offHeap);
+            for (int batch = 0; batch < 8; batch++) {
+                List<Task> tasks = new ArrayList<>();
+                for (int i = 0; i < 1 + random.nextInt(2000); i++) {
+                    tasks.add(randomTask(random));
+                }
+                expected.addAll(tasks);
+                loader.add(tasks);
+                builds.add(loader.build());
+                assertEquals(expected.size(), loader.size());
+            }
+            loader.finish();
+
+            for (TaskColumns columns : builds) {
+                for (int row = 0; row < columns.size(); row++) {
+                    Task task = expected.get(row);
+                    assertEquals(task.getId(), columns.id(row));
+                    assertEquals(task.getTitle(), columns.title(row));
+                    assertEquals(task.getDescription(), columns.description(row), "offHeap " + offHeap);
+                    assertEquals(task.getPriority(), columns.priority(row));
+                    assertEquals(task.getDueDate().toEpochDay(), columns.dueDay(row));
+                    assertEquals(task.isCompleted(), columns.isCompleted(row));
+                }
+            }
+            TaskColumns last = builds.get(builds.size() - 1);
+            assertEquals(expected.size(), last.size());
+            for (int row = 0; row < last.size(); row++) {
+                String description = expected.get(row).getDescription();
+                if (description != null) {
+                    assertTrue(last.textContains(row, description.toLowerCase()));
+                }
+                assertFalse(last.textContains(row, "no such text"));
+            }
+        }
+    }
+
+    // Duplicate ids make the store rebuild from tasks(), which has to read the descriptions
+    // back out of the blob.
+    @Test
+    void duplicateIdsKeepTheirDescriptions() {
+        Task first = new Task(UUID.randomUUID(), "a", "first", Priority.LOW, LocalDate.of(2025, 1, 1), false);
+        Task second = new Task(UUID.randomUUID(), "b", "second", Priority.HIGH, LocalDate.of(2025, 1, 2), true);
+        Task again = new Task(first.getId(), "a2", "first again", Priority.MEDIUM, LocalDate.of(2025, 1, 3), false);
+        TaskColumns.Loader loader = new TaskColumns.Loader(true);
+        loader.add(Arrays.asList(first, second));
+        loader.add(Arrays.asList(again));
+
+        TaskStore store = TaskStore.of(loader);
+        loader.finish();
+
+        assertEquals(2, store.size());
+        assertEquals("first again", store.getAt(0).getDescription());
+        assertEquals("a2", store.getAt(0).getTitle());
+        assertEquals("second", store.getAt(1).getDescription());
+    }
+
+    private static Task randomTask(Random random) {
+        int n = random.nextInt(1_000_000);
+        String description;
+        switch (random.nextInt(5)) {
+            case 0: description = ""; break;
+            case 1: description = null; break;
+            case 2: description = "Café notes " + n + " ✓"; break;
+            case 3: description = bigText(random) + " notes " + n; break;
+            default: description = "Notes " + n;
+        }
+        return new Task(UUID.randomUUID(), "Task " + n, description, Priority.values()[random.nextInt(3)],
+                LocalDate.of(2025, 1, 1).plusDays(random.nextInt(400)), random.nextBoolean());
+    }
+
+    // Bigger than the builder's write buffer now and then.
+    private static String bigText(Random random) {
+        char[] text = new char[random.nextInt(100) == 0 ? 70_000 : 300];
+        Arrays.fill(text, 'x');
+        return new String(text);
+    }
+}
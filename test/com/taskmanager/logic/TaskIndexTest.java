@@ -0,0 +1,137 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TaskIndexTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    // Every indexed query against a plain filter over getAllTasks(), while tasks change underneath.
+    @Test
+    void indexesFollowEveryChange() {
+        Random random = new Random(7);
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            seed.add(randomTask(random));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+        check(manager, random);
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 500; i++) {
+                List<Task> all = manager.getAllTasks();
+                int op = random.nextInt(4);
+                if (op == 0 || all.isEmpty()) {
+                    manager.addTask(randomTask(random));
+                } else if (op == 1) {
+                    manager.deleteTask(all.get(random.nextInt(all.size())));
+                } else {
+                    Task target = all.get(random.nextInt(all.size()));
+                    Task edited = randomTask(random);
+                    manager.updateTask(new Task(target.getId(), target.getTitle(), target.getDescription(),
+                            edited.getPriority(), edited.getDueDate(), edited.isCompleted()));
+                }
+            }
+            check(manager, random);
+        }
+    }
+
+    @Test
+    void dueRangeIncludesBothEndsAndNullIsOpen() {
+        Task first = new Task("first", "", Priority.LOW, START);
+        Task middle = new Task("middle", "", Priority.LOW, START.plusDays(5));
+        Task last = new Task("last", "", Priority.LOW, START.plusDays(10));
+        List<Task> seed = new ArrayList<>();
+        seed.add(last);
+        seed.add(middle);
+        seed.add(first);
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+
+        assertEquals(List.of("first", "middle", "last"), titles(manager.findDueBetween(START, START.plusDays(10))));
+        assertEquals(List.of("middle"), titles(manager.findDueBetween(START.plusDays(1), START.plusDays(9))));
+        assertEquals(List.of("first", "middle"), titles(manager.findDueBetween(null, START.plusDays(5))));
+        assertEquals(List.of("middle", "last"), titles(manager.findDueBetween(START.plusDays(5), null)));
+        assertEquals(List.of("first", "middle", "last"), titles(manager.findDueBetween(null, null)));
+        assertEquals(List.of(), titles(manager.findDueBetween(START.plusDays(11), null)));
+
+        // Due today is not overdue yet.
+        assertEquals(List.of("first"), titles(manager.findOverdue(START.plusDays(5))));
+    }
+
+    private static void check(TaskManager manager, Random random) {
+        List<Task> all = manager.getAllTasks();
+        for (Priority priority : Priority.values()) {
+            List<Task> expected = new ArrayList<>();
+            for (Task task : all) {
+                if (task.getPriority() == priority) expected.add(task);
+            }
+            assertEquals(ids(expected), ids(manager.filterByPriority(priority)), priority.toString());
+            assertEquals(expected.size(), manager.getTaskCount(priority));
+        }
+        for (boolean completed : new boolean[] {false, true}) {
+            List<Task> expected = new ArrayList<>();
+            for (Task task : all) {
+                if (task.isCompleted() == completed) expected.add(task);
+            }
+            assertEquals(ids(expected), ids(manager.filterByStatus(completed)));
+            if (completed) assertEquals(expected.size(), manager.getCompletedTasks());
+        }
+        for (int i = 0; i < 50; i++) {
+            LocalDate from = random.nextInt(5) == 0 ? null : START.plusDays(random.nextInt(420) - 10);
+            LocalDate to = random.nextInt(5) == 0 ? null : START.plusDays(random.nextInt(420) - 10);
+            assertEquals(ids(dueBetween(all, from, to)), ids(manager.findDueBetween(from, to)), from + ".." + to);
+        }
+        for (int i = 0; i < 10; i++) {
+            LocalDate today = START.plusDays(random.nextInt(420) - 10);
+            List<Task> expected = new ArrayList<>();
+            for (Task task : dueBetween(all, null, today.minusDays(1))) {
+                if (!task.isCompleted()) expected.add(task);
+            }
+            assertEquals(ids(expected), ids(manager.findOverdue(today)), "overdue on " + today);
+        }
+    }
+
+    // Earliest first; tasks due the same day stay in list order.
+    private static List<Task> dueBetween(List<Task> all, LocalDate from, LocalDate to) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : all) {
+            if ((from == null || !task.getDueDate().isBefore(from)) && (to == null || !task.getDueDate().isAfter(to))) {
+                matches.add(task);
+            }
+        }
+        matches.sort(Comparator.comparing(Task::getDueDate));
+        return matches;
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        List<UUID> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        List<String> titles = new ArrayList<>();
+        for (Task task : tasks) {
+            titles.add(task.getTitle());
+        }
+        return titles;
+    }
+
+    private static Task randomTask(Random random) {
+        Priority[] priorities = Priority.values();
+        return new Task(new UUID(random.nextLong(), random.nextLong()), "task " + random.nextInt(1000), "",
+                priorities[random.nextInt(priorities.length)], START.plusDays(random.nextInt(400)), random.nextBoolean());
+    }
+}
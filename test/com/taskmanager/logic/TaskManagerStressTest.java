@@ -0,0 +1,179 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Four writers and four readers share one TaskManager. Every snapshot a reader takes has to
+ * be internally consistent: counts, the search index and the due date index all agree with
+ * the snapshot's own task list, and versions never go backwards. At the end a LiveTaskView
+ * fed from the change feed has to show the same rows in the same order as a fresh query,
+ * ties included.
+ */
+class TaskManagerStressTest {
+    private static final long RUN_MILLIS = 3000;
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final String[] WORDS = {"alpha", "beta", "gamma", "Alphabet", "delta", "report"};
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Test
+    void snapshotsStayConsistentUnderConcurrentWritesAndReads() throws Exception {
+        Random seedRandom = new Random(11);
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            seed.add(randomTask(seedRandom));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+        TaskQuery viewQuery = new TaskQuery().completed(false).sortBy(TaskQuery.SortKey.DUE_DATE);
+        LiveTaskView view = manager.openView(viewQuery);
+        // Listeners run under the manager's lock, one change list at a time.
+        manager.addChangeListener(changes -> {
+            for (TaskChange change : changes) {
+                view.apply(change);
+            }
+        });
+
+        long deadline = System.currentTimeMillis() + RUN_MILLIS;
+        AtomicLong writes = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            Random random = new Random(100 + i);
+            futures.add(pool.submit(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    write(manager, random);
+                    writes.incrementAndGet();
+                }
+            }));
+        }
+        for (int i = 0; i < READERS; i++) {
+            futures.add(pool.submit(() -> {
+                long lastVersion = -1;
+                while (System.currentTimeMillis() < deadline) {
+                    TaskSnapshot snapshot = manager.snapshot();
+                    assertTrue(snapshot.getVersion() >= lastVersion, "version went backwards");
+                    lastVersion = snapshot.getVersion();
+                    checkConsistent(snapshot);
+                    reads.incrementAndGet();
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AssertionError) throw (AssertionError) e.getCause();
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(writes.get() > 1000, "only " + writes.get() + " writes");
+        assertTrue(reads.get() > 10, "only " + reads.get() + " reads");
+        checkConsistent(manager.snapshot());
+        assertEquals(ids(manager.query(viewQuery).getTasks()), ids(rows(view)));
+    }
+
+    private static void write(TaskManager manager, Random random) {
+        List<Task> all = manager.getAllTasks();
+        int op = random.nextInt(10);
+        if (op < 3 || all.isEmpty()) {
+            manager.addTask(randomTask(random));
+        } else if (op < 6) {
+            Task task = new Task(all.get(random.nextInt(all.size())));
+            task.setTitle(randomText(random));
+            task.setPriority(Priority.values()[random.nextInt(3)]);
+            task.setDueDate(TODAY.plusDays(random.nextInt(60) - 30));
+            task.setCompleted(random.nextInt(3) == 0);
+            manager.updateTask(task);
+        } else if (op < 8) {
+            manager.deleteTask(all.get(random.nextInt(all.size())));
+        } else if (op < 9) {
+            List<Task> some = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                some.add(all.get(random.nextInt(all.size())));
+            }
+            manager.completeAll(some);
+        } else {
+            List<Task> batch = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                batch.add(randomTask(random));
+            }
+            manager.addAll(batch);
+        }
+    }
+
+    private static void checkConsistent(TaskSnapshot snapshot) {
+        List<Task> all = snapshot.getAllTasks();
+        assertEquals(snapshot.getTotalTasks(), all.size(), "total");
+        assertEquals(all.size(), new HashSet<>(ids(all)).size(), "duplicate ids");
+
+        int completed = 0;
+        int[] byPriority = new int[Priority.values().length];
+        List<UUID> matches = new ArrayList<>();
+        Set<UUID> dueSoon = new HashSet<>();
+        LocalDate to = TODAY.plusDays(7);
+        for (Task task : all) {
+            if (task.isCompleted()) completed++;
+            byPriority[task.getPriority().ordinal()]++;
+            if (task.getTitle().toLowerCase().contains("alpha") || task.getDescription().toLowerCase().contains("alpha")) {
+                matches.add(task.getId());
+            }
+            if (!task.getDueDate().isBefore(TODAY) && !task.getDueDate().isAfter(to)) {
+                dueSoon.add(task.getId());
+            }
+        }
+        assertEquals(completed, snapshot.getCompletedTasks(), "completed");
+        for (Priority priority : Priority.values()) {
+            assertEquals(byPriority[priority.ordinal()], snapshot.getTaskCount(priority), priority.name());
+        }
+        assertEquals(matches, ids(snapshot.searchTasks("alpha")), "search");
+        assertEquals(dueSoon, new HashSet<>(ids(snapshot.findDueBetween(TODAY, to))), "due range");
+    }
+
+    private static Task randomTask(Random random) {
+        return new Task(randomText(random), randomText(random), Priority.values()[random.nextInt(3)],
+                TODAY.plusDays(random.nextInt(60) - 30));
+    }
+
+    private static String randomText(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static List<Task> rows(LiveTaskView view) {
+        List<Task> rows = new ArrayList<>();
+        for (int row = 0; row < view.size(); row++) {
+            rows.add(view.get(row));
+        }
+        return rows;
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        List<UUID> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
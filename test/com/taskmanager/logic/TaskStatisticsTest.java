@@ -0,0 +1,179 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TaskStatisticsTest {
+    private static final LocalDate START = LocalDate.of(2025, 3, 10);
+
+    // The incremental counts against a count over the whole list, through edits and date changes.
+    @Test
+    void countsFollowChangesAndDays() {
+        Random random = new Random(22);
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            seed.add(randomTask(random));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+        DayClock clock = new DayClock(START);
+        TaskStatistics statistics = new TaskStatistics(manager, clock);
+        statistics.start();
+        check(manager, statistics, clock.day);
+
+        int[] dayMoves = {0, 1, 1, 0, 3, 1, 20, 0, 1};
+        for (int move : dayMoves) {
+            for (int i = 0; i < 200; i++) {
+                List<Task> all = manager.getAllTasks();
+                int op = random.nextInt(4);
+                if (op == 0 || all.isEmpty()) {
+                    manager.addTask(randomTask(random));
+                } else if (op == 1) {
+                    manager.deleteTask(all.get(random.nextInt(all.size())));
+                } else {
+                    Task edited = randomTask(random);
+                    Task target = all.get(random.nextInt(all.size()));
+                    manager.updateTask(new Task(target.getId(), target.getTitle(), "", edited.getPriority(),
+                            edited.getDueDate(), edited.isCompleted()));
+                }
+            }
+            check(manager, statistics, clock.day);
+            clock.day = clock.day.plusDays(move);
+            check(manager, statistics, clock.day);
+        }
+        statistics.close();
+    }
+
+    @Test
+    void completionsAreTrendedByDay() {
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            seed.add(new Task("Task " + i, "", Priority.LOW, START));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(seed));
+        DayClock clock = new DayClock(START);
+        TaskStatistics statistics = new TaskStatistics(manager, clock);
+        statistics.start();
+
+        complete(manager, seed.get(0));
+        complete(manager, seed.get(1));
+        // Saving an already completed task again isn't another completion.
+        complete(manager, seed.get(1));
+        clock.day = START.plusDays(2);
+        complete(manager, seed.get(2));
+        assertArrayEquals(new int[] {0, 0, 0, 0, 2, 0, 1}, statistics.summary().getCompletionTrend());
+
+        clock.day = START.plusDays(6);
+        assertArrayEquals(new int[] {2, 0, 1, 0, 0, 0, 0}, statistics.summary().getCompletionTrend());
+        clock.day = START.plusDays(7);
+        assertArrayEquals(new int[] {0, 1, 0, 0, 0, 0, 0}, statistics.summary().getCompletionTrend());
+        clock.day = START.plusDays(30);
+        assertArrayEquals(new int[TaskStatistics.TREND_DAYS], statistics.summary().getCompletionTrend());
+        statistics.close();
+    }
+
+    @Test
+    void rebuildDuringChangesCountsEachOnce() throws InterruptedException {
+        TaskManager manager = new TaskManager(new MemoryPersistence(new ArrayList<>()));
+        DayClock clock = new DayClock(START);
+        TaskStatistics statistics = new TaskStatistics(manager, clock);
+        statistics.start();
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (!stop.get()) {
+                Task task = new Task("Task " + i, "", Priority.values()[i % 3], START.minusDays(9).plusDays(i % 20));
+                manager.addTask(task);
+                if (i % 3 == 0) manager.deleteTask(task);
+                i++;
+            }
+        });
+        writer.start();
+        long end = System.currentTimeMillis() + 500;
+        while (System.currentTimeMillis() < end) {
+            statistics.rebuild();
+        }
+        stop.set(true);
+        writer.join();
+
+        check(manager, statistics, START);
+        statistics.close();
+    }
+
+    private static void check(TaskManager manager, TaskStatistics statistics, LocalDate today) {
+        TaskStatistics.Summary summary = statistics.summary();
+        int completed = 0;
+        int overdue = 0;
+        int dueToday = 0;
+        int dueThisWeek = 0;
+        int[] byPriority = new int[Priority.values().length];
+        for (Task task : manager.getAllTasks()) {
+            byPriority[task.getPriority().ordinal()]++;
+            if (task.isCompleted()) {
+                completed++;
+                continue;
+            }
+            LocalDate due = task.getDueDate();
+            if (due.isBefore(today)) overdue++;
+            if (due.equals(today)) dueToday++;
+            if (!due.isBefore(today) && due.isBefore(today.plusDays(7))) dueThisWeek++;
+        }
+        assertEquals(manager.getTotalTasks(), summary.getTotal(), "total");
+        assertEquals(completed, summary.getCompleted(), "completed");
+        for (Priority priority : Priority.values()) {
+            assertEquals(byPriority[priority.ordinal()], summary.getCount(priority), priority.name());
+        }
+        assertEquals(overdue, summary.getOverdue(), "overdue on " + today);
+        assertEquals(dueToday, summary.getDueToday(), "due on " + today);
+        assertEquals(dueThisWeek, summary.getDueThisWeek(), "due in the week from " + today);
+    }
+
+    private static void complete(TaskManager manager, Task task) {
+        Task done = new Task(manager.getTask(task.getId()));
+        done.setCompleted(true);
+        manager.updateTask(done);
+    }
+
+    private static Task randomTask(Random random) {
+        return new Task(new UUID(random.nextLong(), random.nextLong()), "Task", "",
+                Priority.values()[random.nextInt(3)], START.plusDays(random.nextInt(40) - 10), random.nextInt(4) == 0);
+    }
+
+    // Noon UTC on whichever day the test sets.
+    private static final class DayClock extends Clock {
+        LocalDate day;
+
+        DayClock(LocalDate day) {
+            this.day = day;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return day.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+    }
+}
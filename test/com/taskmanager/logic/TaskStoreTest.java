@@ -0,0 +1,148 @@
+package com.taskmanager.logic;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskStoreTest {
+
+    // The store must behave like the ArrayList it replaced: same order, same lookups.
+    @Test
+    void behavesLikeTheList() {
+        Random random = new Random(6);
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            expected.add(randomTask(random));
+        }
+        TaskManager manager = new TaskManager(new MemoryPersistence(copies(expected)));
+        check(expected, manager);
+
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(4);
+            if (op == 0 || expected.isEmpty()) {
+                Task task = randomTask(random);
+                expected.add(task);
+                manager.addTask(new Task(task));
+            } else if (op == 1) {
+                Task removed = expected.remove(random.nextInt(expected.size()));
+                manager.deleteTask(new Task(removed));
+            } else {
+                int index = random.nextInt(expected.size());
+                Task edited = randomTask(random);
+                Task replacement = new Task(expected.get(index).getId(), edited.getTitle(), edited.getDescription(),
+                        edited.getPriority(), edited.getDueDate(), edited.isCompleted());
+                expected.set(index, replacement);
+                manager.updateTask(new Task(replacement));
+            }
+            if (i % 500 == 0) check(expected, manager);
+        }
+        check(expected, manager);
+    }
+
+    @Test
+    void unknownIdsAreIgnored() {
+        Task kept = new Task("kept", "", Priority.LOW, LocalDate.of(2024, 1, 1));
+        TaskManager manager = new TaskManager(new MemoryPersistence(copies(List.of(kept))));
+        Task stranger = new Task("stranger", "", Priority.HIGH, LocalDate.of(2024, 2, 1));
+
+        manager.updateTask(stranger);
+        manager.deleteTask(stranger);
+
+        assertNull(manager.getTask(stranger.getId()));
+        assertEquals(1, manager.getTotalTasks());
+        assertEquals("kept", manager.getTask(kept.getId()).getTitle());
+    }
+
+    // Every task the list hands out is read-only, however it got in; the caller's own
+    // objects stay theirs to change.
+    @Test
+    void storedTasksAreReadOnly() {
+        Task loaded = new Task("loaded", "", Priority.LOW, LocalDate.of(2024, 1, 1));
+        TaskManager manager = new TaskManager(new MemoryPersistence(copies(List.of(loaded))));
+        Task added = new Task("added", "", Priority.HIGH, LocalDate.of(2024, 2, 1));
+        manager.addTask(added);
+        Task imported = new Task("imported", "", Priority.MEDIUM, LocalDate.of(2024, 3, 1));
+        manager.importAll(List.of(imported));
+        Task edited = new Task(manager.getTask(loaded.getId()));
+        edited.setTitle("edited");
+        manager.updateTask(edited);
+        Task bulk = new Task("bulk", "", Priority.LOW, LocalDate.of(2024, 4, 1));
+        manager.addAll(List.of(bulk));
+        manager.completeAll(List.of(manager.getTask(bulk.getId())));
+
+        added.setTitle("changed by the caller");
+        edited.setTitle("changed again");
+        assertEquals("added", manager.getTask(added.getId()).getTitle());
+        assertEquals("edited", manager.getTask(loaded.getId()).getTitle());
+        assertEquals(4, manager.getTotalTasks());
+        for (Task task : manager.getAllTasks()) {
+            assertThrows(UnsupportedOperationException.class, () -> task.setTitle("x"));
+            assertThrows(UnsupportedOperationException.class, () -> task.setDescription("x"));
+            assertThrows(UnsupportedOperationException.class, () -> task.setPriority(Priority.HIGH));
+            assertThrows(UnsupportedOperationException.class, () -> task.setDueDate(LocalDate.of(2030, 1, 1)));
+            assertThrows(UnsupportedOperationException.class, () -> task.setCompleted(true));
+            // A copy is an ordinary Task again.
+            Task copy = new Task(task);
+            copy.setCompleted(!task.isCompleted());
+            assertEquals(task.getId(), copy.getId());
+        }
+        assertTrue(manager.getTask(bulk.getId()).isCompleted());
+    }
+
+    // Rows from the loaded columns build their UUID once.
+    @Test
+    void loadedTasksKeepTheirId() {
+        Task loaded = new Task("loaded", "", Priority.LOW, LocalDate.of(2024, 1, 1));
+        TaskManager manager = new TaskManager(new MemoryPersistence(copies(List.of(loaded))));
+        Task task = manager.getAllTasks().get(0);
+        assertEquals(loaded.getId(), task.getId());
+        assertSame(task.getId(), task.getId());
+    }
+
+    private static void check(List<Task> expected, TaskManager manager) {
+        List<Task> actual = manager.getAllTasks();
+        assertEquals(expected.size(), manager.getTotalTasks());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameTask(expected.get(i), actual.get(i));
+            assertSameTask(expected.get(i), manager.getTask(expected.get(i).getId()));
+        }
+        assertNull(manager.getTask(UUID.randomUUID()));
+    }
+
+    private static void assertSameTask(Task expected, Task actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.isCompleted(), actual.isCompleted());
+    }
+
+    private static List<Task> copies(List<Task> tasks) {
+        List<Task> copies = new ArrayList<>();
+        for (Task task : tasks) {
+            copies.add(new Task(task));
+        }
+        return copies;
+    }
+
+    private static Task randomTask(Random random) {
+        Priority[] priorities = Priority.values();
+        return new Task(new UUID(random.nextLong(), random.nextLong()), "task " + random.nextInt(1000), "d" + random.nextInt(100),
+                priorities[random.nextInt(priorities.length)], LocalDate.of(2024, 1, 1).plusDays(random.nextInt(400)),
+                random.nextBoolean());
+    }
+}
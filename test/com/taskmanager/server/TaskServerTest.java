@@ -0,0 +1,223 @@
+package com.taskmanager.server;
+
+import com.taskmanager.logic.TaskManager;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+import com.taskmanager.util.TaskPersistence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskServerTest {
+    private TaskManager manager;
+    private TaskServer server;
+    private HttpClient client;
+    private String base;
+
+    @BeforeEach
+    void start() throws IOException {
+        manager = new TaskManager(new NoPersistence());
+        server = new TaskServer(manager, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        client = HttpClient.newHttpClient();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void createReadUpdateDelete() throws Exception {
+        HttpResponse<String> created = send("POST", "/tasks",
+                "{\"title\":\" Write report \",\"priority\":\"high\",\"dueDate\":\"2025-03-01\"}", null);
+        assertEquals(201, created.statusCode());
+        Map<String, Object> task = object(created);
+        String id = (String) task.get("id");
+        assertEquals("/tasks/" + id, created.headers().firstValue("Location").orElse(null));
+        assertEquals("Write report", task.get("title"));
+        assertEquals("HIGH", task.get("priority"));
+        assertEquals(Boolean.FALSE, task.get("completed"));
+        assertEquals(1, manager.getTotalTasks());
+
+        HttpResponse<String> read = send("GET", "/tasks/" + id, null, null);
+        assertEquals(200, read.statusCode());
+        assertEquals(task, object(read));
+
+        // Fields left out keep their value.
+        HttpResponse<String> updated = send("PUT", "/tasks/" + id, "{\"completed\":true,\"description\":\"draft\"}", null);
+        assertEquals(200, updated.statusCode());
+        Map<String, Object> changed = object(updated);
+        assertEquals("Write report", changed.get("title"));
+        assertEquals("HIGH", changed.get("priority"));
+        assertEquals("draft", changed.get("description"));
+        assertEquals(Boolean.TRUE, changed.get("completed"));
+        assertTrue(manager.getTask(UUID.fromString(id)).isCompleted());
+
+        HttpResponse<String> list = send("GET", "/tasks?q=REPORT&completed=true", null, null);
+        assertEquals(200, list.statusCode());
+        Map<String, Object> page = object(list);
+        assertEquals(1.0, page.get("total"));
+        assertEquals(1, ((List<?>) page.get("tasks")).size());
+
+        HttpResponse<String> stats = send("GET", "/stats", null, null);
+        assertEquals(200, stats.statusCode());
+        assertEquals(1.0, object(stats).get("completed"));
+
+        assertEquals(204, send("DELETE", "/tasks/" + id, null, null).statusCode());
+        assertEquals(404, send("GET", "/tasks/" + id, null, null).statusCode());
+        assertEquals(404, send("PUT", "/tasks/" + id, "{}", null).statusCode());
+        assertEquals(404, send("DELETE", "/tasks/" + id, null, null).statusCode());
+        assertEquals(0, manager.getTotalTasks());
+    }
+
+    @Test
+    void badRequests() throws Exception {
+        HttpResponse<String> noTitle = send("POST", "/tasks", "{\"title\":\"  \",\"dueDate\":\"2025-03-01\"}", null);
+        assertEquals(400, noTitle.statusCode());
+        assertEquals("Title cannot be empty.", object(noTitle).get("error"));
+        HttpResponse<String> badDate = send("POST", "/tasks", "{\"title\":\"a\",\"dueDate\":\"03/01/2025\"}", null);
+        assertEquals(400, badDate.statusCode());
+        assertEquals("Invalid Date format. Use YYYY-MM-DD.", object(badDate).get("error"));
+        assertEquals(400, send("POST", "/tasks", "{\"title\":", null).statusCode());
+        assertEquals(400, send("POST", "/tasks", "[]", null).statusCode());
+        assertEquals(400, send("POST", "/tasks", "{\"title\":\"a\",\"dueDate\":\"2025-03-01\",\"colour\":\"red\"}", null).statusCode());
+        assertEquals(400, send("GET", "/tasks?sort=sideways", null, null).statusCode());
+        assertEquals(400, send("GET", "/tasks?limit=ten", null, null).statusCode());
+        assertEquals(400, send("GET", "/tasks?priority=URGENT", null, null).statusCode());
+        assertEquals(0, manager.getTotalTasks());
+
+        assertEquals(404, send("GET", "/tasks/not-an-id", null, null).statusCode());
+        assertEquals(404, send("GET", "/tasks/" + UUID.randomUUID() + "/more", null, null).statusCode());
+        assertEquals(404, send("GET", "/stats/more", null, null).statusCode());
+
+        HttpResponse<String> patch = send("PATCH", "/tasks", "{}", null);
+        assertEquals(405, patch.statusCode());
+        assertEquals("GET, HEAD, POST", patch.headers().firstValue("Allow").orElse(null));
+        assertEquals(405, send("POST", "/tasks/" + UUID.randomUUID(), "{}", null).statusCode());
+        assertEquals(405, send("DELETE", "/stats", null, null).statusCode());
+    }
+
+    @Test
+    void unchangedDataIsNotSentAgain() throws Exception {
+        String id = (String) object(send("POST", "/tasks", "{\"title\":\"a\",\"dueDate\":\"2025-03-01\"}", null)).get("id");
+
+        for (String path : new String[] {"/tasks", "/tasks/" + id, "/stats"}) {
+            HttpResponse<String> first = send("GET", path, null, null);
+            String etag = first.headers().firstValue("ETag").orElse(null);
+            assertNotNull(etag, path);
+
+            HttpResponse<String> again = send("GET", path, null, etag);
+            assertEquals(304, again.statusCode(), path);
+            assertEquals("", again.body());
+            assertEquals(200, send("GET", path, null, "\"something-else\"").statusCode(), path);
+
+            send("PUT", "/tasks/" + id, "{\"title\":\"b" + path.length() + "\"}", null);
+            HttpResponse<String> changed = send("GET", path, null, etag);
+            assertEquals(200, changed.statusCode(), path);
+            assertNotEquals(etag, changed.headers().firstValue("ETag").orElse(null), path);
+        }
+    }
+
+    @Test
+    void conditionalWritesNeedTheCurrentVersion() throws Exception {
+        String id = (String) object(send("POST", "/tasks", "{\"title\":\"a\",\"dueDate\":\"2025-03-01\"}", null)).get("id");
+        String etag = send("GET", "/tasks/" + id, null, null).headers().firstValue("ETag").orElse(null);
+
+        HttpResponse<String> updated = client.send(request("PUT", "/tasks/" + id, "{\"title\":\"b\"}", "If-Match", etag),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, updated.statusCode());
+        String newer = updated.headers().firstValue("ETag").orElse(null);
+        assertNotNull(newer);
+        assertNotEquals(etag, newer);
+        assertEquals(newer, send("GET", "/tasks/" + id, null, null).headers().firstValue("ETag").orElse(null));
+
+        // Someone else's tag from before the change.
+        HttpResponse<String> stale = client.send(request("PUT", "/tasks/" + id, "{\"title\":\"c\"}", "If-Match", etag),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(412, stale.statusCode());
+        assertEquals("b", manager.getTask(UUID.fromString(id)).getTitle());
+        assertEquals(412, client.send(request("DELETE", "/tasks/" + id, null, "If-Match", etag),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(1, manager.getTotalTasks());
+
+        assertEquals(204, client.send(request("DELETE", "/tasks/" + id, null, "If-Match", newer),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(0, manager.getTotalTasks());
+    }
+
+    @Test
+    void concurrentPutsKeepEachOthersFields() throws Exception {
+        String id = (String) object(send("POST", "/tasks", "{\"title\":\"a\",\"dueDate\":\"2025-03-01\"}", null)).get("id");
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<HttpResponse<String>> title;
+            CompletableFuture<HttpResponse<String>> description;
+            // Holding the manager's lock lines both requests up at the same point, so both
+            // would read the task before either stored it if the read weren't under the lock.
+            synchronized (manager) {
+                title = client.sendAsync(request("PUT", "/tasks/" + id, "{\"title\":\"t" + i + "\"}", null, null),
+                        HttpResponse.BodyHandlers.ofString());
+                description = client.sendAsync(request("PUT", "/tasks/" + id, "{\"description\":\"d" + i + "\"}", null, null),
+                        HttpResponse.BodyHandlers.ofString());
+                Thread.sleep(300);
+            }
+            assertEquals(200, title.get().statusCode());
+            assertEquals(200, description.get().statusCode());
+
+            Task task = manager.getTask(UUID.fromString(id));
+            assertEquals("t" + i, task.getTitle());
+            assertEquals("d" + i, task.getDescription());
+        }
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String ifNoneMatch) throws Exception {
+        return client.send(request(method, path, body, "If-None-Match", ifNoneMatch), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path, String body, String header, String value) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (value != null) request.header(header, value);
+        return request.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(HttpResponse<String> response) {
+        return (Map<String, Object>) Json.parse(response.body());
+    }
+
+    private static class NoPersistence implements TaskPersistence {
+        @Override
+        public List<Task> load() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void saveAll(List<Task> tasks) {
+        }
+
+        @Override
+        public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) {
+        }
+    }
+}
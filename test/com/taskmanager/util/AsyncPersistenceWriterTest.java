@@ -0,0 +1,143 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncPersistenceWriterTest {
+    @Test
+    void changesInsideTheWindowGoOutAsOneWrite() throws IOException {
+        Recorder recorder = new Recorder();
+        AsyncPersistenceWriter writer = new AsyncPersistenceWriter(recorder, 10_000);
+        for (int i = 0; i < 50; i++) {
+            writer.write(changes(1), ArrayList::new);
+        }
+        assertTrue(writer.hasPendingWrites());
+        writer.flush();
+
+        assertFalse(writer.hasPendingWrites());
+        assertEquals(1, recorder.writes.size());
+        assertEquals(50, recorder.writes.get(0).size());
+        assertEquals(1, recorder.flushes);
+        writer.close();
+    }
+
+    @Test
+    void theWindowClosesByItself() throws InterruptedException, IOException {
+        Recorder recorder = new Recorder();
+        AsyncPersistenceWriter writer = new AsyncPersistenceWriter(recorder, 20);
+        writer.write(changes(3), ArrayList::new);
+        assertTrue(writer.awaitDurable(5, TimeUnit.SECONDS));
+        assertEquals(1, recorder.writes.size());
+        writer.close();
+    }
+
+    @Test
+    void fullSaveReplacesChangesQueuedBeforeIt() throws IOException {
+        Recorder recorder = new Recorder();
+        AsyncPersistenceWriter writer = new AsyncPersistenceWriter(recorder, 10_000);
+        writer.write(changes(5), ArrayList::new);
+        List<Task> all = new ArrayList<>();
+        all.add(task());
+        writer.saveAll(all);
+        writer.write(changes(2), ArrayList::new);
+        writer.flush();
+
+        assertEquals(1, recorder.saves.size());
+        assertEquals(1, recorder.saves.get(0).size());
+        assertEquals(1, recorder.writes.size());
+        assertEquals(2, recorder.writes.get(0).size());
+        writer.close();
+    }
+
+    @Test
+    void awaitDurableWaitsForTheDisk() throws InterruptedException, IOException {
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder recorder = new Recorder() {
+            @Override
+            public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(changes, snapshot);
+            }
+        };
+        AsyncPersistenceWriter writer = new AsyncPersistenceWriter(recorder, 0);
+        writer.write(changes(1), ArrayList::new);
+        assertFalse(writer.awaitDurable(50, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(writer.awaitDurable(5, TimeUnit.SECONDS));
+        assertFalse(writer.hasPendingWrites());
+        writer.close();
+    }
+
+    @Test
+    void closeWritesWhatIsQueued() throws IOException {
+        Recorder recorder = new Recorder();
+        AsyncPersistenceWriter writer = new AsyncPersistenceWriter(recorder, 10_000);
+        writer.write(changes(4), ArrayList::new);
+        writer.close();
+        assertEquals(1, recorder.writes.size());
+        assertTrue(recorder.closed);
+    }
+
+    private static List<TaskChange> changes(int count) {
+        List<TaskChange> changes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            changes.add(new TaskChange(TaskChange.Type.ADDED, task()));
+        }
+        return changes;
+    }
+
+    private static Task task() {
+        return new Task("Task", "", Priority.MEDIUM, LocalDate.of(2025, 1, 1));
+    }
+
+    // Keeps what it is given; only the writer thread calls it, apart from close.
+    private static class Recorder implements TaskPersistence {
+        final List<List<TaskChange>> writes = new ArrayList<>();
+        final List<List<Task>> saves = new ArrayList<>();
+        volatile int flushes;
+        volatile boolean closed;
+
+        @Override
+        public List<Task> load() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void saveAll(List<Task> tasks) {
+            saves.add(new ArrayList<>(tasks));
+        }
+
+        @Override
+        public void write(List<TaskChange> changes, Supplier<List<Task>> snapshot) {
+            writes.add(new ArrayList<>(changes));
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
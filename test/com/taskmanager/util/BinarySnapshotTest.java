@@ -0,0 +1,153 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import static com.taskmanager.util.TaskAssertions.assertSameTasks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinarySnapshotTest {
+    private static final int HEADER_SIZE = 28;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrips() throws IOException {
+        List<Task> tasks = tasks();
+        Path file = dir.resolve("tasks.bin");
+        BinarySnapshot.write(tasks, file);
+        assertTrue(BinarySnapshot.isSnapshot(file));
+        assertSameTasks(tasks, BinarySnapshot.read(file));
+
+        BinarySnapshot.write(new ArrayList<>(), file);
+        assertEquals(0, BinarySnapshot.read(file).size());
+    }
+
+    @Test
+    void convertsToAndFromCsv() throws IOException {
+        List<Task> tasks = tasks();
+        Path csv = dir.resolve("tasks.csv");
+        Path binary = dir.resolve("tasks.bin");
+        FileHandler.saveTasks(tasks, csv);
+        assertFalse(BinarySnapshot.isSnapshot(csv));
+        BinarySnapshot.importCsv(csv, binary);
+        assertSameTasks(tasks, BinarySnapshot.read(binary));
+
+        Path back = dir.resolve("back.csv");
+        BinarySnapshot.exportCsv(binary, back);
+        assertSameTasks(tasks, FileHandler.loadTasks(back));
+        assertSameTasks(tasks, SnapshotFormat.read(binary));
+        assertSameTasks(tasks, SnapshotFormat.read(back));
+    }
+
+    @Test
+    void damagedHeaderIsRejected() throws IOException {
+        byte[] bytes = written();
+        bytes[9] ^= 1; // the task count
+        assertRejected(bytes, "header is corrupted");
+    }
+
+    @Test
+    void damagedPayloadIsRejected() throws IOException {
+        byte[] bytes = written();
+        bytes[HEADER_SIZE + 40] ^= 1;
+        assertRejected(bytes, "payload is corrupted");
+        assertRejected(Arrays.copyOf(written(), written().length - 1), "truncated");
+    }
+
+    @Test
+    void otherVersionsAreRejected() throws IOException {
+        byte[] bytes = written();
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        header.putShort(4, (short) (BinarySnapshot.VERSION + 1));
+        // With a valid header checksum, so only the version is wrong.
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, HEADER_SIZE - 4);
+        header.putInt(HEADER_SIZE - 4, (int) crc.getValue());
+        assertRejected(bytes, "Unsupported snapshot version " + (BinarySnapshot.VERSION + 1));
+    }
+
+    @Test
+    void journaledPersistenceCompactsToBinary() throws Exception {
+        List<Task> tasks = tasks().subList(0, 50);
+        Path file = dir.resolve("tasks_data.csv");
+        JournaledPersistence persistence = new JournaledPersistence(file, SnapshotFormat.BINARY, tasks.size());
+        for (Task task : tasks) {
+            persistence.write(List.of(new TaskChange(TaskChange.Type.ADDED, task)), () -> tasks);
+        }
+        persistence.close();
+        assertTrue(BinarySnapshot.isSnapshot(file));
+        assertSameTasks(tasks, new JournaledPersistence(file).load());
+    }
+
+    @Test
+    void snapshotPropertySelectsTheFormat() {
+        String previous = System.getProperty("taskmanager.snapshot");
+        try {
+            System.clearProperty("taskmanager.snapshot");
+            assertEquals(SnapshotFormat.CSV, SnapshotFormat.configured());
+            System.setProperty("taskmanager.snapshot", "binary");
+            assertEquals(SnapshotFormat.BINARY, SnapshotFormat.configured());
+        } finally {
+            if (previous == null) {
+                System.clearProperty("taskmanager.snapshot");
+            } else {
+                System.setProperty("taskmanager.snapshot", previous);
+            }
+        }
+    }
+
+    @Test
+    void otherFilesAreNotSnapshots() throws IOException {
+        byte[] bytes = written();
+        bytes[0] = 'X';
+        assertRejected(bytes, "Not a task snapshot");
+        assertRejected(new byte[10], "Not a task snapshot");
+    }
+
+    private byte[] written() throws IOException {
+        Path file = dir.resolve("written.bin");
+        BinarySnapshot.write(tasks(), file);
+        return Files.readAllBytes(file);
+    }
+
+    private void assertRejected(byte[] bytes, String message) throws IOException {
+        Path file = dir.resolve("damaged.bin");
+        Files.write(file, bytes);
+        IOException e = assertThrows(IOException.class, () -> BinarySnapshot.read(file));
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+
+    private static List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(UUID.randomUUID(), "", "", Priority.LOW, LocalDate.of(1970, 1, 1), false));
+        tasks.add(new Task(UUID.randomUUID(), "Café | naïve", "two\nlines 😀", Priority.HIGH, LocalDate.of(1969, 12, 31), true));
+        char[] longText = new char[70_000];
+        Arrays.fill(longText, 'é');
+        tasks.add(new Task(UUID.randomUUID(), new String(longText), "long", Priority.MEDIUM, LocalDate.of(2400, 2, 29), false));
+        for (int i = 0; i < 10_000; i++) {
+            tasks.add(new Task(UUID.randomUUID(), "Task " + i, i % 3 == 0 ? "" : "Notes " + i,
+                    Priority.values()[i % 3], LocalDate.of(2025, 1, 1).plusDays(i % 5000), i % 2 == 0));
+        }
+        return tasks;
+    }
+
+}
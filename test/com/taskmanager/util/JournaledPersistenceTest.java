@@ -0,0 +1,105 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournaledPersistenceTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void journalWithTornCharacterStillLoads() throws Exception {
+        Path file = dir.resolve("tasks_data.csv");
+        JournaledPersistence persistence = new JournaledPersistence(file);
+        Task task = new Task("Café", "naïve", Task.Priority.HIGH, LocalDate.of(2025, 1, 2));
+        persistence.write(List.of(new TaskChange(TaskChange.Type.ADDED, task)), List::of);
+        persistence.close();
+        // A crash mid-append can leave the first byte of a two-byte character behind.
+        Path journal = dir.resolve("tasks_data.csv.journal");
+        Files.write(journal, "A|torn é".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Files.write(journal, new byte[] {(byte) 0xC3}, StandardOpenOption.APPEND);
+
+        List<Task> loaded = new JournaledPersistence(file).load();
+
+        assertEquals(1, loaded.size());
+        assertEquals("Café", loaded.get(0).getTitle());
+        assertEquals("naïve", loaded.get(0).getDescription());
+    }
+
+    @Test
+    void failedSnapshotKeepsTheJournal() throws Exception {
+        Path file = dir.resolve("tasks_data.csv");
+        JournaledPersistence persistence = new JournaledPersistence(file);
+        Task first = new Task("First", "", Task.Priority.LOW, LocalDate.of(2025, 1, 1));
+        persistence.write(List.of(new TaskChange(TaskChange.Type.ADDED, first)), List::of);
+        // A non-empty directory in its place makes renaming the new snapshot fail.
+        blockSnapshot(file);
+
+        Task second = new Task("Second", "", Task.Priority.LOW, LocalDate.of(2025, 1, 2));
+        assertThrows(IOException.class, () -> persistence.saveAll(List.of(first, second)));
+        assertTrue(Files.exists(dir.resolve("tasks_data.csv.journal")));
+
+        unblockSnapshot(file);
+        List<Task> loaded = new JournaledPersistence(file).load();
+        assertEquals(1, loaded.size());
+        assertEquals("First", loaded.get(0).getTitle());
+    }
+
+    @Test
+    void failedCompactionKeepsTheRotatedJournal() throws Exception {
+        Path file = dir.resolve("tasks_data.csv");
+        blockSnapshot(file);
+        JournaledPersistence persistence = new JournaledPersistence(file, 2);
+        for (int i = 0; i < 2; i++) {
+            Task task = new Task("Task " + i, "", Task.Priority.MEDIUM, LocalDate.of(2025, 1, 1 + i));
+            persistence.write(List.of(new TaskChange(TaskChange.Type.ADDED, task)), List::of);
+        }
+        persistence.awaitCompaction();
+        Path rotated = dir.resolve("tasks_data.csv.journal.old");
+        assertTrue(Files.exists(rotated));
+
+        unblockSnapshot(file);
+        JournaledPersistence reopened = new JournaledPersistence(file, 2);
+        assertEquals(2, reopened.load().size());
+        reopened.close();
+        // The load finished the compaction, this time with nothing left to replay.
+        assertFalse(Files.exists(rotated));
+        assertEquals(2, FileHandler.loadTasks(file).size());
+    }
+
+    private static void blockSnapshot(Path file) throws IOException {
+        Files.createDirectory(file);
+        Files.createFile(file.resolve("blocker"));
+    }
+
+    private static void unblockSnapshot(Path file) throws IOException {
+        Files.delete(file.resolve("blocker"));
+        Files.delete(file);
+    }
+
+    @Test
+    void recognisesUtf8() {
+        assertTrue(TaskRecordDecoder.isUtf8("plain ascii".getBytes(StandardCharsets.UTF_8), 11));
+        byte[] utf8 = "Café ✓ 😀".getBytes(StandardCharsets.UTF_8);
+        assertTrue(TaskRecordDecoder.isUtf8(utf8, utf8.length));
+        byte[] cp1252 = "Café".getBytes(Charset.forName("windows-1252"));
+        assertFalse(TaskRecordDecoder.isUtf8(cp1252, cp1252.length));
+        assertFalse(TaskRecordDecoder.isUtf8(utf8, utf8.length - 1));
+    }
+}
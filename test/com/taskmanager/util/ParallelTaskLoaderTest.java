@@ -0,0 +1,122 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.taskmanager.util.TaskAssertions.assertSameTasks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelTaskLoaderTest {
+    @TempDir
+    Path dir;
+
+    // Several chunks' worth of lines, with bad, short, blank and very long lines scattered
+    // over them, must come out exactly as the line by line loader gives them.
+    @Test
+    void matchesTheLineLoader() throws IOException {
+        Random random = new Random(17);
+        StringBuilder text = new StringBuilder();
+        int badLines = 0;
+        while (text.length() < 12 << 20) {
+            int kind = random.nextInt(200);
+            if (kind == 0) {
+                text.append(UUID.randomUUID()).append("|Bad date ").append(badLines++).append("|x|LOW|2025-02-30|false");
+            } else if (kind == 1) {
+                text.append("not-a-uuid|Bad id ").append(badLines++).append("|x|HIGH|2025-01-01|true");
+            } else if (kind == 2) {
+                text.append(UUID.randomUUID()).append("|Short|x|LOW");
+            } else if (kind == 3) {
+                text.append("   ");
+            } else if (kind == 4) {
+                // Long enough to straddle a chunk boundary somewhere.
+                char[] longText = new char[300_000 + random.nextInt(900_000)];
+                Arrays.fill(longText, 'w');
+                text.append(FileHandler.formatTask(task(random, new String(longText))));
+            } else {
+                text.append(FileHandler.formatTask(task(random, "Task " + random.nextInt(1_000_000))));
+            }
+            text.append(random.nextInt(4) == 0 ? "\r\n" : "\n");
+        }
+        text.append(FileHandler.formatTask(task(random, "No newline at the end")));
+        Path file = dir.resolve("tasks.csv");
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<String> expectedErrors = new ArrayList<>();
+        List<Task> expected = loadLineByLine(file, expectedErrors);
+        assertTrue(expectedErrors.size() >= 2 && expectedErrors.size() == badLines, "bad lines: " + expectedErrors.size());
+
+        List<String> errors = new ArrayList<>();
+        List<Task> loaded = captureErrors(errors, () -> ParallelTaskLoader.load(file));
+        assertEquals(expectedErrors, errors, "corrupted lines, in file order");
+        assertSameTasks(expected, loaded);
+    }
+
+    @Test
+    void emptyFileHasNoTasks() throws IOException {
+        Path file = dir.resolve("empty.csv");
+        Files.write(file, new byte[0]);
+        assertEquals(0, ParallelTaskLoader.load(file).size());
+    }
+
+    private static Task task(Random random, String title) {
+        String[] descriptions = {"", "plain", "with | pipe", "two\nlines", "Café naïve 日本"};
+        return new Task(UUID.randomUUID(), title, descriptions[random.nextInt(descriptions.length)],
+                Priority.values()[random.nextInt(3)], LocalDate.of(2025, 1, 1).plusDays(random.nextInt(700)),
+                random.nextBoolean());
+    }
+
+    // What FileHandler.loadTasks did before the parallel loader: readLine, skip blank and
+    // short lines, report the ones that don't parse.
+    private static List<Task> loadLineByLine(Path file, List<String> errors) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                try {
+                    Task task = FileHandler.parseTask(line);
+                    if (task != null) tasks.add(task);
+                } catch (RuntimeException e) {
+                    errors.add("Skipping corrupted line: " + line);
+                }
+            }
+        }
+        return tasks;
+    }
+
+    private interface Load {
+        List<Task> run() throws IOException;
+    }
+
+    private static List<Task> captureErrors(List<String> errors, Load load) throws IOException {
+        PrintStream original = System.err;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(captured, true, StandardCharsets.UTF_8));
+        try {
+            return load.run();
+        } finally {
+            System.setErr(original);
+            for (String line : captured.toString(StandardCharsets.UTF_8).split(System.lineSeparator())) {
+                if (!line.isEmpty()) errors.add(line);
+            }
+        }
+    }
+
+}
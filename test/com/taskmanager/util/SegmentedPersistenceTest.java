@@ -0,0 +1,205 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import com.taskmanager.model.TaskChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static com.taskmanager.util.TaskAssertions.assertSameTasks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentedPersistenceTest {
+    private static final int SEGMENT_SIZE = 10;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rewritesOnlyTheSegmentsAChangeTouches() throws IOException {
+        List<Task> tasks = tasks(35);
+        SegmentedPersistence store = store();
+        store.saveAll(tasks);
+        assertEquals(4, store.getSegmentCount());
+        Set<String> before = segmentFiles();
+
+        Task edited = new Task(tasks.get(14));
+        edited.setTitle("Edited");
+        tasks.set(14, edited);
+        write(store, tasks, new TaskChange(TaskChange.Type.UPDATED, edited));
+
+        Set<String> after = segmentFiles();
+        Set<String> kept = new TreeSet<>(before);
+        kept.retainAll(after);
+        assertEquals(3, kept.size(), "untouched segments keep their files");
+        assertEquals(4, after.size());
+        assertSameTasks(tasks, store().load());
+    }
+
+    @Test
+    void addsFillTheLastSegmentAndEmptySegmentsGo() throws IOException {
+        List<Task> tasks = tasks(15);
+        SegmentedPersistence store = store();
+        store.saveAll(tasks);
+
+        List<TaskChange> changes = new ArrayList<>();
+        for (Task task : tasks(8)) {
+            tasks.add(task);
+            changes.add(new TaskChange(TaskChange.Type.ADDED, task));
+        }
+        write(store, tasks, changes.toArray(new TaskChange[0]));
+        assertEquals(3, store.getSegmentCount());
+
+        changes.clear();
+        for (Task task : new ArrayList<>(tasks.subList(0, 10))) {
+            tasks.remove(task);
+            changes.add(new TaskChange(TaskChange.Type.DELETED, task));
+        }
+        write(store, tasks, changes.toArray(new TaskChange[0]));
+        assertEquals(2, store.getSegmentCount());
+        assertEquals(2, segmentFiles().size());
+
+        SegmentedPersistence reopened = store();
+        assertSameTasks(tasks, reopened.load());
+        // The reopened store knows where each task is.
+        Task edited = new Task(tasks.get(0));
+        edited.setCompleted(true);
+        tasks.set(0, edited);
+        write(reopened, tasks, new TaskChange(TaskChange.Type.UPDATED, edited));
+        assertSameTasks(tasks, store().load());
+    }
+
+    @Test
+    void crashBeforeTheManifestKeepsTheOldList() throws IOException {
+        List<Task> tasks = tasks(25);
+        SegmentedPersistence store = store();
+        store.saveAll(tasks);
+        Path manifest = dir.resolve("manifest");
+        Path saved = dir.resolveSibling("manifest.saved");
+        Files.copy(manifest, saved, StandardCopyOption.REPLACE_EXISTING);
+        Set<String> committed = segmentFiles();
+
+        Task edited = new Task(tasks.get(3));
+        edited.setTitle("Never committed");
+        write(store, tasks, new TaskChange(TaskChange.Type.UPDATED, edited));
+        // As if the app died after writing the new segment but before renaming the manifest:
+        // the old manifest is back, and the old segment file with it, the new one orphaned.
+        Files.copy(saved, manifest, StandardCopyOption.REPLACE_EXISTING);
+        for (String name : committed) {
+            if (!Files.exists(dir.resolve(name))) {
+                write(dir.resolve(name), tasks.subList(0, SEGMENT_SIZE));
+            }
+        }
+        Files.write(dir.resolve("manifest.tmp"), "# Task Manager segments\nhalf".getBytes(StandardCharsets.UTF_8));
+
+        assertSameTasks(tasks, store().load());
+        assertEquals(committed, segmentFiles(), "the orphaned segment is deleted");
+    }
+
+    @Test
+    void crashAfterTheManifestDeletesTheOldSegments() throws IOException {
+        List<Task> tasks = tasks(25);
+        SegmentedPersistence store = store();
+        store.saveAll(tasks);
+        Path oldCopy = dir.resolveSibling("old-segment");
+        String firstSegment = segmentFiles().iterator().next();
+        Files.copy(dir.resolve(firstSegment), oldCopy, StandardCopyOption.REPLACE_EXISTING);
+
+        Task edited = new Task(tasks.get(0));
+        edited.setTitle("Committed");
+        tasks.set(0, edited);
+        write(store, tasks, new TaskChange(TaskChange.Type.UPDATED, edited));
+        Set<String> committed = segmentFiles();
+        // The commit happened, but the replaced file wasn't deleted yet.
+        Files.copy(oldCopy, dir.resolve(firstSegment));
+
+        assertSameTasks(tasks, store().load());
+        assertEquals(committed, segmentFiles());
+    }
+
+    @Test
+    void damagedFilesFailTheLoad() throws IOException {
+        store().saveAll(tasks(25));
+        Path segment = dir.resolve(segmentFiles().iterator().next());
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(segment, bytes);
+        IOException corrupted = assertThrows(IOException.class, () -> store().load());
+        assertTrue(corrupted.getMessage().contains("checksum"), corrupted.getMessage());
+
+        Path manifest = dir.resolve("manifest");
+        List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        Files.write(manifest, lines.subList(0, lines.size() - 1), StandardCharsets.UTF_8);
+        IOException truncated = assertThrows(IOException.class, () -> store().load());
+        assertTrue(truncated.getMessage().contains("truncated"), truncated.getMessage());
+    }
+
+    @Test
+    void importsTheLegacyDataFileOnce() throws IOException {
+        List<Task> tasks = tasks(12);
+        Path legacy = dir.resolveSibling("legacy.csv");
+        FileHandler.saveTasks(tasks, legacy);
+        SegmentedPersistence store = new SegmentedPersistence(dir, legacy, SEGMENT_SIZE);
+        assertSameTasks(tasks, store.load());
+        assertTrue(Files.exists(dir.resolve("manifest")));
+        assertTrue(Files.exists(legacy), "the legacy file is left in place");
+
+        Files.delete(legacy);
+        assertSameTasks(tasks, new SegmentedPersistence(dir, legacy, SEGMENT_SIZE).load());
+        assertFalse(Files.exists(legacy));
+    }
+
+    private SegmentedPersistence store() {
+        return new SegmentedPersistence(dir, null, SEGMENT_SIZE);
+    }
+
+    private static void write(SegmentedPersistence store, List<Task> tasks, TaskChange... changes) throws IOException {
+        List<Task> snapshot = new ArrayList<>(tasks);
+        store.write(Arrays.asList(changes), () -> snapshot);
+    }
+
+    // A segment file's contents, without the manifest entry it would need.
+    private static void write(Path file, List<Task> tasks) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (Task task : tasks) {
+            text.append(FileHandler.formatTask(task)).append('\n');
+        }
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Set<String> segmentFiles() throws IOException {
+        Set<String> names = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "segment-*")) {
+            for (Path file : files) {
+                names.add(file.getFileName().toString());
+            }
+        }
+        return names;
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task(UUID.randomUUID(), "Task " + i, "Notes | " + i, Priority.values()[i % 3],
+                    LocalDate.of(2025, 1, 1).plusDays(i), i % 5 == 0));
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,29 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Field by field comparison of tasks read back from disk against the ones written.
+final class TaskAssertions {
+    private TaskAssertions() {
+    }
+
+    static void assertSameTasks(List<Task> expected, List<Task> actual) {
+        assertEquals(expected.size(), actual.size(), "task count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameTask(expected.get(i), actual.get(i));
+        }
+    }
+
+    static void assertSameTask(Task expected, Task actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.isCompleted(), actual.isCompleted());
+    }
+}
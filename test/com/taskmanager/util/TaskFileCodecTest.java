@@ -0,0 +1,112 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.taskmanager.util.TaskAssertions.assertSameTasks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TaskFileCodecTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsAnyText() throws IOException {
+        List<Task> tasks = new ArrayList<>(Arrays.asList(
+                task("Plain", "", Priority.LOW, LocalDate.of(2025, 1, 1), false),
+                task("", "No title", Priority.HIGH, LocalDate.of(1, 1, 1), true),
+                task("a|b||c", "pipe | and %7C and %%", Priority.MEDIUM, LocalDate.of(9999, 12, 31), false),
+                task("Line\none", "crlf\r\nand\rcr", Priority.HIGH, LocalDate.of(2024, 2, 29), true),
+                task("Café naïve 日本", "emoji 😀 and €", Priority.LOW, LocalDate.of(2030, 6, 15), false),
+                task("back\\slash", "trailing pipe|", Priority.MEDIUM, LocalDate.of(2025, 3, 10), false)));
+        Random random = new Random(3);
+        for (int i = 0; i < 5000; i++) {
+            tasks.add(task(randomText(random, 40), randomText(random, 200), Priority.values()[i % 3],
+                    LocalDate.of(2025, 1, 1).plusDays(random.nextInt(3000)), random.nextBoolean()));
+        }
+        // Longer than the writer's and reader's buffers on its own.
+        char[] huge = new char[3 << 20];
+        Arrays.fill(huge, '|');
+        tasks.add(task("Huge", new String(huge), Priority.LOW, LocalDate.of(2025, 1, 2), false));
+
+        Path file = dir.resolve("tasks.csv");
+        write(tasks, file);
+        assertSameTasks(tasks, TaskFileReader.read(file));
+        assertSameTasks(tasks, FileHandler.loadTasks(file));
+    }
+
+    @Test
+    void writesWhatFormatTaskGives() throws IOException {
+        List<Task> tasks = Arrays.asList(
+                task("Café | %", "two\nlines", Priority.HIGH, LocalDate.of(2025, 5, 4), true),
+                task("Second", "", Priority.LOW, LocalDate.of(2025, 5, 5), false));
+        Path file = dir.resolve("tasks.csv");
+        write(tasks, file);
+        String expected = FileHandler.formatTask(tasks.get(0)) + System.lineSeparator()
+                + FileHandler.formatTask(tasks.get(1)) + System.lineSeparator();
+        assertEquals(expected, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void loneSurrogateIsWrittenAsQuestionMark() throws IOException {
+        Task task = task("bad \ud800 half", "", Priority.LOW, LocalDate.of(2025, 1, 1), false);
+        Path file = dir.resolve("tasks.csv");
+        write(Arrays.asList(task), file);
+        assertEquals("bad ? half", TaskFileReader.read(file).get(0).getTitle());
+    }
+
+    @Test
+    void readsEveryLineEndingAndSkipsBadLines() throws IOException {
+        Task first = task("First", "", Priority.LOW, LocalDate.of(2025, 1, 1), false);
+        Task second = task("Second", "", Priority.HIGH, LocalDate.of(2025, 1, 2), true);
+        Task third = task("Third", "", Priority.MEDIUM, LocalDate.of(2025, 1, 3), false);
+        String text = FileHandler.formatTask(first) + "\r\n"
+                + "not a task\n"
+                + FileHandler.formatTask(second) + "\r"
+                + UUID.randomUUID() + "|Bad date|x|LOW|2025-13-45|false\n"
+                + FileHandler.formatTask(third);
+        Path file = dir.resolve("tasks.csv");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        assertSameTasks(Arrays.asList(first, second, third), TaskFileReader.read(file));
+    }
+
+    private static void write(List<Task> tasks, Path file) throws IOException {
+        try (TaskFileWriter writer = new TaskFileWriter(file)) {
+            for (Task task : tasks) {
+                writer.write(task);
+            }
+        }
+    }
+
+    private static Task task(String title, String description, Priority priority, LocalDate due, boolean completed) {
+        return new Task(UUID.randomUUID(), title, description, priority, due, completed);
+    }
+
+    // Mostly letters, with the characters the format has to escape mixed in.
+    private static String randomText(Random random, int maxLength) {
+        String alphabet = "abcdefghij |%\n\r\\éü中";
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(maxLength);
+        for (int i = 0; i < length; i++) {
+            if (random.nextInt(50) == 0) {
+                text.append("🚀");
+            } else {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.taskmanager.util;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.Task.Priority;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.taskmanager.util.TaskAssertions.assertSameTasks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TransferFormatTest {
+    private static final String[] TEXTS = {
+        "plain", "", "comma, inside", "\"quoted\"", "line\nbreak", "crlf\r\nbreak", "pipe | %7C", "Café 😀", " padded "
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void csvRoundTrips() throws IOException {
+        roundTrip(TransferFormat.CSV, "tasks.csv");
+    }
+
+    @Test
+    void pipeRoundTrips() throws IOException {
+        roundTrip(TransferFormat.PIPE, "tasks.txt");
+    }
+
+    @Test
+    void csvColumnsInAnyOrderWithDefaults() throws IOException {
+        UUID id = UUID.randomUUID();
+        Path file = dir.resolve("tasks.csv");
+        write(file, "dueDate,title,id\r\n"
+                + "2025-04-01,\"Pay, rent\"," + id + "\r\n"
+                + "2025-04-02,No id,\r\n");
+        List<Task> tasks = new ArrayList<>();
+        TransferReport report = TaskImporter.importTasks(file, (batch, progress) -> tasks.addAll(batch));
+
+        assertEquals(2, report.getTransferred());
+        assertEquals(id, tasks.get(0).getId());
+        assertEquals("Pay, rent", tasks.get(0).getTitle());
+        assertEquals("", tasks.get(0).getDescription());
+        assertEquals(Priority.MEDIUM, tasks.get(0).getPriority());
+        assertEquals(LocalDate.of(2025, 4, 1), tasks.get(0).getDueDate());
+        assertFalse(tasks.get(0).isCompleted());
+        assertEquals("No id", tasks.get(1).getTitle());
+    }
+
+    @Test
+    void badRowsAndDuplicatesAreCounted() throws IOException {
+        UUID id = UUID.randomUUID();
+        Path file = dir.resolve("tasks.csv");
+        write(file, "id,title,dueDate\r\n"
+                + id + ",First,2025-04-01\r\n"
+                + id + ",Same id,2025-04-02\r\n"
+                + ",No date,\r\n"
+                + ",Bad date,2025-02-30\r\n"
+                + ",Too,many,fields\r\n"
+                + ",Last,2025-04-03\r\n");
+        List<Task> tasks = new ArrayList<>();
+        TransferReport report = TaskImporter.importTasks(file, (batch, progress) -> tasks.addAll(batch));
+
+        assertEquals(6, report.getRows());
+        assertEquals(2, report.getTransferred());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(3, report.getRejected());
+        assertEquals("First", tasks.get(0).getTitle());
+        assertEquals("Last", tasks.get(1).getTitle());
+    }
+
+    private void roundTrip(TransferFormat format, String name) throws IOException {
+        // Enough rows for several chunks, so their order is checked too.
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TaskImporter.CHUNK_ROWS * 3 + 17; i++) {
+            tasks.add(new Task(UUID.randomUUID(), TEXTS[i % TEXTS.length] + i, TEXTS[(i / 3) % TEXTS.length],
+                    Priority.values()[i % 3], LocalDate.of(2025, 1, 1).plusDays(i % 400), i % 4 == 0));
+        }
+        Path file = dir.resolve(name);
+        TransferReport exported = TaskExporter.exportTasks(tasks, file, format);
+        assertEquals(tasks.size(), exported.getTransferred());
+        assertEquals(format, TransferFormat.detect(file));
+
+        List<Task> imported = new ArrayList<>();
+        TransferReport report = TaskImporter.importTasks(file, (batch, progress) -> imported.addAll(batch));
+        assertEquals(tasks.size(), report.getTransferred());
+        assertEquals(0, report.getRejected());
+        assertSameTasks(tasks, imported);
+    }
+
+    private static void write(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+}